@@ -0,0 +1,64 @@
+package com.comphenix.protocol.events;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+
+/**
+ * Measures the construction of packet containers and the cost of cloning an existing packet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketContainerBenchmark {
+
+    private PacketContainer packet;
+
+    @Setup
+    public void setup() {
+        BukkitInitialization.initializeAll();
+
+        this.packet = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+        this.packet.getIntegers().write(0, 42);
+        this.packet.getUUIDs().write(0, UUID.randomUUID());
+        this.packet.getEntityTypeModifier().write(0, EntityType.ZOMBIE);
+        this.packet.getDoubles().write(0, 1.5D).write(1, 64D).write(2, -3.25D);
+    }
+
+    @Benchmark
+    public PacketContainer construct() {
+        return new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+    }
+
+    @Benchmark
+    public PacketContainer fromPacket() {
+        return PacketContainer.fromPacket(this.packet.getHandle());
+    }
+
+    @Benchmark
+    public PacketContainer shallowClone() {
+        return this.packet.shallowClone();
+    }
+
+    @Benchmark
+    public PacketContainer deepClone() {
+        return this.packet.deepClone();
+    }
+}
@@ -0,0 +1,72 @@
+package com.comphenix.protocol.injector.collection;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.error.BasicErrorReporter;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the dispatch of a single outbound packet event to the registered listeners, depending on the amount of
+ * listeners for its packet type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketListenerSetBenchmark {
+
+    @Param({"1", "5", "20", "100"})
+    public int listeners;
+
+    private OutboundPacketListenerSet listenerSet;
+    private PacketEvent event;
+
+    @Setup
+    public void setup() {
+        BukkitInitialization.initializeAll();
+
+        Plugin plugin = mock(Plugin.class);
+        when(plugin.getName()).thenReturn("Benchmark");
+
+        this.listenerSet = new OutboundPacketListenerSet(null, new BasicErrorReporter());
+        for (int i = 0; i < this.listeners; i++) {
+            this.listenerSet.addListener(new PacketAdapter(plugin, PacketType.Play.Server.KEEP_ALIVE) {
+                @Override
+                public void onPacketSending(PacketEvent event) {
+                }
+            });
+        }
+
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.KEEP_ALIVE);
+        this.event = PacketEvent.fromServer(this, packet, mock(Player.class));
+    }
+
+    @Benchmark
+    public PacketEvent invoke() {
+        this.listenerSet.invoke(this.event);
+        return this.event;
+    }
+}
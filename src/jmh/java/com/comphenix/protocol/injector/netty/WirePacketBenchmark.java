@@ -0,0 +1,70 @@
+package com.comphenix.protocol.injector.netty;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Measures the serialization of packets into their wire format and the deserialization back into a packet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WirePacketBenchmark {
+
+    private PacketContainer packet;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        BukkitInitialization.initializeAll();
+
+        this.packet = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+        this.packet.getIntegers().write(0, 42);
+        this.packet.getUUIDs().write(0, UUID.randomUUID());
+        this.packet.getEntityTypeModifier().write(0, EntityType.ZOMBIE);
+
+        this.bytes = WirePacket.bytesFromPacket(this.packet);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return WirePacket.bytesFromPacket(this.packet);
+    }
+
+    @Benchmark
+    public WirePacket fromPacket() {
+        return WirePacket.fromPacket(this.packet);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        ByteBuf buffer = PacketContainer.createPacketBuffer();
+        try {
+            buffer.writeBytes(this.bytes);
+            return PacketContainer.deserializeFromBuffer(PacketType.Play.Server.SPAWN_ENTITY, buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+}
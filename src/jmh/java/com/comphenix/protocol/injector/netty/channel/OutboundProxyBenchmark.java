@@ -0,0 +1,234 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.error.BasicErrorReporter;
+import com.comphenix.protocol.error.ErrorReporter;
+import com.comphenix.protocol.events.NetworkMarker;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.injector.collection.OutboundPacketListenerSet;
+import com.comphenix.protocol.injector.netty.ChannelListener;
+import com.comphenix.protocol.injector.netty.Injector;
+import com.comphenix.protocol.reflect.FuzzyReflection;
+import com.comphenix.protocol.reflect.accessors.Accessors;
+import com.comphenix.protocol.reflect.accessors.MethodAccessor;
+import com.comphenix.protocol.utility.MinecraftReflection;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the per-packet overhead the outbound event loop proxy adds to a scheduled packet write, depending on the
+ * amount of registered outbound listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutboundProxyBenchmark {
+
+    @Param({"0", "1", "20"})
+    public int listeners;
+
+    private EmbeddedChannel channel;
+    private NettyEventLoopProxy eventLoopProxy;
+    private Runnable task;
+
+    @Setup
+    public void setup() throws Exception {
+        BukkitInitialization.initializeAll();
+
+        Plugin plugin = mock(Plugin.class);
+        when(plugin.getName()).thenReturn("Benchmark");
+
+        ErrorReporter reporter = new BasicErrorReporter();
+        OutboundPacketListenerSet outboundListeners = new OutboundPacketListenerSet(null, reporter);
+        for (int i = 0; i < this.listeners; i++) {
+            outboundListeners.addListener(new PacketAdapter(plugin, PacketType.Play.Server.KEEP_ALIVE) {
+                @Override
+                public void onPacketSending(PacketEvent event) {
+                }
+            });
+        }
+
+        // the protocol is resolved from the encoder since 1.20.5, so we need a real one in the pipeline
+        this.channel = new EmbeddedChannel();
+        this.channel.pipeline().addLast("encoder", createClientboundPlayEncoder());
+
+        Server server = mock(Server.class);
+        NettyChannelInjector injector = new NettyChannelInjector(
+                mock(Player.class),
+                server,
+                new NetworkManagerStub(this.channel),
+                this.channel,
+                new BenchmarkChannelListener(outboundListeners, reporter),
+                new InjectionFactory(plugin, server, reporter),
+                reporter);
+
+        this.eventLoopProxy = new NettyEventLoopProxy(this.channel.eventLoop(), injector) {
+            @Override
+            protected Runnable doProxyRunnable(Runnable original) {
+                return injector.processOutbound(original);
+            }
+
+            @Override
+            protected <T> Callable<T> doProxyCallable(Callable<T> original) {
+                return injector.processOutbound(original);
+            }
+        };
+
+        Object packet = new PacketContainer(PacketType.Play.Server.KEEP_ALIVE).getHandle();
+        this.task = new PacketWriteTask(packet);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.channel.close();
+    }
+
+    @Benchmark
+    public Runnable proxyOutboundTask() {
+        return this.eventLoopProxy.proxyRunnable(this.task);
+    }
+
+    private static ChannelHandler createClientboundPlayEncoder() throws ReflectiveOperationException {
+        Class<?> protocolInfoClass = MinecraftReflection.getProtocolInfoClass();
+        Class<?> protocolInfoUnboundClass = MinecraftReflection.getProtocolInfoUnboundClass();
+
+        MethodAccessor bindAccessor = Accessors.getMethodAccessor(FuzzyReflection.fromClass(protocolInfoUnboundClass)
+                .getMethodByReturnTypeAndParameters("bind", protocolInfoClass, new Class[]{Function.class}));
+        MethodAccessor flowAccessor = Accessors.getMethodAccessor(FuzzyReflection.fromClass(protocolInfoClass)
+                .getMethodByReturnTypeAndParameters("flow", MinecraftReflection.getPacketFlowClass(), new Class[0]));
+
+        Class<?> gameProtocols = MinecraftReflection.getMinecraftClass("network.protocol.game.GameProtocols");
+        for (Field field : gameProtocols.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+
+            field.setAccessible(true);
+            Object protocolInfo = field.get(null);
+            if (protocolInfoUnboundClass.isInstance(protocolInfo)) {
+                Function<?, ?> emptyFunction = input -> null;
+                protocolInfo = bindAccessor.invoke(protocolInfo, emptyFunction);
+            }
+
+            if (protocolInfoClass.isInstance(protocolInfo) && flowAccessor.invoke(protocolInfo).toString().contains("CLIENTBOUND")) {
+                Class<?> encoderClass = MinecraftReflection.getMinecraftClass("network.PacketEncoder");
+                return (ChannelHandler) encoderClass.getConstructor(protocolInfoClass).newInstance(protocolInfo);
+            }
+        }
+
+        throw new IllegalStateException("Unable to find the clientbound game protocol");
+    }
+
+    // mirrors the tasks the network manager schedules on the event loop to write a packet
+    private static final class PacketWriteTask implements Runnable {
+
+        private final Object packet;
+
+        public PacketWriteTask(Object packet) {
+            this.packet = packet;
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+
+    private static final class NetworkManagerStub {
+
+        private final Channel channel;
+
+        public NetworkManagerStub(Channel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static final class BenchmarkChannelListener implements ChannelListener {
+
+        private final OutboundPacketListenerSet outboundListeners;
+        private final ErrorReporter reporter;
+
+        public BenchmarkChannelListener(OutboundPacketListenerSet outboundListeners, ErrorReporter reporter) {
+            this.outboundListeners = outboundListeners;
+            this.reporter = reporter;
+        }
+
+        @Override
+        public PacketEvent onPacketSending(Injector injector, PacketContainer packet, NetworkMarker marker) {
+            if (marker == null && !this.hasOutboundListener(packet.getType())) {
+                return null;
+            }
+
+            PacketEvent event = PacketEvent.fromServer(this, packet, marker, injector.getPlayer());
+            this.outboundListeners.invoke(event);
+            return event;
+        }
+
+        @Override
+        public PacketEvent onPacketReceiving(Injector injector, PacketContainer packet, NetworkMarker marker) {
+            return null;
+        }
+
+        @Override
+        public boolean hasInboundListener(PacketType packetType) {
+            return false;
+        }
+
+        @Override
+        public boolean hasOutboundListener(PacketType packetType) {
+            return this.outboundListeners.containsPacketType(packetType);
+        }
+
+        @Override
+        public boolean hasOutboundListeners() {
+            return !this.outboundListeners.isEmpty();
+        }
+
+        @Override
+        public boolean hasMainThreadListener(PacketType type) {
+            return false;
+        }
+
+        @Override
+        public ErrorReporter getReporter() {
+            return this.reporter;
+        }
+
+        @Override
+        public boolean isDebug() {
+            return false;
+        }
+    }
+}
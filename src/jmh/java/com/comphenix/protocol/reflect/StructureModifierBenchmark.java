@@ -0,0 +1,83 @@
+package com.comphenix.protocol.reflect;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+
+/**
+ * Measures field access through structure modifiers, both the lookup of a typed modifier and the read and write of a
+ * field through a modifier which was looked up before. The converted accessors go through the bukkit converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructureModifierBenchmark {
+
+    private PacketContainer packet;
+    private StructureModifier<Integer> integers;
+    private StructureModifier<UUID> uuids;
+    private StructureModifier<EntityType> entityTypes;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        BukkitInitialization.initializeAll();
+
+        this.packet = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+        this.integers = this.packet.getIntegers();
+        this.uuids = this.packet.getUUIDs();
+        this.entityTypes = this.packet.getEntityTypeModifier();
+
+        this.uuids.write(0, UUID.randomUUID());
+        this.entityTypes.write(0, EntityType.ZOMBIE);
+    }
+
+    @Benchmark
+    public StructureModifier<Integer> withType() {
+        return this.packet.getModifier().withType(int.class);
+    }
+
+    @Benchmark
+    public Integer readInteger() {
+        return this.integers.read(0);
+    }
+
+    @Benchmark
+    public StructureModifier<Integer> writeInteger() {
+        return this.integers.write(0, this.value++);
+    }
+
+    @Benchmark
+    public UUID readConvertedUUID() {
+        return this.uuids.read(0);
+    }
+
+    @Benchmark
+    public EntityType readConvertedEntityType() {
+        return this.entityTypes.read(0);
+    }
+
+    @Benchmark
+    public StructureModifier<EntityType> writeConvertedEntityType() {
+        return this.entityTypes.write(0, EntityType.ZOMBIE);
+    }
+}
@@ -0,0 +1,101 @@
+package com.comphenix.protocol.reflect.accessors;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.reflect.ExactReflection;
+import com.comphenix.protocol.reflect.StructureModifier;
+
+/**
+ * Compares the method handle accessors with the generated accessors of the bytecode backend, both on a private
+ * class and through the structure modifier of a packet. Every backend runs in its own fork, as the backend only
+ * applies to accessors created after it was selected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBackendBenchmark {
+
+    @Param({"METHOD_HANDLE", "BYTECODE"})
+    private AccessorBackend backend;
+
+    private Target target;
+    private FieldAccessor nameField;
+    private MethodAccessor addMethod;
+
+    private StructureModifier<UUID> uuids;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        Accessors.setBackend(this.backend);
+        BukkitInitialization.initializeAll();
+
+        this.target = new Target();
+        this.nameField = Accessors.getFieldAccessor(ExactReflection.fromClass(Target.class, true).getField("name"));
+        this.addMethod = Accessors.getMethodAccessor(Target.class, "add", int.class, int.class);
+
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+        this.uuids = packet.getModifier().withType(UUID.class);
+        this.uuids.write(0, UUID.randomUUID());
+    }
+
+    @Benchmark
+    public Object readField() {
+        return this.nameField.get(this.target);
+    }
+
+    @Benchmark
+    public void writeField() {
+        this.nameField.set(this.target, "value");
+    }
+
+    @Benchmark
+    public Object invokeMethod() {
+        return this.addMethod.invoke(this.target, this.value++, 1);
+    }
+
+    @Benchmark
+    public Object invokeMethodFixedArity() {
+        return this.addMethod.invoke2(this.target, this.value++, 1);
+    }
+
+    @Benchmark
+    public UUID readPacketField() {
+        return this.uuids.read(0);
+    }
+
+    @Benchmark
+    public StructureModifier<UUID> writePacketField() {
+        return this.uuids.write(0, this.uuids.read(0));
+    }
+
+    private static final class Target {
+
+        private String name = "name";
+
+        @SuppressWarnings("unused")
+        private int add(int left, int right) {
+            return left + right;
+        }
+    }
+}
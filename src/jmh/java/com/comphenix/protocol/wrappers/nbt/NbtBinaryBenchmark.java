@@ -0,0 +1,65 @@
+package com.comphenix.protocol.wrappers.nbt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.wrappers.nbt.io.NbtBinarySerializer;
+
+/**
+ * Measures the binary serialization of a small compound, similar to the tag of an item stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NbtBinaryBenchmark {
+
+    private NbtCompound compound;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        BukkitInitialization.initializeAll();
+
+        NbtCompound display = NbtFactory.ofCompound("display");
+        display.put("Name", "{\"text\":\"Benchmark\"}");
+        display.put(NbtFactory.ofList("Lore", "first line", "second line", "third line"));
+
+        this.compound = NbtFactory.ofCompound("tag");
+        this.compound.put(display);
+        this.compound.put("Damage", 42);
+        this.compound.put("Unbreakable", (byte) 1);
+        this.compound.put("CustomModelData", 1234567);
+
+        this.bytes = this.serialize();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        NbtBinarySerializer.DEFAULT.serialize(this.compound, new DataOutputStream(buffer));
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public NbtCompound deserialize() {
+        return NbtBinarySerializer.DEFAULT.deserializeCompound(new DataInputStream(new ByteArrayInputStream(this.bytes)));
+    }
+}
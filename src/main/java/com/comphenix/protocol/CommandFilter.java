@@ -5,6 +5,8 @@ import com.comphenix.protocol.error.ErrorReporter;
 import com.comphenix.protocol.error.Report;
 import com.comphenix.protocol.error.ReportType;
 import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.filter.FilterSyntaxException;
+import com.comphenix.protocol.filter.PacketFilterCompiler;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.conversations.Conversable;
@@ -15,26 +17,22 @@ import org.bukkit.conversations.ConversationContext;
 import org.bukkit.conversations.ConversationFactory;
 import org.bukkit.plugin.Plugin;
 
-import javax.script.Invocable;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
- * A command to apply JavaScript filtering to the packet command.
+ * A command to apply filter expressions to the packet command.
+ * <p>
+ * The expressions are compiled by the {@link PacketFilterCompiler}.
  * 
  * @author Kristian
  */
 public class CommandFilter extends CommandBase {
-    public static final ReportType REPORT_FALLBACK_ENGINE = new ReportType("Falling back to the Rhino engine.");
-    public static final ReportType REPORT_CANNOT_LOAD_FALLBACK_ENGINE = new ReportType("Could not load Rhino either. Please upgrade your JVM or OS.");
-    public static final ReportType REPORT_PACKAGES_UNSUPPORTED_IN_ENGINE = new ReportType("Unable to initialize packages for JavaScript engine.");
     public static final ReportType REPORT_FILTER_REMOVED_FOR_ERROR = new ReportType("Removing filter %s for causing %s.");
     public static final ReportType REPORT_CANNOT_HANDLE_CONVERSATION = new ReportType("Cannot handle conversation.");
     
@@ -65,20 +63,48 @@ public class CommandFilter extends CommandBase {
     public static class Filter {
         private final String name;
         private final String predicate;
+        private final Predicate<PacketEvent> compiled;
         
         private final Set<PacketType> packets;
         
         /**
          * Construct a new immutable filter.
          * @param name - the unique name of the filter.
-         * @param predicate - the JavaScript predicate that will be used to filter packet events.
+         * @param predicate - the filter expression that will be used to filter packet events.
          * @param packets - a list of packet types this filter applies to.
+         * @throws IllegalArgumentException If the filter expression is invalid.
+         * @see #compile(String, String, Set)
          */
         public Filter(String name, String predicate, Set<PacketType> packets) {
+            this(name, predicate, compileUnchecked(predicate), packets);
+        }
+
+        private Filter(String name, String predicate, Predicate<PacketEvent> compiled, Set<PacketType> packets) {
             this.name = name;
             this.predicate = predicate;
+            this.compiled = compiled;
             this.packets = new HashSet<>(packets);
         }
+
+        /**
+         * Compile a new immutable filter.
+         * @param name - the unique name of the filter.
+         * @param predicate - the filter expression that will be used to filter packet events.
+         * @param packets - a list of packet types this filter applies to.
+         * @return The compiled filter.
+         * @throws FilterSyntaxException If the filter expression is invalid.
+         */
+        public static Filter compile(String name, String predicate, Set<PacketType> packets) throws FilterSyntaxException {
+            return new Filter(name, predicate, PacketFilterCompiler.compile(predicate), packets);
+        }
+
+        private static Predicate<PacketEvent> compileUnchecked(String predicate) {
+            try {
+                return PacketFilterCompiler.compile(predicate);
+            } catch (FilterSyntaxException e) {
+                throw new IllegalArgumentException("Invalid filter expression: " + e.getMessage(), e);
+            }
+        }
         
         /**
          * Retrieve the unique name of the filter.
@@ -89,7 +115,7 @@ public class CommandFilter extends CommandBase {
         }
         
         /**
-         * Retrieve the JavaScript predicate that will be used to filter packet events.
+         * Retrieve the filter expression that will be used to filter packet events.
          * @return Predicate itself.
          */
         public String getPredicate() {
@@ -114,51 +140,14 @@ public class CommandFilter extends CommandBase {
         }
         
         /**
-         * Evaluate the current filter using the provided ScriptEngine as context.
-         * <p>
-         * This context may be modified with additional code.
-         * @param context - the current script context.
+         * Evaluate the current filter.
          * @param event - the packet event to evaluate.
          * @return TRUE to pass this packet event on to the debug listeners, FALSE otherwise.
-         * @throws ScriptException If the compilation failed or the filter is not valid.
          */
-        public boolean evaluate(ScriptEngine context, PacketEvent event) throws ScriptException {
+        public boolean evaluate(PacketEvent event) {
             if (!isApplicable(event))
                 return true;
-            // Ensure that the predicate has been compiled
-            compile(context);
-            
-            try {
-                Object result = ((Invocable) context).invokeFunction(name, event, event.getPacket().getHandle());
-                
-                if (result instanceof Boolean)
-                    return (Boolean) result;
-                else
-                    throw new ScriptException("Filter result wasn't a boolean: " + result);
-                
-            } catch (NoSuchMethodException e) {
-                // Must be a fault with the script engine itself
-                throw new IllegalStateException("Unable to compile " + name + " into current script engine.", e);
-            }
-        }
-        
-        /**
-         * Force the compilation of a specific filter.
-         * @param context - the current script context.
-         * @throws ScriptException If the compilation failed.
-         */
-        public void compile(ScriptEngine context) throws ScriptException {
-            if (context.get(name) == null) {
-                context.eval("var " + name + " = function(event, packet) {\n" + predicate);
-            }
-        }
-        
-        /**
-         * Clean up all associated code from this filter in the provided script engine.
-         * @param context - the current script context.
-         */
-        public void close(ScriptEngine context) {
-            context.put(name, null);
+            return compiled.test(event);
         }
     }
     
@@ -176,16 +165,13 @@ public class CommandFilter extends CommandBase {
         @Override
         public boolean cancelBasedOnInput(ConversationContext context, String currentLine, StringBuilder lines, int lineCount) {
             try {
-                engine.eval("function(event, packet) {\n" + lines.toString());
+                PacketFilterCompiler.validate(lines.toString());
                 
-                // It compiles - accept the filter!
+                // It parses - accept the filter!
                 return true;
-            } catch (ScriptException e) {
-                // We also have the function() line
-                int realLineCount = lineCount + 1;
-                
-                // Only possible to recover from an error on the last line.
-                return e.getLineNumber() < realLineCount;
+            } catch (FilterSyntaxException e) {
+                // Only possible to recover if the expression is incomplete
+                return !e.isEndOfInput();
             }
         }
         
@@ -204,7 +190,7 @@ public class CommandFilter extends CommandBase {
     private FilterFailedHandler defaultFailedHandler;
     
     // Currently registered filters
-    private final Map<String, Filter> filters = new HashMap<>();
+    private final Map<String, Filter> filters = new ConcurrentHashMap<>();
     
     // Owner plugin
     private final Plugin plugin;
@@ -212,80 +198,12 @@ public class CommandFilter extends CommandBase {
     // Whether the command is enabled
     private final ProtocolConfig config;
     
-    // Script engine
-    private ScriptEngine engine;
-    private boolean uninitialized;
-    
     public CommandFilter(ErrorReporter reporter, Plugin plugin, ProtocolConfig config) {
         super(reporter, CommandBase.PERMISSION_ADMIN, NAME, 2);
         this.plugin = plugin;
         this.config = config;
-        
-        // Tell the filter system to initialize the script first chance it gets
-        this.uninitialized = true;
-    }
-    
-    private void initializeScript() {
-        try {
-            // First attempt
-            initializeEngine();
-            
-            // Oh for ..
-            if (!isInitialized()) {
-                throw new ScriptException("A JavaScript engine could not be found.");
-            } else {
-                plugin.getLogger().info("Loaded command filter engine.");
-            }
-        } catch (ScriptException e1) {
-            // It's not a huge deal
-            printPackageWarning(e1);
-            
-            if (!config.getScriptEngineName().equals("rhino")) {
-                reporter.reportWarning(this, Report.newBuilder(REPORT_FALLBACK_ENGINE));
-                config.setScriptEngineName("rhino");
-                config.saveAll();
-                
-                try {
-                    initializeEngine();
-                    
-                    if (!isInitialized()) {
-                        reporter.reportWarning(this, Report.newBuilder(REPORT_CANNOT_LOAD_FALLBACK_ENGINE));
-                    }
-                } catch (ScriptException e2) {
-                    // And again ..
-                    printPackageWarning(e2);
-                }
-            }
-        }
-    }
-    
-    private void printPackageWarning(ScriptException e) {
-        reporter.reportWarning(this, Report.newBuilder(REPORT_PACKAGES_UNSUPPORTED_IN_ENGINE).error(e));
-    }
-    
-    /**
-     * Initialize the current configured engine.
-     * @throws ScriptException If we are unable to import packages.
-     */
-    private void initializeEngine() throws ScriptException {
-        ScriptEngineManager manager = new ScriptEngineManager();
-        engine = manager.getEngineByName(config.getScriptEngineName());
-        
-        // Import useful packages
-        if (engine != null) {
-            engine.eval("importPackage(org.bukkit);");
-            engine.eval("importPackage(com.comphenix.protocol.reflect);");
-        }
     }
     
-    /**
-     * Determine if the filter engine has been successfully initialized.
-     * @return TRUE if it has, FALSE otherwise.
-     */
-    public boolean isInitialized() {
-        return engine != null;
-    }
-
     private FilterFailedHandler getDefaultErrorHandler() {
         // No need to create a new object every time
         if (defaultFailedHandler == null) {
@@ -325,7 +243,7 @@ public class CommandFilter extends CommandBase {
             Filter filter = it.next();
             
             try {
-                if (!filter.evaluate(engine, event)) {
+                if (!filter.evaluate(event)) {
                     return false;
                 }
             } catch (Exception ex) {
@@ -338,33 +256,16 @@ public class CommandFilter extends CommandBase {
         return true;
     }
 
-    /**
-     * Initialize the script engine if necessary.
-     */
-    private void checkScriptStatus() {
-        // Start the engine
-        if (uninitialized) {
-            uninitialized = false;
-            initializeScript();
-        }
-    }
-    
     /*
      * Description: Adds or removes a simple packet filter.
        Usage:       /<command> add|remove name [packet IDs]
      */
     @Override
     protected boolean handleCommand(CommandSender sender, String[] args) {
-        checkScriptStatus();
-        
         if (!config.isDebug()) {
             sender.sendMessage(ChatColor.RED + "Debug mode must be enabled in the configuration first!");
             return true;
         }
-        if (!isInitialized()) {
-            sender.sendMessage(ChatColor.RED + "JavaScript engine was not present. Filter system is disabled.");
-            return true;
-        }
         
         final SubCommand command = parseCommand(args, 0);
         final String name = args[1];
@@ -383,12 +284,12 @@ public class CommandFilter extends CommandBase {
                 
                 final PacketTypeParser parser = new PacketTypeParser();
                 final Set<PacketType> packets = parser.parseTypes(rangeArguments, PacketTypeParser.DEFAULT_MAX_RANGE);
-                sender.sendMessage("Enter filter program ('}' to complete or CANCEL):");
+                sender.sendMessage("Enter filter expression (CANCEL to abort), for instance integers[0] > 5 && !cancelled:");
                 
                 // Make sure we can use the conversable interface
                 if (sender instanceof Conversable) {
                     final MultipleLinesPrompt prompt =
-                            new MultipleLinesPrompt(new CompilationSuccessCanceller(), "function(event, packet) {");
+                            new MultipleLinesPrompt(new CompilationSuccessCanceller(), "filter:");
                     
                     new ConversationFactory(plugin).
                         withFirstPrompt(prompt).
@@ -402,19 +303,16 @@ public class CommandFilter extends CommandBase {
                                     
                                     if (event.gracefulExit()) {
                                         final String predicate = prompt.removeAccumulatedInput(event.getContext());
-                                        final Filter filter = new Filter(name, predicate, packets);
     
                                         // Print the last line as well
                                         whom.sendRawMessage(prompt.getPromptText(event.getContext()));
                                         
                                         try {
-                                            // Force early compilation
-                                            filter.compile(engine);
+                                            final Filter filter = Filter.compile(name, predicate, packets);
                                             
                                             filters.put(lowerCaseName, filter);
                                             whom.sendRawMessage(ChatColor.GOLD + "Added filter " + name);
-                                        } catch (ScriptException e) {
-                                            e.printStackTrace();
+                                        } catch (FilterSyntaxException e) {
                                             whom.sendRawMessage(ChatColor.GOLD + "Compilation error: " + e.getMessage());
                                         }
                                     } else {
@@ -441,7 +339,6 @@ public class CommandFilter extends CommandBase {
                 
                 // See if it exists before we remove it
                 if (filter != null) {
-                    filter.close(engine);
                     filters.remove(lowerCaseName);
                     sender.sendMessage(ChatColor.GOLD + "Removed filter " + name);
                 } else {
@@ -20,22 +20,33 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginDescriptionFile;
 
 import com.comphenix.protocol.error.DetailedErrorReporter;
 import com.comphenix.protocol.error.ErrorReporter;
 import com.comphenix.protocol.events.PacketListener;
+import com.comphenix.protocol.metrics.PacketMetrics;
+import com.comphenix.protocol.metrics.PacketTraffic;
+import com.comphenix.protocol.timing.PacketFlowProfiler;
 import com.comphenix.protocol.timing.TimingReport;
 import com.comphenix.protocol.timing.TimingTrackerManager;
 import com.comphenix.protocol.updater.Updater;
@@ -83,6 +94,12 @@ class CommandProtocol extends CommandBase {
             printVersion(sender);
         } else if (subCommand.equalsIgnoreCase("dump")) {
             dump(sender);
+        } else if (subCommand.equalsIgnoreCase("metrics")) {
+            saveMetrics(sender);
+        } else if (subCommand.equalsIgnoreCase("profiler")) {
+            toggleProfiler(sender, args);
+        } else if (subCommand.equalsIgnoreCase("traffic")) {
+            printTraffic(sender, args);
         } else {
             return false;
         }
@@ -176,6 +193,116 @@ class CommandProtocol extends CommandBase {
         }
     }
     
+    private void printTraffic(CommandSender sender, String[] args) {
+        if (args.length != 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /protocol traffic <player>");
+            return;
+        }
+
+        Player player = plugin.getServer().getPlayerExact(args[1]);
+        if (player == null) {
+            sender.sendMessage(ChatColor.RED + "Player " + args[1] + " is not online.");
+            return;
+        }
+
+        List<PacketTraffic> traffic = new ArrayList<>(ProtocolLibrary.getProtocolManager().getOutboundTraffic(player).values());
+        if (traffic.isEmpty()) {
+            sender.sendMessage(ChatColor.RED + "No traffic recorded for " + player.getName() + ".");
+            return;
+        }
+
+        traffic.sort(Comparator.comparingLong(PacketTraffic::getWireBytes)
+                .thenComparingLong(PacketTraffic::getBytes)
+                .reversed());
+
+        long totalBytes = 0;
+        long totalWireBytes = 0;
+        for (PacketTraffic entry : traffic) {
+            totalBytes += entry.getBytes();
+            totalWireBytes += entry.getWireBytes();
+        }
+
+        sender.sendMessage(ChatColor.GOLD + "Outbound traffic of " + player.getName() + ": " + ChatColor.WHITE
+                + formatBytes(totalWireBytes) + " sent, " + formatBytes(totalBytes) + " uncompressed");
+        for (PacketTraffic entry : traffic.subList(0, Math.min(10, traffic.size()))) {
+            sender.sendMessage(ChatColor.GREEN + entry.getPacketType().name() + ChatColor.WHITE + ": "
+                    + entry.getPackets() + " packets, " + formatBytes(entry.getWireBytes()) + " sent, "
+                    + formatBytes(entry.getBytes()) + " uncompressed");
+        }
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        } else if (bytes < 1024 * 1024) {
+            return String.format("%.1f KiB", bytes / 1024.0);
+        } else {
+            return String.format("%.1f MiB", bytes / (1024.0 * 1024.0));
+        }
+    }
+
+    private void toggleProfiler(CommandSender sender, String[] args) {
+        boolean isNotProfiling = !PacketFlowProfiler.isProfiling();
+
+        // Parse the boolean parameter
+        if (args.length >= 2) {
+            Boolean parsed = parseBoolean(toQueue(args, 1), "start");
+
+            if (parsed != null) {
+                isNotProfiling = parsed;
+            } else {
+                sender.sendMessage(ChatColor.RED + "Specify a state: ON or OFF.");
+                return;
+            }
+        }
+        if (args.length > 4) {
+            sender.sendMessage(ChatColor.RED + "Too many parameters.");
+            return;
+        }
+
+        if (isNotProfiling) {
+            int sampleRate = PacketFlowProfiler.DEFAULT_SAMPLE_RATE;
+            int capacity = PacketFlowProfiler.DEFAULT_CAPACITY;
+            try {
+                if (args.length >= 3) {
+                    sampleRate = Integer.parseInt(args[2]);
+                }
+                if (args.length >= 4) {
+                    capacity = Integer.parseInt(args[3]);
+                }
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Usage: /protocol profiler on [sample rate] [capacity]");
+                return;
+            }
+
+            if (sampleRate < 1 || capacity < 1) {
+                sender.sendMessage(ChatColor.RED + "Sample rate and capacity must be positive.");
+            } else if (PacketFlowProfiler.start(sampleRate, capacity)) {
+                sender.sendMessage(ChatColor.GOLD + "Started profiling 1 in " + sampleRate + " packets.");
+            } else {
+                sender.sendMessage(ChatColor.RED + "Packet profiler already started.");
+            }
+        } else {
+            Path path = plugin.getDataFolder().toPath().resolve("profile_" + System.currentTimeMillis() + ".collapsed");
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                if (PacketFlowProfiler.stop(writer)) {
+                    sender.sendMessage(ChatColor.GOLD + "Stopped and saved collapsed stacks to " + path);
+                    return;
+                }
+            } catch (IOException e) {
+                reporter.reportMinimal(plugin, "toggleProfiler()", e);
+                return;
+            }
+
+            // nothing was written
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+            }
+            sender.sendMessage(ChatColor.RED + "Packet profiler already stopped.");
+        }
+    }
+
     private void saveTimings(TimingReport report) {
         try {
         	Path path = plugin.getDataFolder().toPath().resolve("timings_" + System.currentTimeMillis() + ".txt");
@@ -185,6 +312,22 @@ class CommandProtocol extends CommandBase {
         }
     }
     
+    private void saveMetrics(CommandSender sender) {
+        try {
+            // write to a temporary file first, so a scraper never reads a partially written file
+            Path path = plugin.getDataFolder().toPath().resolve("metrics.prom");
+            Path temporary = path.resolveSibling("metrics.prom.tmp");
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                PacketMetrics.writePrometheus(writer);
+            }
+
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            sender.sendMessage(ChatColor.GOLD + "Saved packet metrics to " + path);
+        } catch (IOException e) {
+            reporter.reportMinimal(plugin, "saveMetrics()", e);
+        }
+    }
+    
     /**
      * Prevent further automatic updates until the next delay.
      */
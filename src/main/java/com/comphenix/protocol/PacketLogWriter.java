@@ -0,0 +1,246 @@
+/**
+ *  ProtocolLib - Bukkit server library that allows access to the Minecraft protocol.
+ *  Copyright (C) 2017 Dan Mulloy
+ *
+ *  This program is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU General Public License as published by the Free Software Foundation; either version 2 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along with this program;
+ *  if not, write to the Free Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307 USA
+ */
+package com.comphenix.protocol;
+
+import com.comphenix.protocol.reflect.FuzzyReflection;
+import com.comphenix.protocol.reflect.accessors.Accessors;
+import com.comphenix.protocol.reflect.accessors.MethodAccessor;
+import com.comphenix.protocol.utility.MinecraftReflection;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Formats and writes logged packets on a background thread.
+ * <p>
+ * The packets are queued without locking in a queue of a fixed capacity, packets which don't fit are dropped and
+ * counted. The writer thread dumps the queued packets in batches and flushes the output once per batch.
+ */
+final class PacketLogWriter implements Closeable {
+    static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static MethodAccessor HEX_DUMP;
+
+    private final Queue<LoggedPacket> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    private final LongAdder dropped = new LongAdder();
+    private long reportedDrops;
+
+    private final Writer output;
+    private final boolean closeOutput;
+    private final boolean timestamps;
+    private final Logger logger;
+
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    /**
+     * Start a new writer thread.
+     *
+     * @param output      - the output to write the packets to.
+     * @param closeOutput - whether to close the output when the writer is closed.
+     * @param timestamps  - whether to prefix each entry with the time it was logged.
+     * @param capacity    - the maximum amount of packets waiting to be written.
+     * @param logger      - the logger to report write failures to.
+     */
+    PacketLogWriter(Writer output, boolean closeOutput, boolean timestamps, int capacity, Logger logger) {
+        this.output = output;
+        this.closeOutput = closeOutput;
+        this.timestamps = timestamps;
+        this.capacity = capacity;
+        this.logger = logger;
+
+        this.writerThread = new Thread(this::writePackets, "ProtocolLib - Packet Log Writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue the given packet to be written, unless the queue is full.
+     *
+     * @param type  - the packet type.
+     * @param bytes - the serialized packet.
+     * @return TRUE if the packet was queued, FALSE if it was dropped.
+     */
+    boolean log(PacketType type, byte[] bytes) {
+        if (this.closed) {
+            this.dropped.increment();
+            return false;
+        }
+
+        if (this.size.incrementAndGet() > this.capacity) {
+            this.size.decrementAndGet();
+            this.dropped.increment();
+            return false;
+        }
+
+        this.queue.offer(new LoggedPacket(System.currentTimeMillis(), type, bytes));
+        return true;
+    }
+
+    long getDropped() {
+        return this.dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.writerThread);
+
+        try {
+            this.writerThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writePackets() {
+        try {
+            while (true) {
+                boolean stopping = this.closed;
+                int written = this.writeBatch();
+
+                if (written > 0 | this.writeDrops()) {
+                    this.output.flush();
+                }
+
+                if (stopping && this.queue.isEmpty()) {
+                    break;
+                }
+
+                // keep going while there is a backlog
+                if (written < BATCH_SIZE) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+            }
+        } catch (IOException ex) {
+            this.closed = true;
+            this.logger.log(Level.WARNING, "Failed to write packet log:", ex);
+        } finally {
+            this.dropped.add(this.size.getAndSet(0));
+            this.queue.clear();
+
+            try {
+                if (this.closeOutput) {
+                    this.output.close();
+                } else {
+                    this.output.flush();
+                }
+            } catch (IOException ex) {
+                this.logger.log(Level.WARNING, "Failed to close packet log:", ex);
+            }
+        }
+    }
+
+    private int writeBatch() throws IOException {
+        int written = 0;
+        LoggedPacket packet;
+
+        while (written < BATCH_SIZE && (packet = this.queue.poll()) != null) {
+            this.size.decrementAndGet();
+            written++;
+
+            String dump;
+            try {
+                dump = hexDump(packet.bytes);
+            } catch (IOException | RuntimeException ex) {
+                dump = "Failed to dump packet: " + ex + LINE_SEPARATOR;
+            }
+
+            this.writeLine(packet.timestamp, packet.type + ":");
+            this.writeLine(packet.timestamp, dump);
+            this.output.write(LINE_SEPARATOR);
+        }
+
+        return written;
+    }
+
+    private boolean writeDrops() throws IOException {
+        long drops = this.dropped.sum();
+        if (drops == this.reportedDrops) {
+            return false;
+        }
+
+        this.writeLine(System.currentTimeMillis(), "Dropped " + (drops - this.reportedDrops)
+                + " packets, as the log queue was full.");
+        this.output.write(LINE_SEPARATOR);
+        this.reportedDrops = drops;
+        return true;
+    }
+
+    private void writeLine(long timestamp, String message) throws IOException {
+        if (this.timestamps) {
+            this.output.write('[');
+            this.output.write(DATE.format(Instant.ofEpochMilli(timestamp)));
+            this.output.write("] ");
+        }
+
+        this.output.write(message);
+        if (!message.endsWith(LINE_SEPARATOR)) {
+            this.output.write(LINE_SEPARATOR);
+        }
+    }
+
+    private static String hexDump(byte[] bytes) throws IOException {
+        try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            if (HEX_DUMP == null) {
+                Class<?> hexDumpClass = MinecraftReflection.getLibraryClass("org.apache.commons.io.HexDump");
+                HEX_DUMP = Accessors.getMethodAccessor(FuzzyReflection.fromClass(hexDumpClass)
+                        .getMethodByParameters("dump", byte[].class, long.class, OutputStream.class, int.class));
+            }
+
+            HEX_DUMP.invoke(null, bytes, 0, output, 0);
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class LoggedPacket {
+        private final long timestamp;
+        private final PacketType type;
+        private final byte[] bytes;
+
+        private LoggedPacket(long timestamp, PacketType type, byte[] bytes) {
+            this.timestamp = timestamp;
+            this.type = type;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -18,35 +18,29 @@ package com.comphenix.protocol;
 
 import com.comphenix.protocol.PacketType.Protocol;
 import com.comphenix.protocol.PacketType.Sender;
+import com.comphenix.protocol.capture.PacketCaptureRecord;
+import com.comphenix.protocol.capture.PacketCaptureWriter;
 import com.comphenix.protocol.events.ListeningWhitelist;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.events.PacketListener;
 import com.comphenix.protocol.injector.netty.WirePacket;
-import com.comphenix.protocol.reflect.FuzzyReflection;
-import com.comphenix.protocol.reflect.accessors.Accessors;
-import com.comphenix.protocol.reflect.accessors.MethodAccessor;
-import com.comphenix.protocol.utility.MinecraftReflection;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.plugin.Plugin;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.text.MessageFormat;
-import java.text.SimpleDateFormat;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.FileHandler;
-import java.util.logging.Formatter;
-import java.util.logging.Handler;
 import java.util.logging.Level;
-import java.util.logging.LogRecord;
-import java.util.logging.Logger;
 
 /**
  * Logs packets to a given stream
@@ -55,15 +49,15 @@ import java.util.logging.Logger;
 public class PacketLogging implements CommandExecutor, PacketListener {
     public static final String NAME = "packetlog";
 
-    private static MethodAccessor HEX_DUMP;
-
     private List<PacketType> sendingTypes = new ArrayList<>();
     private List<PacketType> receivingTypes = new ArrayList<>();
 
     private ListeningWhitelist sendingWhitelist;
     private ListeningWhitelist receivingWhitelist;
 
-    private Logger fileLogger;
+    private volatile PacketLogWriter logWriter;
+    private LogLocation logWriterLocation;
+    private volatile PacketCaptureWriter captureWriter;
     private LogLocation location = LogLocation.FILE;
 
     private final ProtocolManager manager;
@@ -131,6 +125,8 @@ public class PacketLogging implements CommandExecutor, PacketListener {
                 if (args.length > 3) {
                     if (args[3].equalsIgnoreCase("console")) {
                         this.location = LogLocation.CONSOLE;
+                    } else if (args[3].equalsIgnoreCase("capture")) {
+                        this.location = LogLocation.CAPTURE;
                     } else {
                         this.location = LogLocation.FILE;
                     }
@@ -155,7 +151,7 @@ public class PacketLogging implements CommandExecutor, PacketListener {
                 return true;
             }
 
-            sender.sendMessage(ChatColor.RED + "Invalid syntax: /packetlog <protocol> <sender> <packet> [location]");
+            sender.sendMessage(ChatColor.RED + "Invalid syntax: /packetlog <protocol> <sender> <packet> [console|file|capture]");
             return true;
         } catch (Throwable ex) {
             sender.sendMessage(ChatColor.RED + "Failed to parse command: " + ex);
@@ -166,6 +162,13 @@ public class PacketLogging implements CommandExecutor, PacketListener {
     private void startLogging() {
         manager.removePacketListener(this);
 
+        if (location != LogLocation.CAPTURE || (sendingTypes.isEmpty() && receivingTypes.isEmpty())) {
+            closeCapture();
+        }
+        if (location != logWriterLocation || (sendingTypes.isEmpty() && receivingTypes.isEmpty())) {
+            closeLogWriter();
+        }
+
         if (sendingTypes.isEmpty() && receivingTypes.isEmpty()) {
             return;
         }
@@ -173,28 +176,84 @@ public class PacketLogging implements CommandExecutor, PacketListener {
         this.sendingWhitelist = ListeningWhitelist.newBuilder().types(sendingTypes).build();
         this.receivingWhitelist = ListeningWhitelist.newBuilder().types(receivingTypes).build();
 
-        // Set up the file logger if it hasn't been already
-        if (location == LogLocation.FILE && fileLogger == null) {
-            fileLogger = Logger.getLogger("ProtocolLib-FileLogging");
-
-            for (Handler handler : fileLogger.getHandlers())
-                fileLogger.removeHandler(handler);
-            fileLogger.setUseParentHandlers(false);
-
+        // Set up the log writer if it hasn't been already
+        if (location == LogLocation.FILE && logWriter == null) {
             try {
                 File logFile = new File(plugin.getDataFolder(), "log.log");
-                FileHandler handler = new FileHandler(logFile.getAbsolutePath(), true);
-                handler.setFormatter(new LogFormatter());
-                fileLogger.addHandler(handler);
+                Writer output = Files.newBufferedWriter(logFile.toPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                logWriter = new PacketLogWriter(output, true, true, PacketLogWriter.DEFAULT_CAPACITY, plugin.getLogger());
+                logWriterLocation = location;
             } catch (IOException ex) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to obtain log file:", ex);
                 return;
             }
+        } else if (location == LogLocation.CONSOLE && logWriter == null) {
+            Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            logWriter = new PacketLogWriter(output, false, false, PacketLogWriter.DEFAULT_CAPACITY, plugin.getLogger());
+            logWriterLocation = location;
+        }
+
+        // Packets are captured in binary segments which can be replayed using the PacketCaptureReader
+        if (location == LogLocation.CAPTURE && captureWriter == null) {
+            try {
+                File directory = new File(plugin.getDataFolder(), "captures");
+                captureWriter = new PacketCaptureWriter(directory, "capture-" + System.currentTimeMillis(),
+                        PacketCaptureWriter.DEFAULT_SEGMENT_SIZE, PacketCaptureWriter.DEFAULT_MAX_SEGMENTS,
+                        PacketCaptureWriter.DEFAULT_BUFFER_SIZE, plugin.getLogger());
+            } catch (IOException ex) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to create capture directory:", ex);
+                return;
+            }
         }
 
         manager.addPacketListener(this);
     }
 
+    private void closeCapture() {
+        if (captureWriter == null) {
+            return;
+        }
+
+        PacketCaptureWriter writer = captureWriter;
+        captureWriter = null;
+
+        try {
+            writer.close();
+        } catch (IOException ex) {
+            // already reported by the writer as soon as the capture failed
+        }
+
+        if (writer.getDropped() > 0) {
+            plugin.getLogger().warning("Dropped " + writer.getDropped() + " of "
+                    + (writer.getCaptured() + writer.getDropped()) + " captured packets.");
+        }
+    }
+
+    private void closeLogWriter() {
+        if (logWriter == null) {
+            return;
+        }
+
+        PacketLogWriter writer = logWriter;
+        logWriter = null;
+        logWriterLocation = null;
+
+        writer.close();
+        if (writer.getDropped() > 0) {
+            plugin.getLogger().warning("Dropped " + writer.getDropped() + " packets, as the log queue was full.");
+        }
+    }
+
+    /**
+     * Stop logging and close the packet log and capture, if any.
+     */
+    void close() {
+        manager.removePacketListener(this);
+        closeLogWriter();
+        closeCapture();
+    }
+
     @Override
     public void onPacketSending(PacketEvent event) {
         log(event);
@@ -207,32 +266,21 @@ public class PacketLogging implements CommandExecutor, PacketListener {
 
     // Here's where the magic happens
 
-    private static String hexDump(byte[] bytes) throws IOException {
-        try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
-            if (HEX_DUMP == null) {
-                Class<?> hexDumpClass = MinecraftReflection.getLibraryClass("org.apache.commons.io.HexDump");
-                HEX_DUMP = Accessors.getMethodAccessor(FuzzyReflection.fromClass(hexDumpClass)
-                        .getMethodByParameters("dump", byte[].class, long.class, OutputStream.class, int.class));
-            }
-
-            HEX_DUMP.invoke(null, bytes, 0, output, 0);
-            return new String(output.toByteArray(), StandardCharsets.UTF_8);
-        }
-    }
-
     private void log(PacketEvent event) {
         try {
-            byte[] bytes = WirePacket.bytesFromPacket(event.getPacket());
-            String hexDump = hexDump(bytes);
-
-            if (location == LogLocation.FILE) {
-                fileLogger.log(Level.INFO, event.getPacketType() + ":");
-                fileLogger.log(Level.INFO, hexDump);
-                fileLogger.log(Level.INFO, "");
-            } else {
-                System.out.println(event.getPacketType() + ":");
-                System.out.println(hexDump);
-                System.out.println();
+            if (location == LogLocation.CAPTURE) {
+                // the capture might be closed concurrently
+                PacketCaptureWriter writer = captureWriter;
+                if (writer != null) {
+                    writer.capture(PacketCaptureRecord.fromEvent(event));
+                }
+                return;
+            }
+
+            // the packet is dumped by the writer thread, but it has to be serialized before it can be modified
+            PacketLogWriter writer = logWriter;
+            if (writer != null) {
+                writer.log(event.getPacketType(), WirePacket.bytesFromPacket(event.getPacket()));
             }
         } catch (Throwable ex) {
             plugin.getLogger().log(Level.WARNING, "Failed to log packet " + event.getPacketType() + ":", ex);
@@ -260,18 +308,6 @@ public class PacketLogging implements CommandExecutor, PacketListener {
     }
 
     private enum LogLocation {
-        CONSOLE, FILE
-    }
-
-    private static class LogFormatter extends Formatter {
-        private static final SimpleDateFormat DATE = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        private static final String LINE_SEPARATOR = System.getProperty("line.separator");
-        private static final String FORMAT = "[{0}] {1}";
-
-        @Override
-        public String format(LogRecord record) {
-            final String string = formatMessage(record);
-            return string.isEmpty() ? LINE_SEPARATOR : MessageFormat.format(FORMAT, DATE.format(record.getMillis()), string) + LINE_SEPARATOR;
-        }
+        CONSOLE, FILE, CAPTURE
     }
 }
\ No newline at end of file
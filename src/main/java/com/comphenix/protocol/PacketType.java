@@ -12,6 +12,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 
 import org.apache.commons.lang.WordUtils;
@@ -833,6 +835,10 @@ public class PacketType implements Serializable, Cloneable, Comparable<PacketTyp
     // Lookup of packet types
     private static PacketTypeLookup LOOKUP;
 
+    // Dense indices of packet types, equal packet types share the same index
+    private static final Map<PacketType, Integer> INDICES = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
     /**
      * Protocol version of all the current IDs.
      */
@@ -851,6 +857,7 @@ public class PacketType implements Serializable, Cloneable, Comparable<PacketTyp
 
     private boolean dynamic;
     private transient int hashCode;
+    private transient int index;
 
     /**
      * Retrieve the current packet/legacy lookup.
@@ -1364,6 +1371,23 @@ public class PacketType implements Serializable, Cloneable, Comparable<PacketTyp
         return dynamic;
     }
 
+    /**
+     * Retrieve a small number identifying this packet type, which can be used as an index into arrays.
+     * <p>
+     * Indices are assigned on first use, starting from zero, and equal packet types share the same index. They are
+     * only valid for the current runtime and must not be persisted.
+     * @return The index of this packet type.
+     */
+    public int getIndex() {
+        // zero means not yet resolved, as the field isn't serialized
+        int index = this.index;
+        if (index == 0) {
+            index = INDICES.computeIfAbsent(this, type -> NEXT_INDEX.incrementAndGet());
+            this.index = index;
+        }
+        return index - 1;
+    }
+
     @Override
     public int hashCode() {
         int hash = hashCode;
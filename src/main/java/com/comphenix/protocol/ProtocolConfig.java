@@ -15,6 +15,10 @@
  */
 package com.comphenix.protocol;
 
+import com.comphenix.protocol.injector.netty.channel.InboundRateLimits;
+import com.comphenix.protocol.injector.netty.channel.MainThreadPacketQueue;
+import com.comphenix.protocol.reflect.accessors.AccessorBackend;
+import com.comphenix.protocol.timing.ListenerStallWatchdog;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.Files;
 import org.bukkit.configuration.Configuration;
@@ -25,6 +29,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Represents the configuration of ProtocolLib.
@@ -37,6 +44,7 @@ public class ProtocolConfig {
 
     private static final String SECTION_GLOBAL = "global";
     private static final String SECTION_AUTOUPDATER = "auto updater";
+    private static final String SECTION_INBOUND_RATE_LIMITS = "inbound rate limits";
 
     private static final String METRICS_ENABLED = "metrics";
 
@@ -49,6 +57,14 @@ public class ProtocolConfig {
     private static final String SCRIPT_ENGINE_NAME = "script engine";
     private static final String SUPPRESSED_REPORTS = "suppressed reports";
 
+    private static final String MAIN_THREAD_TICK_BUDGET = "main thread packet budget";
+    private static final String MAIN_THREAD_BACKLOG_LIMIT = "main thread packet backlog";
+    private static final String LISTENER_STALL_THRESHOLD = "listener stall threshold";
+    private static final String ACCESSOR_BACKEND = "accessor backend";
+
+    private static final String RATE_LIMIT_ACTION = "action";
+    private static final String RATE_LIMIT_LIMITS = "limits";
+
     private static final String UPDATER_NOTIFY = "notify";
     private static final String UPDATER_DOWNLAD = "download";
     private static final String UPDATER_DELAY = "delay";
@@ -269,6 +285,93 @@ public class ProtocolConfig {
         modCount++;
     }
 
+    /**
+     * Retrieve the maximum amount of packets processed per tick for main thread listeners.
+     *
+     * @return The packet budget per tick.
+     */
+    public int getMainThreadTickBudget() {
+        return Math.max(1, getGlobalValue(MAIN_THREAD_TICK_BUDGET, MainThreadPacketQueue.DEFAULT_TICK_BUDGET));
+    }
+
+    /**
+     * Retrieve the amount of packets waiting for the main thread after which players stop being read from.
+     *
+     * @return The packet backlog limit.
+     */
+    public int getMainThreadBacklogLimit() {
+        return Math.max(1, getGlobalValue(MAIN_THREAD_BACKLOG_LIMIT, MainThreadPacketQueue.DEFAULT_BACKLOG_LIMIT));
+    }
+
+    /**
+     * Retrieve the number of milliseconds a packet listener may block its thread before it is reported.
+     *
+     * @return The threshold in milliseconds, or 0 if stalled listeners are not detected.
+     */
+    public int getListenerStallThreshold() {
+        return Math.max(0, getGlobalValue(LISTENER_STALL_THRESHOLD, ListenerStallWatchdog.DEFAULT_THRESHOLD_MILLIS));
+    }
+
+    /**
+     * Retrieve the backend used to access the fields and methods of Minecraft classes.
+     *
+     * @return The accessor backend.
+     */
+    public AccessorBackend getAccessorBackend() {
+        String backendName = String.valueOf(getGlobalValue(ACCESSOR_BACKEND, (Object) AccessorBackend.METHOD_HANDLE.name()));
+        try {
+            return AccessorBackend.valueOf(backendName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Unknown accessor backend " + backendName + ", using method handles instead.");
+            return AccessorBackend.METHOD_HANDLE;
+        }
+    }
+
+    /**
+     * Retrieve the limits of packets players may send per packet type.
+     *
+     * @return The inbound rate limits, {@link InboundRateLimits#DISABLED} if none are configured.
+     */
+    public InboundRateLimits getInboundRateLimits() {
+        ConfigurationSection section = global == null ? null : global.getConfigurationSection(SECTION_INBOUND_RATE_LIMITS);
+        ConfigurationSection limits = section == null ? null : section.getConfigurationSection(RATE_LIMIT_LIMITS);
+        if (limits == null) {
+            return InboundRateLimits.DISABLED;
+        }
+
+        InboundRateLimits.Action action;
+        String actionName = section.getString(RATE_LIMIT_ACTION, InboundRateLimits.Action.DROP.name());
+        try {
+            action = InboundRateLimits.Action.valueOf(actionName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Unknown rate limit action " + actionName + ", dropping packets instead.");
+            action = InboundRateLimits.Action.DROP;
+        }
+
+        Map<PacketType, Integer> packetsPerSecond = new HashMap<>();
+        for (String name : limits.getKeys(false)) {
+            int rate = limits.getInt(name);
+            if (rate <= 0) {
+                plugin.getLogger().warning("Rate limit of " + name + " must be positive.");
+                continue;
+            }
+
+            boolean found = false;
+            for (PacketType type : PacketType.values()) {
+                if (type.isClient() && type.name().equalsIgnoreCase(name)) {
+                    packetsPerSecond.put(type, rate);
+                    found = true;
+                }
+            }
+
+            if (!found) {
+                plugin.getLogger().warning("Cannot rate limit unknown client packet " + name + ".");
+            }
+        }
+
+        return packetsPerSecond.isEmpty() ? InboundRateLimits.DISABLED : new InboundRateLimits(action, packetsPerSecond);
+    }
+
     /**
      * Retrieve an immutable list of every suppressed report type.
      *
@@ -331,7 +434,9 @@ public class ProtocolConfig {
      * Retrieve the unique name of the script engine to use for filtering.
      *
      * @return Script engine to use.
+     * @deprecated Filters are compiled expressions and no longer use a script engine.
      */
+    @Deprecated
     public String getScriptEngineName() {
         return getGlobalValue(SCRIPT_ENGINE_NAME, "JavaScript");
     }
@@ -342,7 +447,9 @@ public class ProtocolConfig {
      * This setting will take effect next time ProtocolLib is started.
      *
      * @param name - name of the script engine to use.
+     * @deprecated Filters are compiled expressions and no longer use a script engine.
      */
+    @Deprecated
     public void setScriptEngineName(String name) {
         setConfig(global, SCRIPT_ENGINE_NAME, name);
         modCount++;
@@ -24,11 +24,14 @@ import com.comphenix.protocol.error.Report;
 import com.comphenix.protocol.error.ReportType;
 import com.comphenix.protocol.injector.InternalManager;
 import com.comphenix.protocol.injector.PacketFilterManager;
+import com.comphenix.protocol.injector.StructureCache;
 import com.comphenix.protocol.metrics.Statistics;
+import com.comphenix.protocol.reflect.accessors.Accessors;
 import com.comphenix.protocol.scheduler.DefaultScheduler;
 import com.comphenix.protocol.scheduler.FoliaScheduler;
 import com.comphenix.protocol.scheduler.ProtocolScheduler;
 import com.comphenix.protocol.scheduler.Task;
+import com.comphenix.protocol.timing.ListenerStallWatchdog;
 import com.comphenix.protocol.updater.Updater;
 import com.comphenix.protocol.updater.Updater.UpdateType;
 import com.comphenix.protocol.utility.*;
@@ -156,6 +159,9 @@ public class ProtocolLib extends JavaPlugin {
             logger.warning("Detailed error reporting enabled!");
         }
 
+        // Must be selected before the first accessors are created
+        Accessors.setBackend(config.getAccessorBackend());
+
         try {
             this.scheduler = Util.isUsingFolia()
                     ? new FoliaScheduler(this)
@@ -341,6 +347,9 @@ public class ProtocolLib extends JavaPlugin {
             // Worker that ensures that async packets are eventually sent
             // It also performs the update check.
             this.createPacketTask(server);
+
+            // Compute the typed structure modifiers before the first listeners access them
+            this.scheduler.runTaskAsync(() -> StructureCache.warmUp(PacketType.values()));
         } catch (OutOfMemoryError e) {
             throw e;
         } catch (Throwable e) {
@@ -500,6 +509,9 @@ public class ProtocolLib extends JavaPlugin {
 
             // Update the debug flag
             protocolManager.setDebug(config.isDebug());
+            protocolManager.setMainThreadQueueLimits(config.getMainThreadTickBudget(), config.getMainThreadBacklogLimit());
+            protocolManager.setInboundRateLimits(config.getInboundRateLimits());
+            ListenerStallWatchdog.configure(reporter, config.getListenerStallThreshold());
         }
     }
 
@@ -552,6 +564,12 @@ public class ProtocolLib extends JavaPlugin {
             this.packetTask = null;
         }
 
+        ListenerStallWatchdog.shutdown();
+
+        if (this.packetLogging != null) {
+            this.packetLogging.close();
+        }
+
         // And redirect handler too
         if (this.redirectHandler != null) {
             logger.removeHandler(this.redirectHandler);
@@ -23,11 +23,14 @@ import com.comphenix.protocol.events.ListeningWhitelist;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketListener;
 import com.comphenix.protocol.injector.PacketConstructor;
+import com.comphenix.protocol.metrics.PacketTraffic;
 import com.comphenix.protocol.reflect.FieldAccessException;
 import com.comphenix.protocol.utility.MinecraftVersion;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -53,6 +56,20 @@ public interface ProtocolManager extends PacketStream {
      */
     int getProtocolVersion(Player player);
 
+    /**
+     * Retrieve the traffic ProtocolLib has seen being sent to the given player, by packet type.
+     * <p>
+     * The sizes are measured behind the vanilla packet encoder, both before and after compression. Counting starts
+     * once the connection of the player has been injected. Implementations which don't measure the traffic return an
+     * empty map.
+     *
+     * @param player - the player.
+     * @return The traffic of every packet type sent at least once, empty if the player isn't injected.
+     */
+    default Map<PacketType, PacketTraffic> getOutboundTraffic(Player player) {
+        return Collections.emptyMap();
+    }
+
     /**
      * Send a packet to the given player.
      * <p>
@@ -66,6 +83,52 @@ public interface ProtocolManager extends PacketStream {
     @Override
     void sendServerPacket(Player receiver, PacketContainer packet, boolean filters);
 
+    /**
+     * Send a batch of packets to the given player, invoking every packet filter.
+     *
+     * @param receiver - the receiver.
+     * @param packets  - the packets to send, in order.
+     * @see #sendServerPackets(Player, List, boolean, boolean)
+     */
+    default void sendServerPackets(Player receiver, List<PacketContainer> packets) {
+        this.sendServerPackets(receiver, packets, true);
+    }
+
+    /**
+     * Send a batch of packets to the given player.
+     *
+     * @param receiver - the receiver.
+     * @param packets  - the packets to send, in order.
+     * @param filters  - whether or not to invoke any packet filters below {@link ListenerPriority#MONITOR}.
+     * @see #sendServerPackets(Player, List, boolean, boolean)
+     */
+    default void sendServerPackets(Player receiver, List<PacketContainer> packets, boolean filters) {
+        this.sendServerPackets(receiver, packets, filters, false);
+    }
+
+    /**
+     * Send a batch of packets to the given player.
+     * <p>
+     * The packet listeners are invoked for the whole batch on the calling thread (or the main thread, if any listener
+     * requires it), then all remaining packets are written to the connection of the player on a single event loop
+     * hop with only one flush. Packets which change the protocol state of the connection should not be sent this way.
+     * <p>
+     * If bundling is requested and every packet is a play packet, the packets are wrapped into bundle packets, which
+     * the client processes in the same tick. Bundling has no effect on servers without bundle packets.
+     * <p>
+     * The default implementation sends every packet on its own and ignores the bundle flag.
+     *
+     * @param receiver - the receiver.
+     * @param packets  - the packets to send, in order.
+     * @param filters  - whether or not to invoke any packet filters below {@link ListenerPriority#MONITOR}.
+     * @param bundle   - whether or not to wrap the packets into bundle packets, if possible.
+     */
+    default void sendServerPackets(Player receiver, List<PacketContainer> packets, boolean filters, boolean bundle) {
+        for (PacketContainer packet : packets) {
+            this.sendServerPacket(receiver, packet, filters);
+        }
+    }
+
     /**
      * Simulate receiving a certain packet from a given player.
      * <p>
@@ -111,6 +174,25 @@ public interface ProtocolManager extends PacketStream {
 
     void broadcastServerPacket(PacketContainer packet, Collection<? extends Player> targetPlayers);
 
+    /**
+     * Broadcast a packet to the given players, optionally serializing the packet only once for all of them.
+     * <p>
+     * If encoding once is requested, no outbound listener for the packet type is registered and the packet is a play
+     * packet, the packet is serialized into a single buffer whose duplicates are written to the connection of every
+     * player in the play state. Network markers and post listeners are not supported in this mode. Otherwise, or for
+     * players which are not in the play state, the packet is sent to each player as usual.
+     * <p>
+     * The default implementation always sends the packet to each player as usual.
+     *
+     * @param packet        - the packet to broadcast.
+     * @param targetPlayers - the players to send the packet to.
+     * @param encodeOnce    - whether or not to serialize the packet only once, if possible.
+     */
+    default void broadcastServerPacket(PacketContainer packet, Collection<? extends Player> targetPlayers,
+            boolean encodeOnce) {
+        this.broadcastServerPacket(packet, targetPlayers);
+    }
+
     /**
      * Retrieves a list of every registered packet listener.
      *
@@ -35,6 +35,7 @@ import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.events.PacketListener;
 import com.comphenix.protocol.injector.collection.InboundPacketListenerSet;
 import com.comphenix.protocol.injector.collection.OutboundPacketListenerSet;
+import com.comphenix.protocol.metrics.PacketMetrics;
 import com.comphenix.protocol.scheduler.ProtocolScheduler;
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableSet;
@@ -95,6 +96,27 @@ public class AsyncFilterManager implements AsynchronousManager {
         this.scheduler = scheduler;
         this.reporter = reporter;
         this.mainThread = Thread.currentThread();
+
+        this.registerGauges();
+    }
+
+    private void registerGauges() {
+        PacketMetrics.registerGauge("protocollib_async_processing_queue_outbound",
+                "Outbound packets waiting for asynchronous listeners.", () -> serverProcessingQueue.size());
+        PacketMetrics.registerGauge("protocollib_async_processing_queue_inbound",
+                "Inbound packets waiting for asynchronous listeners.", () -> clientProcessingQueue.size());
+        PacketMetrics.registerGauge("protocollib_async_sending_queue_outbound",
+                "Outbound packets waiting to be sent after asynchronous processing.", () -> sumSizes(playerSendingHandler.getServerQueues()));
+        PacketMetrics.registerGauge("protocollib_async_sending_queue_inbound",
+                "Inbound packets waiting to be received after asynchronous processing.", () -> sumSizes(playerSendingHandler.getClientQueues()));
+    }
+
+    private static long sumSizes(List<PacketSendingQueue> queues) {
+        long size = 0;
+        for (PacketSendingQueue queue : queues) {
+            size += queue.size();
+        }
+        return size;
     }
     
     /**
@@ -307,6 +329,7 @@ public class AsyncFilterManager implements AsynchronousManager {
             throw new IllegalArgumentException("Cannot queue a packet that has already been queued.");
 
         asyncMarker.setQueuedSendingIndex(asyncMarker.getNewSendingIndex());
+        PacketMetrics.recordAsyncEnqueued(syncPacket.getPacketType());
 
         // The player is only be null when they're logged out,
         // so this should be a pretty safe check
@@ -380,6 +403,11 @@ public class AsyncFilterManager implements AsynchronousManager {
         serverProcessingQueue.cleanupAll();
         playerSendingHandler.cleanupAll();
         timeoutListeners.clear();
+
+        PacketMetrics.unregisterGauge("protocollib_async_processing_queue_outbound");
+        PacketMetrics.unregisterGauge("protocollib_async_processing_queue_inbound");
+        PacketMetrics.unregisterGauge("protocollib_async_sending_queue_outbound");
+        PacketMetrics.unregisterGauge("protocollib_async_sending_queue_inbound");
         
         outboundTimeoutListeners = null;
         inboundTimeoutListeners = null;
@@ -34,8 +34,10 @@ import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.events.PacketListener;
 import com.comphenix.protocol.scheduler.Task;
+import com.comphenix.protocol.timing.PluginTimingTracker;
 import com.comphenix.protocol.timing.TimingListenerType;
 import com.comphenix.protocol.timing.TimingTrackerManager;
+import com.comphenix.protocol.timing.TimingTrackerSlot;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 
@@ -78,6 +80,7 @@ public class AsyncListenerHandler {
     
     // The packet listener
     private PacketListener listener;
+    private TimingTrackerSlot timingSlot;
 
     // The filter manager
     private AsyncFilterManager filterManager;
@@ -114,6 +117,7 @@ public class AsyncListenerHandler {
         this.mainThread = mainThread;
         this.filterManager = filterManager;
         this.listener = listener;
+        this.timingSlot = new TimingTrackerSlot(listener);
         startWarningTask();
     }
     
@@ -596,13 +600,20 @@ public class AsyncListenerHandler {
                 marker.setListenerHandler(this);
                 marker.setWorkerID(workerID);
                 
-                TimingTrackerManager.get(listener, packet.isServerPacket() ? TimingListenerType.ASYNC_OUTBOUND : TimingListenerType.ASYNC_INBOUND)
-                	.track(packet.getPacketType(), () -> {
-                        if (packet.isServerPacket())
-                            listener.onPacketSending(packet);
-                        else
-                            listener.onPacketReceiving(packet);
-                	});
+                // a single volatile read if timings are disabled
+                PluginTimingTracker tracker = TimingTrackerManager.isTracking()
+                        ? timingSlot.get(packet.isServerPacket() ? TimingListenerType.ASYNC_OUTBOUND : TimingListenerType.ASYNC_INBOUND)
+                        : null;
+                long startTime = tracker != null ? System.nanoTime() : 0;
+
+                if (packet.isServerPacket())
+                    listener.onPacketSending(packet);
+                else
+                    listener.onPacketReceiving(packet);
+
+                if (tracker != null) {
+                    tracker.track(packet.getPacketType(), System.nanoTime() - startTime);
+                }
             }
             
         } catch (OutOfMemoryError e) {
@@ -0,0 +1,139 @@
+package com.comphenix.protocol.capture;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the records of a capture written by the {@link PacketCaptureWriter}, to inspect or replay them offline.
+ * <pre>{@code
+ * for (File segment : PacketCaptureReader.findSegments(directory, "capture-1700000000000")) {
+ *     try (PacketCaptureReader reader = new PacketCaptureReader(segment)) {
+ *         reader.forEach(record -> replay(record.toPacket()));
+ *     }
+ * }
+ * }</pre>
+ * Running this class lists the records of the given segment files.
+ */
+public final class PacketCaptureReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Open a single segment of a capture.
+     *
+     * @param segment - the segment file.
+     * @throws IOException If the file could not be read or is not a capture segment.
+     */
+    public PacketCaptureReader(File segment) throws IOException {
+        this.channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ);
+
+        try {
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.channel.size());
+            if (this.buffer.remaining() < PacketCaptureRecord.SEGMENT_HEADER_SIZE
+                    || this.buffer.getInt() != PacketCaptureRecord.MAGIC) {
+                throw new IOException(segment + " is not a packet capture");
+            }
+
+            int version = this.buffer.getInt();
+            if (version != PacketCaptureRecord.VERSION) {
+                throw new IOException("Unsupported packet capture version " + version + " in " + segment);
+            }
+        } catch (IOException | RuntimeException ex) {
+            this.channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Find the segments of the given capture, ordered from the oldest to the newest segment.
+     *
+     * @param directory - the directory of the capture.
+     * @param name      - the name of the capture.
+     * @return the segment files.
+     */
+    public static List<File> findSegments(File directory, String name) {
+        String prefix = name + "-";
+        File[] files = directory.listFiles((dir, fileName) -> fileName.startsWith(prefix)
+                && fileName.endsWith(PacketCaptureWriter.SEGMENT_EXTENSION));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+
+        List<File> segments = new ArrayList<>(Arrays.asList(files));
+        segments.sort(Comparator.comparingInt(file -> getSegmentIndex(file, prefix)));
+        return segments;
+    }
+
+    private static int getSegmentIndex(File file, String prefix) {
+        String fileName = file.getName();
+        try {
+            return Integer.parseInt(fileName.substring(prefix.length(),
+                    fileName.length() - PacketCaptureWriter.SEGMENT_EXTENSION.length()));
+        } catch (NumberFormatException ex) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Read the next record of the segment.
+     *
+     * @return the record, or NULL if the end of the segment was reached.
+     * @throws IOException If the segment is truncated.
+     */
+    public PacketCaptureRecord next() throws IOException {
+        if (!this.buffer.hasRemaining() || this.buffer.get() != PacketCaptureRecord.RECORD_MARKER) {
+            return null;
+        }
+
+        try {
+            return PacketCaptureRecord.read(this.buffer);
+        } catch (RuntimeException ex) {
+            throw new IOException("Corrupt packet capture record at " + this.buffer.position(), ex);
+        }
+    }
+
+    /**
+     * Pass the remaining records of the segment to the given consumer.
+     *
+     * @param consumer - the consumer.
+     * @throws IOException If the segment is truncated.
+     */
+    public void forEach(Consumer<PacketCaptureRecord> consumer) throws IOException {
+        PacketCaptureRecord record;
+        while ((record = this.next()) != null) {
+            consumer.accept(record);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: PacketCaptureReader <segment>...");
+            System.exit(1);
+        }
+
+        PrintStream out = System.out;
+        for (String path : args) {
+            try (PacketCaptureReader reader = new PacketCaptureReader(new File(path))) {
+                reader.forEach(record -> out.println(record.getTimestamp() + " " + record.getDirection() + " "
+                        + record.getProtocol() + " 0x" + Integer.toHexString(record.getPacketId()) + " "
+                        + record.getPlayerId() + " " + record.getPayload().length));
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.comphenix.protocol.capture;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.PacketType.Protocol;
+import com.comphenix.protocol.PacketType.Sender;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.injector.netty.WirePacket;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A single serialized packet in a capture.
+ * <p>
+ * Every segment of a capture starts with a header of the {@link #MAGIC} and the {@link #VERSION} of the format,
+ * followed by the records. Each record is prefixed with a non-zero marker byte, a zero marker or the end of the file
+ * ends the segment:
+ * <pre>
+ * byte   marker (1)
+ * long   timestamp in milliseconds since the epoch
+ * byte   sender ordinal, the direction of the packet
+ * byte   protocol ordinal
+ * int    packet id
+ * long   most significant bits of the player id, 0 if unknown
+ * long   least significant bits of the player id, 0 if unknown
+ * int    payload length
+ * byte[] payload, as written by the vanilla packet encoder without the packet id
+ * </pre>
+ */
+public final class PacketCaptureRecord {
+
+    public static final int MAGIC = 0x504C4350; // PLCP
+    public static final int VERSION = 1;
+
+    static final int SEGMENT_HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 1 + 8 + 1 + 1 + 4 + 8 + 8 + 4;
+
+    static final byte RECORD_MARKER = 1;
+
+    private static final Sender[] SENDERS = Sender.values();
+    private static final Protocol[] PROTOCOLS = Protocol.values();
+
+    private final long timestamp;
+    private final Sender direction;
+    private final Protocol protocol;
+    private final int packetId;
+    private final UUID playerId;
+    private final byte[] payload;
+
+    public PacketCaptureRecord(long timestamp, Sender direction, Protocol protocol, int packetId, UUID playerId,
+            byte[] payload) {
+        this.timestamp = timestamp;
+        this.direction = direction;
+        this.protocol = protocol;
+        this.packetId = packetId;
+        this.playerId = playerId;
+        this.payload = payload;
+    }
+
+    /**
+     * Serialize the packet of the given event into a new record. This has to happen on the thread processing the
+     * event, as the packet may be modified as soon as the event is processed.
+     *
+     * @param event - the packet event.
+     * @return the record.
+     */
+    public static PacketCaptureRecord fromEvent(PacketEvent event) {
+        PacketType type = event.getPacketType();
+        UUID playerId = event.isPlayerTemporary() || event.getPlayer() == null ? null : event.getPlayer().getUniqueId();
+
+        return new PacketCaptureRecord(System.currentTimeMillis(), type.getSender(), type.getProtocol(),
+                type.getCurrentId(), playerId, WirePacket.bytesFromPacket(event.getPacket()));
+    }
+
+    static PacketCaptureRecord read(ByteBuffer buffer) {
+        long timestamp = buffer.getLong();
+        Sender direction = SENDERS[buffer.get()];
+        Protocol protocol = PROTOCOLS[buffer.get()];
+        int packetId = buffer.getInt();
+
+        long mostSignificantBits = buffer.getLong();
+        long leastSignificantBits = buffer.getLong();
+        UUID playerId = mostSignificantBits == 0 && leastSignificantBits == 0
+                ? null
+                : new UUID(mostSignificantBits, leastSignificantBits);
+
+        byte[] payload = new byte[buffer.getInt()];
+        buffer.get(payload);
+
+        return new PacketCaptureRecord(timestamp, direction, protocol, packetId, playerId, payload);
+    }
+
+    void write(ByteBuffer buffer) {
+        buffer.put(RECORD_MARKER);
+        buffer.putLong(this.timestamp);
+        buffer.put((byte) this.direction.ordinal());
+        buffer.put((byte) this.protocol.ordinal());
+        buffer.putInt(this.packetId);
+        buffer.putLong(this.playerId == null ? 0 : this.playerId.getMostSignificantBits());
+        buffer.putLong(this.playerId == null ? 0 : this.playerId.getLeastSignificantBits());
+        buffer.putInt(this.payload.length);
+        buffer.put(this.payload);
+    }
+
+    /**
+     * Retrieve the amount of bytes this record takes up in a capture.
+     *
+     * @return the size of the record.
+     */
+    public int getSize() {
+        return RECORD_HEADER_SIZE + this.payload.length;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public Sender getDirection() {
+        return this.direction;
+    }
+
+    public Protocol getProtocol() {
+        return this.protocol;
+    }
+
+    public int getPacketId() {
+        return this.packetId;
+    }
+
+    /**
+     * Retrieve the id of the player which sent or received the packet.
+     *
+     * @return the player id, or NULL if the player wasn't known yet.
+     */
+    public UUID getPlayerId() {
+        return this.playerId;
+    }
+
+    public byte[] getPayload() {
+        return this.payload;
+    }
+
+    /**
+     * Retrieve the packet type of this record in the current version of the game.
+     *
+     * @return the packet type.
+     */
+    public PacketType getPacketType() {
+        return PacketType.findCurrent(this.protocol, this.direction, this.packetId);
+    }
+
+    /**
+     * Deserialize the payload of this record into a new packet. The capture must have been recorded with the same
+     * version of the game.
+     *
+     * @return the packet.
+     */
+    public PacketContainer toPacket() {
+        PacketType type = this.getPacketType();
+
+        ByteBuf buffer = PacketContainer.createPacketBuffer();
+        try {
+            buffer.writeBytes(this.payload);
+            return new PacketContainer(type, PacketContainer.deserializeFromBuffer(type, buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PacketCaptureRecord[timestamp=" + this.timestamp + ", direction=" + this.direction + ", protocol="
+                + this.protocol + ", packetId=" + this.packetId + ", playerId=" + this.playerId + ", size="
+                + this.payload.length + "]";
+    }
+}
@@ -0,0 +1,273 @@
+package com.comphenix.protocol.capture;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends packet records to a capture of segment files on a background thread.
+ * <p>
+ * Records are handed over through a buffer which is bounded by the size of the queued records. Capturing a record never
+ * blocks, instead the record is dropped if the buffer is full. The segments have a maximum size and are named
+ * {@code <name>-<index>.bin}, once the maximum amount of segments is reached the oldest segment is deleted. The records
+ * are collected in a reused direct buffer and written through a file channel, the segments are not memory-mapped as a
+ * mapped file can't be deleted on every platform until the mapping is garbage collected.
+ */
+public final class PacketCaptureWriter implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+    public static final int DEFAULT_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    static final String SEGMENT_EXTENSION = ".bin";
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final File directory;
+    private final String name;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final long bufferSize;
+    private final Logger logger;
+
+    private final BlockingQueue<PacketCaptureRecord> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final Thread writerThread;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // only accessed by the writer thread
+    private final Deque<File> segments = new ArrayDeque<>();
+    private final ByteBuffer writeBuffer;
+    private FileChannel channel;
+    private int segmentRemaining;
+    private int segmentIndex;
+
+    /**
+     * Start a new capture.
+     *
+     * @param directory   - the directory of the segment files.
+     * @param name        - the name of the capture, which prefixes the segment files.
+     * @param segmentSize - the size of a single segment in bytes.
+     * @param maxSegments - the maximum amount of segments to keep.
+     * @param bufferSize  - the maximum size of the records waiting to be written in bytes.
+     * @param logger      - the logger to report write failures to.
+     * @throws IOException If the directory could not be created.
+     */
+    public PacketCaptureWriter(File directory, String name, int segmentSize, int maxSegments, long bufferSize,
+            Logger logger) throws IOException {
+        if (segmentSize <= PacketCaptureRecord.SEGMENT_HEADER_SIZE + PacketCaptureRecord.RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize is too small: " + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be at least 1, got " + maxSegments);
+        }
+
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.bufferSize = bufferSize;
+        this.logger = logger;
+        this.writeBuffer = ByteBuffer.allocateDirect(Math.min(segmentSize, WRITE_BUFFER_SIZE));
+
+        Files.createDirectories(directory.toPath());
+
+        this.writerThread = new Thread(this::writeRecords, "ProtocolLib - Packet Capture " + name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue the given record to be written, unless the buffer is full or the capture is closed.
+     *
+     * @param record - the record.
+     * @return TRUE if the record was queued, FALSE if it was dropped.
+     */
+    public boolean capture(PacketCaptureRecord record) {
+        int size = record.getSize();
+        if (this.closed || size > this.segmentSize - PacketCaptureRecord.SEGMENT_HEADER_SIZE) {
+            this.dropped.increment();
+            return false;
+        }
+
+        if (this.bufferedBytes.addAndGet(size) > this.bufferSize) {
+            this.bufferedBytes.addAndGet(-size);
+            this.dropped.increment();
+            return false;
+        }
+
+        this.queue.offer(record);
+        return true;
+    }
+
+    /**
+     * Retrieve the amount of records written to the capture.
+     *
+     * @return the amount of records.
+     */
+    public long getCaptured() {
+        return this.captured.sum();
+    }
+
+    /**
+     * Retrieve the amount of records which were dropped, as the buffer was full or they didn't fit in a segment.
+     *
+     * @return the amount of records.
+     */
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Write the remaining records and close the capture.
+     *
+     * @throws IOException If the capture failed to write a record, which was already reported to the logger.
+     */
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+
+        try {
+            this.writerThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (this.failure != null) {
+            throw this.failure;
+        }
+    }
+
+    private void writeRecords() {
+        try {
+            while (!this.closed || !this.queue.isEmpty()) {
+                PacketCaptureRecord record = this.queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                while (record != null) {
+                    this.write(record);
+                    this.bufferedBytes.addAndGet(-record.getSize());
+                    record = this.queue.poll();
+                }
+
+                // the queue is drained, make the records visible in the segment file
+                if (this.channel != null) {
+                    this.flushWriteBuffer();
+                }
+            }
+        } catch (IOException ex) {
+            this.failure = ex;
+            this.closed = true;
+        } catch (InterruptedException ex) {
+            this.closed = true;
+        } finally {
+            this.dropped.add(this.queue.size());
+            this.queue.clear();
+
+            try {
+                this.closeSegment();
+            } catch (IOException ex) {
+                if (this.failure == null) {
+                    this.failure = ex;
+                }
+            }
+        }
+
+        // report the failure right away, every packet captured from now on is dropped
+        if (this.failure != null) {
+            this.logger.log(Level.SEVERE, "Failed to write packet capture " + this.name + ", the capture was stopped:",
+                    this.failure);
+        }
+    }
+
+    private void write(PacketCaptureRecord record) throws IOException {
+        int size = record.getSize();
+        if (this.channel == null || this.segmentRemaining < size) {
+            this.nextSegment();
+        }
+
+        if (this.writeBuffer.remaining() < size) {
+            this.flushWriteBuffer();
+        }
+
+        if (this.writeBuffer.remaining() < size) {
+            // larger than the write buffer, only happens for segments larger than the write buffer
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            record.write(buffer);
+            buffer.flip();
+            this.writeFully(buffer);
+        } else {
+            record.write(this.writeBuffer);
+        }
+
+        this.segmentRemaining -= size;
+        this.captured.increment();
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        this.writeBuffer.flip();
+        try {
+            this.writeFully(this.writeBuffer);
+        } finally {
+            this.writeBuffer.clear();
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+    }
+
+    private void nextSegment() throws IOException {
+        this.closeSegment();
+
+        File file = new File(this.directory, this.name + "-" + this.segmentIndex++ + SEGMENT_EXTENSION);
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.writeBuffer.putInt(PacketCaptureRecord.MAGIC);
+        this.writeBuffer.putInt(PacketCaptureRecord.VERSION);
+        this.segmentRemaining = this.segmentSize - PacketCaptureRecord.SEGMENT_HEADER_SIZE;
+
+        this.segments.addLast(file);
+        while (this.segments.size() > this.maxSegments) {
+            Files.deleteIfExists(this.segments.removeFirst().toPath());
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        if (this.channel == null) {
+            return;
+        }
+
+        // the end of the file ends the segment, the channel is closed before the segment may be deleted
+        try {
+            this.flushWriteBuffer();
+            this.channel.force(false);
+        } finally {
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+}
@@ -1,35 +1,47 @@
 package com.comphenix.protocol.concurrent;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.events.ListenerPriority;
 import com.comphenix.protocol.events.ListeningWhitelist;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
 /**
  * A map-like data structure that associates {@link PacketType}s with sets of
- * values. The values are stored in a {@link SortedCopyOnWriteSet}, which
- * ensures that the elements are kept in a sorted order based on the
+ * values. The values of each packet type are stored in an immutable
+ * {@link Entries} array, which keeps the elements sorted by the
  * {@link ListenerPriority} of the {@link ListeningWhitelist}, while maintaining
  * their insertion order for elements with equal priorities.
  * <p>
  * This class is thread-safe for modifications and guarantees a
- * modification-free iteration of associated values per packet type. All read methods
- * work on a lock-free, best-effort principle, ensuring fast access.
+ * modification-free iteration of associated values per packet type. All read
+ * methods are lock-free: the entries of every packet type are published through
+ * a single volatile table indexed by {@link PacketType#getIndex()}, so a lookup
+ * is an array access without hashing.
  * </p>
  *
  * @param <T> the type of elements maintained by this map
  */
 public class PacketTypeMultiMap<T> {
 
-	private final Map<PacketType, SortedCopyOnWriteSet<T, PriorityHolder>> typeMap = new HashMap<>();
+	private static final Entries<?>[] EMPTY_TABLE = new Entries<?>[0];
+
+	// guarded by this, only used for modifications
+	private final Map<PacketType, Entries<T>> typeMap = new HashMap<>();
+
+	// entries by packet type index, replaced on every modification
+	private volatile Entries<?>[] table = EMPTY_TABLE;
+	private volatile int typeCount;
 
 	/**
 	 * Adds a value to the map, associating it with the {@link PacketType}s
@@ -46,10 +58,19 @@ public class PacketTypeMultiMap<T> {
 		Objects.requireNonNull(key, "key cannot be null");
 		Objects.requireNonNull(value, "value cannot be null");
 
+		Entries<?>[] newTable = this.table;
 		for (PacketType packetType : key.getTypes()) {
-			this.typeMap.computeIfAbsent(packetType, type -> new SortedCopyOnWriteSet<>()).add(value,
-					new PriorityHolder(key));
+			Entries<T> entries = this.typeMap.getOrDefault(packetType, Entries.empty());
+			Entries<T> newEntries = entries.with(value, key.getPriority());
+
+			if (newEntries != entries) {
+				this.typeMap.put(packetType, newEntries);
+				newTable = withEntry(newTable, packetType, newEntries);
+			}
 		}
+
+		this.table = newTable;
+		this.typeCount = this.typeMap.size();
 	}
 
 	/**
@@ -70,36 +91,51 @@ public class PacketTypeMultiMap<T> {
 
 		List<PacketType> removedTypes = new ArrayList<>();
 
+		Entries<?>[] newTable = this.table;
 		for (PacketType packetType : key.getTypes()) {
-			SortedCopyOnWriteSet<T, PriorityHolder> entrySet = this.typeMap.get(packetType);
-			if (entrySet == null) {
+			Entries<T> entries = this.typeMap.get(packetType);
+			if (entries == null) {
 				continue;
 			}
 
-			// we shouldn't have empty entrySets
-			assert !entrySet.isEmpty();
+			// we shouldn't have empty entries
+			assert entries.size() > 0;
 
 			// continue if value wasn't removed
-			if (!entrySet.remove(value)) {
+			Entries<T> newEntries = entries.without(value);
+			if (newEntries == entries) {
 				continue;
 			}
 
 			// remove packet type without entries
-			if (entrySet.isEmpty()) {
+			if (newEntries.size() == 0) {
 				this.typeMap.remove(packetType);
 				removedTypes.add(packetType);
+				newTable = withEntry(newTable, packetType, null);
+			} else {
+				this.typeMap.put(packetType, newEntries);
+				newTable = withEntry(newTable, packetType, newEntries);
 			}
 		}
-		
+
+		this.table = newTable;
+		this.typeCount = this.typeMap.size();
 		return removedTypes;
 	}
 
+	private static Entries<?>[] withEntry(Entries<?>[] table, PacketType packetType, Entries<?> entries) {
+		int index = packetType.getIndex();
+		Entries<?>[] newTable = Arrays.copyOf(table, Math.max(table.length, index + 1));
+		newTable[index] = entries;
+		return newTable;
+	}
+
 	/**
 	 * Returns an immutable set of all {@link PacketType}s currently in the map.
 	 *
 	 * @return an immutable set of packet types
 	 */
-	public ImmutableSet<PacketType> getPacketTypes() {
+	public synchronized ImmutableSet<PacketType> getPacketTypes() {
 		return ImmutableSet.copyOf(this.typeMap.keySet());
 	}
 
@@ -111,7 +147,40 @@ public class PacketTypeMultiMap<T> {
 	 *         {@code false} otherwise
 	 */
 	public boolean contains(PacketType packetType) {
-		return this.typeMap.containsKey(packetType);
+		return this.getEntries(packetType).size() > 0;
+	}
+
+	/**
+	 * Checks if the map contains no packet types, and therefore no values.
+	 *
+	 * @return {@code true} if no packet type is contained in the map,
+	 *         {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return this.typeCount == 0;
+	}
+
+	/**
+	 * Returns the entries associated with a specified {@link PacketType}, sorted by
+	 * their priority. The returned entries are immutable and are not affected by
+	 * later modifications of this map.
+	 *
+	 * @param packetType the packet type to retrieve the entries for
+	 * @return the entries associated with the packet type, never null
+	 */
+	@SuppressWarnings("unchecked")
+	public Entries<T> getEntries(PacketType packetType) {
+		Entries<?>[] table = this.table;
+		int index = packetType.getIndex();
+
+		if (index < table.length) {
+			Entries<?> entries = table[index];
+			if (entries != null) {
+				return (Entries<T>) entries;
+			}
+		}
+
+		return Entries.empty();
 	}
 
 	/**
@@ -123,19 +192,11 @@ public class PacketTypeMultiMap<T> {
 	 * @return an iterable of values associated with the packet type
 	 */
 	public Iterable<T> get(PacketType packetType) {
-		return () -> {
-			SortedCopyOnWriteSet<T, PriorityHolder> entrySet = this.typeMap.get(packetType);
-
-			if (entrySet != null) {
-				return entrySet.iterator();
-			}
-
-			return Collections.emptyIterator();
-		};
+		return () -> this.getEntries(packetType).iterator();
 	}
 
-    public Iterable<T> values() {
-        return Iterables.concat(this.typeMap.values());
+    public synchronized Iterable<T> values() {
+        return Iterables.concat(ImmutableList.copyOf(this.typeMap.values()));
     }
 
 	/**
@@ -143,23 +204,140 @@ public class PacketTypeMultiMap<T> {
 	 */
 	public synchronized void clear() {
 		this.typeMap.clear();
+		this.table = EMPTY_TABLE;
+		this.typeCount = 0;
 	}
 
 	/**
-	 * A holder for priority information used to order elements within the
-	 * {@link SortedCopyOnWriteSet}.
+	 * An immutable array of values and the priorities they were added with, sorted
+	 * by priority. Values with equal priorities keep their insertion order.
+	 *
+	 * @param <T> the type of the values
 	 */
-	private static class PriorityHolder implements Comparable<PriorityHolder> {
+	public static final class Entries<T> implements Iterable<T> {
+
+		private static final Entries<?> EMPTY = new Entries<>(new Object[0], new ListenerPriority[0]);
+
+		private final Object[] values;
+		private final ListenerPriority[] priorities;
+
+		private Entries(Object[] values, ListenerPriority[] priorities) {
+			this.values = values;
+			this.priorities = priorities;
+		}
 
-		private final ListenerPriority priority;
+		@SuppressWarnings("unchecked")
+		static <T> Entries<T> empty() {
+			return (Entries<T>) EMPTY;
+		}
+
+		/**
+		 * Returns the amount of values.
+		 *
+		 * @return the amount of values
+		 */
+		public int size() {
+			return this.values.length;
+		}
+
+		/**
+		 * Returns the value at the given index.
+		 *
+		 * @param index the index of the value
+		 * @return the value
+		 */
+		@SuppressWarnings("unchecked")
+		public T get(int index) {
+			return (T) this.values[index];
+		}
+
+		/**
+		 * Returns the priority the value at the given index was added with.
+		 *
+		 * @param index the index of the value
+		 * @return the priority of the value
+		 */
+		public ListenerPriority getPriority(int index) {
+			return this.priorities[index];
+		}
+
+		private int indexOf(Object value) {
+			for (int index = 0; index < this.values.length; index++) {
+				if (this.values[index].equals(value)) {
+					return index;
+				}
+			}
 
-		public PriorityHolder(ListeningWhitelist key) {
-			this.priority = key.getPriority();
+			return -1;
+		}
+
+		Entries<T> with(T value, ListenerPriority priority) {
+			// already contains element, nothing to add
+			if (this.indexOf(value) >= 0) {
+				return this;
+			}
+
+			// insert after all elements with a lower or equal priority
+			int insertIndex = this.values.length;
+			for (int index = 0; index < this.priorities.length; index++) {
+				if (this.priorities[index].getSlot() > priority.getSlot()) {
+					insertIndex = index;
+					break;
+				}
+			}
+
+			Object[] newValues = new Object[this.values.length + 1];
+			System.arraycopy(this.values, 0, newValues, 0, insertIndex);
+			newValues[insertIndex] = value;
+			System.arraycopy(this.values, insertIndex, newValues, insertIndex + 1, this.values.length - insertIndex);
+
+			ListenerPriority[] newPriorities = new ListenerPriority[this.priorities.length + 1];
+			System.arraycopy(this.priorities, 0, newPriorities, 0, insertIndex);
+			newPriorities[insertIndex] = priority;
+			System.arraycopy(this.priorities, insertIndex, newPriorities, insertIndex + 1, this.priorities.length - insertIndex);
+
+			return new Entries<>(newValues, newPriorities);
+		}
+
+		Entries<T> without(T value) {
+			int removeIndex = this.indexOf(value);
+			if (removeIndex < 0) {
+				return this;
+			}
+
+			Object[] newValues = new Object[this.values.length - 1];
+			System.arraycopy(this.values, 0, newValues, 0, removeIndex);
+			System.arraycopy(this.values, removeIndex + 1, newValues, removeIndex, this.values.length - removeIndex - 1);
+
+			ListenerPriority[] newPriorities = new ListenerPriority[this.priorities.length - 1];
+			System.arraycopy(this.priorities, 0, newPriorities, 0, removeIndex);
+			System.arraycopy(this.priorities, removeIndex + 1, newPriorities, removeIndex, this.priorities.length - removeIndex - 1);
+
+			return new Entries<>(newValues, newPriorities);
 		}
 
 		@Override
-		public int compareTo(PriorityHolder other) {
-			return Integer.compare(this.priority.getSlot(), other.priority.getSlot());
+		public Iterator<T> iterator() {
+			return new EntryIterator();
+		}
+
+		private class EntryIterator implements Iterator<T> {
+
+			private int cursor = 0;
+
+			@Override
+			public boolean hasNext() {
+				return this.cursor < Entries.this.values.length;
+			}
+
+			@Override
+			public T next() {
+				if (this.cursor >= Entries.this.values.length) {
+					throw new NoSuchElementException();
+				}
+
+				return Entries.this.get(this.cursor++);
+			}
 		}
 	}
 }
@@ -18,7 +18,10 @@ import java.util.Objects;
  * 
  * @param <E> the type of elements maintained by this set
  * @param <C> the type of the comparable used for ordering the elements
+ * @deprecated no longer used by ProtocolLib, the listeners are kept in a {@link PacketTypeMultiMap} instead. This
+ *             class is only kept for compatibility and will be removed in a future version.
  */
+@Deprecated
 @SuppressWarnings("unchecked")
 public class SortedCopyOnWriteSet<E, C extends Comparable<C>> implements Iterable<E> {
 
@@ -0,0 +1,58 @@
+package com.comphenix.protocol.events;
+
+import java.lang.reflect.Field;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.reflect.accessors.DoubleFieldAccessor;
+
+/**
+ * An immutable view of a single double field of a packet type, see {@link PacketFieldSchema}. The field value is
+ * accessed without boxing.
+ */
+public final class DoubleField {
+
+    private final PacketType packetType;
+    private final DoubleFieldAccessor accessor;
+
+    DoubleField(PacketType packetType, DoubleFieldAccessor accessor) {
+        this.packetType = packetType;
+        this.accessor = accessor;
+    }
+
+    /**
+     * Read the value of this field.
+     *
+     * @param packet - the packet, which must be of the packet type of this field.
+     * @return the field value.
+     * @throws IllegalArgumentException If the packet is of a different type.
+     */
+    public double get(PacketContainer packet) {
+        PacketFieldSchema.checkPacketType(this.packetType, packet);
+        return this.accessor.getDouble(packet.getHandle());
+    }
+
+    /**
+     * Write the value of this field.
+     *
+     * @param packet - the packet, which must be of the packet type of this field.
+     * @param value  - the new field value.
+     * @throws IllegalArgumentException If the packet is of a different type.
+     */
+    public void set(PacketContainer packet, double value) {
+        PacketFieldSchema.checkPacketType(this.packetType, packet);
+        this.accessor.setDouble(packet.getHandle(), value);
+    }
+
+    public PacketType getPacketType() {
+        return this.packetType;
+    }
+
+    public Field getField() {
+        return this.accessor.getField();
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleField[packetType=" + this.packetType + ", field=" + this.accessor.getField() + "]";
+    }
+}
@@ -0,0 +1,58 @@
+package com.comphenix.protocol.events;
+
+import java.lang.reflect.Field;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.reflect.accessors.IntFieldAccessor;
+
+/**
+ * An immutable view of a single int field of a packet type, see {@link PacketFieldSchema}. The field value is
+ * accessed without boxing.
+ */
+public final class IntField {
+
+    private final PacketType packetType;
+    private final IntFieldAccessor accessor;
+
+    IntField(PacketType packetType, IntFieldAccessor accessor) {
+        this.packetType = packetType;
+        this.accessor = accessor;
+    }
+
+    /**
+     * Read the value of this field.
+     *
+     * @param packet - the packet, which must be of the packet type of this field.
+     * @return the field value.
+     * @throws IllegalArgumentException If the packet is of a different type.
+     */
+    public int get(PacketContainer packet) {
+        PacketFieldSchema.checkPacketType(this.packetType, packet);
+        return this.accessor.getInt(packet.getHandle());
+    }
+
+    /**
+     * Write the value of this field.
+     *
+     * @param packet - the packet, which must be of the packet type of this field.
+     * @param value  - the new field value.
+     * @throws IllegalArgumentException If the packet is of a different type.
+     */
+    public void set(PacketContainer packet, int value) {
+        PacketFieldSchema.checkPacketType(this.packetType, packet);
+        this.accessor.setInt(packet.getHandle(), value);
+    }
+
+    public PacketType getPacketType() {
+        return this.packetType;
+    }
+
+    public Field getField() {
+        return this.accessor.getField();
+    }
+
+    @Override
+    public String toString() {
+        return "IntField[packetType=" + this.packetType + ", field=" + this.accessor.getField() + "]";
+    }
+}
@@ -150,6 +150,37 @@ public class PacketContainer extends AbstractStructure implements Serializable {
         }
     }
 
+    /**
+     * Retrieve the schema of the fields of the given type in a packet, which can be used to access fields without
+     * allocating a structure modifier.
+     * @param type - the packet type.
+     * @param fieldType - the type, or supertype, of the fields.
+     * @return The field schema.
+     */
+    public static PacketFieldSchema getFieldSchema(PacketType type, Class<?> fieldType) {
+        return PacketFieldSchema.of(type, fieldType);
+    }
+
+    /**
+     * Retrieve a reusable view of an int field of a packet.
+     * @param type - the packet type.
+     * @param fieldIndex - index of the field among the int fields, as in {@link #getIntegers()}.
+     * @return The field view.
+     */
+    public static IntField getIntField(PacketType type, int fieldIndex) {
+        return PacketFieldSchema.of(type, int.class).intField(fieldIndex);
+    }
+
+    /**
+     * Retrieve a reusable view of a double field of a packet.
+     * @param type - the packet type.
+     * @param fieldIndex - index of the field among the double fields, as in {@link #getDoubles()}.
+     * @return The field view.
+     */
+    public static DoubleField getDoubleField(PacketType type, int fieldIndex) {
+        return PacketFieldSchema.of(type, double.class).doubleField(fieldIndex);
+    }
+
     /**
      * Construct a new packet container from a given handle.
      * @param packet - the NMS packet.
@@ -370,7 +401,7 @@ public class PacketContainer extends AbstractStructure implements Serializable {
                                 .build());
                 if (!methods.isEmpty()) {
                     MethodAccessor accessor = Accessors.getMethodAccessor(methods.get(0));
-                    return buf -> accessor.invoke(null, buf);
+                    return buf -> accessor.invoke1(null, buf);
                 }
             }
 
@@ -385,7 +416,7 @@ public class PacketContainer extends AbstractStructure implements Serializable {
             // okay, Packet#read exists
             return buf -> {
                 Object packet = DefaultInstances.DEFAULT.create(type.getPacketClass());
-                readMethod.invoke(packet, buf);
+                readMethod.invoke1(packet, buf);
                 return packet;
             };
         });
@@ -404,7 +435,7 @@ public class PacketContainer extends AbstractStructure implements Serializable {
     	if (streamCodec != null) {
     		streamCodec.encode(targetBuffer, handle);
     	} else {
-            MinecraftMethods.getPacketWriteByteBufMethod().invoke(handle, targetBuffer);
+            MinecraftMethods.getPacketWriteByteBufMethod().invoke1(handle, targetBuffer);
     	}
 
         return targetBuffer;
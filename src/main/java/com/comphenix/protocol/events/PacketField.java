@@ -0,0 +1,65 @@
+package com.comphenix.protocol.events;
+
+import java.lang.reflect.Field;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.reflect.EquivalentConverter;
+import com.comphenix.protocol.reflect.accessors.FieldAccessor;
+
+/**
+ * An immutable view of a single field of a packet type, see {@link PacketFieldSchema}.
+ *
+ * @param <T> Type of the field value, after conversion.
+ */
+public final class PacketField<T> {
+
+    private final PacketType packetType;
+    private final FieldAccessor accessor;
+    private final EquivalentConverter<T> converter;
+
+    PacketField(PacketType packetType, FieldAccessor accessor, EquivalentConverter<T> converter) {
+        this.packetType = packetType;
+        this.accessor = accessor;
+        this.converter = converter;
+    }
+
+    /**
+     * Read the value of this field.
+     *
+     * @param packet - the packet, which must be of the packet type of this field.
+     * @return the field value.
+     * @throws IllegalArgumentException If the packet is of a different type.
+     */
+    @SuppressWarnings("unchecked")
+    public T read(PacketContainer packet) {
+        PacketFieldSchema.checkPacketType(this.packetType, packet);
+
+        Object value = this.accessor.get(packet.getHandle());
+        return this.converter == null ? (T) value : this.converter.getSpecific(value);
+    }
+
+    /**
+     * Write the value of this field.
+     *
+     * @param packet - the packet, which must be of the packet type of this field.
+     * @param value  - the new field value.
+     * @throws IllegalArgumentException If the packet is of a different type.
+     */
+    public void write(PacketContainer packet, T value) {
+        PacketFieldSchema.checkPacketType(this.packetType, packet);
+        this.accessor.set(packet.getHandle(), this.converter == null ? value : this.converter.getGeneric(value));
+    }
+
+    public PacketType getPacketType() {
+        return this.packetType;
+    }
+
+    public Field getField() {
+        return this.accessor.getField();
+    }
+
+    @Override
+    public String toString() {
+        return "PacketField[packetType=" + this.packetType + ", field=" + this.accessor.getField() + "]";
+    }
+}
@@ -0,0 +1,154 @@
+package com.comphenix.protocol.events;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.injector.StructureCache;
+import com.comphenix.protocol.reflect.EquivalentConverter;
+import com.comphenix.protocol.reflect.FieldAccessException;
+import com.comphenix.protocol.reflect.accessors.DoubleFieldAccessor;
+import com.comphenix.protocol.reflect.accessors.FieldAccessor;
+import com.comphenix.protocol.reflect.accessors.IntFieldAccessor;
+
+/**
+ * The fields of a given type in a packet, in the same order as the structure modifier returned by
+ * {@link PacketContainer#getSpecificModifier(Class)} would list them.
+ * <p>
+ * Unlike structure modifiers a schema isn't bound to a packet. The field views it creates take the packet as a
+ * parameter instead, which means they can be created once and used to read and write fields without allocating:
+ * <pre>{@code
+ * private static final IntField ENTITY_ID = PacketContainer.getIntField(PacketType.Play.Server.ENTITY_VELOCITY, 0);
+ *
+ * public void onPacketSending(PacketEvent event) {
+ *     int entityId = ENTITY_ID.get(event.getPacket());
+ * }
+ * }</pre>
+ */
+public final class PacketFieldSchema {
+
+    private static final Map<PacketType, Map<Class<?>, PacketFieldSchema>> SCHEMAS = new ConcurrentHashMap<>();
+
+    private final PacketType packetType;
+    private final Class<?> fieldType;
+    private final FieldAccessor[] accessors;
+
+    private PacketFieldSchema(PacketType packetType, Class<?> fieldType, FieldAccessor[] accessors) {
+        this.packetType = packetType;
+        this.fieldType = fieldType;
+        this.accessors = accessors;
+    }
+
+    /**
+     * Retrieve the schema of the fields of the given type in a packet.
+     *
+     * @param packetType - the packet type.
+     * @param fieldType  - the type, or supertype, of the fields.
+     * @return the schema.
+     */
+    public static PacketFieldSchema of(PacketType packetType, Class<?> fieldType) {
+        return SCHEMAS.computeIfAbsent(packetType, type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(fieldType, type -> create(packetType, type));
+    }
+
+    private static PacketFieldSchema create(PacketType packetType, Class<?> fieldType) {
+        List<FieldAccessor> fields = StructureCache.getStructure(packetType).withType(fieldType).getFields();
+        return new PacketFieldSchema(packetType, fieldType, fields.toArray(new FieldAccessor[0]));
+    }
+
+    public PacketType getPacketType() {
+        return this.packetType;
+    }
+
+    public Class<?> getFieldType() {
+        return this.fieldType;
+    }
+
+    /**
+     * Retrieve the number of fields of the type.
+     *
+     * @return the number of fields.
+     */
+    public int size() {
+        return this.accessors.length;
+    }
+
+    /**
+     * Retrieve a view of the field with the given index.
+     *
+     * @param <T>        Type
+     * @param fieldIndex - index of the field.
+     * @return the field view.
+     * @throws FieldAccessException If the field index is out of bounds.
+     */
+    public <T> PacketField<T> field(int fieldIndex) {
+        return this.field(fieldIndex, null);
+    }
+
+    /**
+     * Retrieve a view of the field with the given index, which converts the field value using the given converter.
+     *
+     * @param <T>        Type
+     * @param fieldIndex - index of the field.
+     * @param converter  - the converter, or NULL to access the field value as-is.
+     * @return the field view.
+     * @throws FieldAccessException If the field index is out of bounds.
+     */
+    public <T> PacketField<T> field(int fieldIndex, EquivalentConverter<T> converter) {
+        return new PacketField<>(this.packetType, this.getAccessor(fieldIndex), converter);
+    }
+
+    /**
+     * Retrieve a view of the int field with the given index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return the field view.
+     * @throws FieldAccessException If the field index is out of bounds or the schema isn't for int fields.
+     */
+    public IntField intField(int fieldIndex) {
+        this.checkFieldType(int.class);
+        return new IntField(this.packetType, (IntFieldAccessor) this.getAccessor(fieldIndex));
+    }
+
+    /**
+     * Retrieve a view of the double field with the given index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return the field view.
+     * @throws FieldAccessException If the field index is out of bounds or the schema isn't for double fields.
+     */
+    public DoubleField doubleField(int fieldIndex) {
+        this.checkFieldType(double.class);
+        return new DoubleField(this.packetType, (DoubleFieldAccessor) this.getAccessor(fieldIndex));
+    }
+
+    private void checkFieldType(Class<?> expected) {
+        if (this.fieldType != expected) {
+            throw FieldAccessException.fromFormat("Schema of %s fields cannot access %s fields", this.fieldType, expected);
+        }
+    }
+
+    private FieldAccessor getAccessor(int fieldIndex) {
+        if (fieldIndex < 0 || fieldIndex >= this.accessors.length) {
+            throw FieldAccessException.fromFormat(
+                    "Field index %d is out of bounds for length %s",
+                    fieldIndex,
+                    this.accessors.length);
+        }
+
+        return this.accessors[fieldIndex];
+    }
+
+    static void checkPacketType(PacketType expected, PacketContainer packet) {
+        if (!expected.equals(packet.getType())) {
+            throw new IllegalArgumentException("Expected a packet of type " + expected + ", got " + packet.getType());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PacketFieldSchema[packetType=" + this.packetType + ", fieldType=" + this.fieldType + ", size="
+                + this.accessors.length + "]";
+    }
+}
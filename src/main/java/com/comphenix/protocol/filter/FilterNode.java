@@ -0,0 +1,114 @@
+package com.comphenix.protocol.filter;
+
+import java.lang.reflect.Method;
+
+/**
+ * The nodes of a parsed filter expression. Conditions evaluate to a boolean, values to an object.
+ */
+abstract class FilterNode {
+
+    private FilterNode() {
+    }
+
+    abstract static class Condition extends FilterNode {
+    }
+
+    abstract static class Value extends FilterNode {
+    }
+
+    static final class And extends Condition {
+        final Condition left;
+        final Condition right;
+
+        And(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    static final class Or extends Condition {
+        final Condition left;
+        final Condition right;
+
+        Or(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    static final class Not extends Condition {
+        final Condition operand;
+
+        Not(Condition operand) {
+            this.operand = operand;
+        }
+    }
+
+    static final class Comparison extends Condition {
+        final Operator operator;
+        final Value left;
+        final Value right;
+
+        Comparison(Operator operator, Value left, Value right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /**
+     * A value which is used as a condition on its own, such as {@code cancelled}.
+     */
+    static final class Truth extends Condition {
+        final Value value;
+
+        Truth(Value value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * A literal, including packet types.
+     */
+    static final class Constant extends Value {
+        final Object value;
+
+        Constant(Object value) {
+            this.value = value;
+        }
+    }
+
+    static final class PacketTypeValue extends Value {
+    }
+
+    static final class CancelledValue extends Value {
+    }
+
+    /**
+     * A field of the packet read through the structure modifier returned by the given packet container getter.
+     */
+    static final class FieldRead extends Value {
+        final Method getter;
+        final int index;
+
+        FieldRead(Method getter, int index) {
+            this.getter = getter;
+            this.index = index;
+        }
+    }
+
+    enum Operator {
+        EQUAL("=="),
+        NOT_EQUAL("!="),
+        LESS("<"),
+        LESS_OR_EQUAL("<="),
+        GREATER(">"),
+        GREATER_OR_EQUAL(">=");
+
+        final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+}
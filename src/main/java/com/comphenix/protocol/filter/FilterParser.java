@@ -0,0 +1,272 @@
+package com.comphenix.protocol.filter;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.PacketType.Protocol;
+import com.comphenix.protocol.PacketType.Sender;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.filter.FilterNode.Condition;
+import com.comphenix.protocol.filter.FilterNode.Operator;
+import com.comphenix.protocol.filter.FilterNode.Value;
+import com.comphenix.protocol.reflect.StructureModifier;
+
+/**
+ * A recursive descent parser of filter expressions.
+ */
+final class FilterParser {
+
+    private final String input;
+    private int position;
+
+    private FilterParser(String input) {
+        this.input = input;
+    }
+
+    static Condition parse(String expression) throws FilterSyntaxException {
+        FilterParser parser = new FilterParser(expression);
+        Condition condition = parser.parseOr();
+
+        parser.skipWhitespace();
+        if (parser.position < parser.input.length()) {
+            throw parser.error("Unexpected '" + parser.input.charAt(parser.position) + "'");
+        }
+        return condition;
+    }
+
+    private Condition parseOr() throws FilterSyntaxException {
+        Condition condition = this.parseAnd();
+        while (this.accept("||")) {
+            condition = new FilterNode.Or(condition, this.parseAnd());
+        }
+        return condition;
+    }
+
+    private Condition parseAnd() throws FilterSyntaxException {
+        Condition condition = this.parseUnary();
+        while (this.accept("&&")) {
+            condition = new FilterNode.And(condition, this.parseUnary());
+        }
+        return condition;
+    }
+
+    private Condition parseUnary() throws FilterSyntaxException {
+        if (!this.peek("!=") && this.accept("!")) {
+            return new FilterNode.Not(this.parseUnary());
+        }
+
+        if (this.accept("(")) {
+            Condition condition = this.parseOr();
+            this.expect(")");
+            return condition;
+        }
+
+        Value left = this.parseValue();
+        Operator operator = this.parseOperator();
+        if (operator == null) {
+            return new FilterNode.Truth(left);
+        }
+        return new FilterNode.Comparison(operator, left, this.parseValue());
+    }
+
+    private Operator parseOperator() {
+        // the two character operators have to be matched first
+        for (Operator operator : new Operator[]{Operator.EQUAL, Operator.NOT_EQUAL, Operator.LESS_OR_EQUAL,
+                Operator.GREATER_OR_EQUAL, Operator.LESS, Operator.GREATER}) {
+            if (this.accept(operator.symbol)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+
+    private Value parseValue() throws FilterSyntaxException {
+        this.skipWhitespace();
+        if (this.position >= this.input.length()) {
+            throw this.error("Expected a value");
+        }
+
+        char current = this.input.charAt(this.position);
+        if (current == '"' || current == '\'') {
+            return new FilterNode.Constant(this.parseString(current));
+        }
+        if (Character.isDigit(current) || (current == '-' && this.position + 1 < this.input.length()
+                && Character.isDigit(this.input.charAt(this.position + 1)))) {
+            return new FilterNode.Constant(this.parseNumber());
+        }
+        if (Character.isJavaIdentifierStart(current)) {
+            return this.parseIdentifier();
+        }
+
+        throw this.error("Expected a value but found '" + current + "'");
+    }
+
+    private String parseString(char quote) throws FilterSyntaxException {
+        StringBuilder builder = new StringBuilder();
+        this.position++;
+
+        while (this.position < this.input.length()) {
+            char current = this.input.charAt(this.position++);
+            if (current == quote) {
+                return builder.toString();
+            }
+
+            if (current == '\\' && this.position < this.input.length()) {
+                current = this.input.charAt(this.position++);
+            }
+            builder.append(current);
+        }
+
+        throw this.error("Unterminated string");
+    }
+
+    private Object parseNumber() throws FilterSyntaxException {
+        int start = this.position++;
+        boolean decimal = false;
+
+        while (this.position < this.input.length()) {
+            char current = this.input.charAt(this.position);
+            if (current == '.' && !decimal) {
+                decimal = true;
+            } else if (!Character.isDigit(current)) {
+                break;
+            }
+            this.position++;
+        }
+
+        String number = this.input.substring(start, this.position);
+        try {
+            return decimal ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+        } catch (NumberFormatException ex) {
+            throw new FilterSyntaxException("Invalid number " + number, start, false);
+        }
+    }
+
+    private Value parseIdentifier() throws FilterSyntaxException {
+        int start = this.position;
+        String identifier = this.readIdentifier();
+
+        if (this.position < this.input.length() && this.input.charAt(this.position) == '.') {
+            return new FilterNode.Constant(this.parsePacketType(start, identifier));
+        }
+
+        switch (identifier) {
+            case "true":
+                return new FilterNode.Constant(Boolean.TRUE);
+            case "false":
+                return new FilterNode.Constant(Boolean.FALSE);
+            case "null":
+                return new FilterNode.Constant(null);
+            case "type":
+                return new FilterNode.PacketTypeValue();
+            case "cancelled":
+                return new FilterNode.CancelledValue();
+            default:
+                break;
+        }
+
+        if (!this.accept("[")) {
+            throw new FilterSyntaxException("Unknown identifier " + identifier, start, false);
+        }
+
+        Method getter = findGetter(identifier);
+        if (getter == null) {
+            throw new FilterSyntaxException("Unknown packet fields " + identifier, start, false);
+        }
+
+        this.skipWhitespace();
+        int indexStart = this.position;
+        while (this.position < this.input.length() && Character.isDigit(this.input.charAt(this.position))) {
+            this.position++;
+        }
+        if (indexStart == this.position) {
+            throw this.error("Expected a field index");
+        }
+
+        int index;
+        try {
+            index = Integer.parseInt(this.input.substring(indexStart, this.position));
+        } catch (NumberFormatException ex) {
+            throw new FilterSyntaxException("Invalid field index", indexStart, false);
+        }
+
+        this.expect("]");
+        return new FilterNode.FieldRead(getter, index);
+    }
+
+    private PacketType parsePacketType(int start, String protocolName) throws FilterSyntaxException {
+        this.position++;
+        String senderName = this.readIdentifier();
+        this.expect(".");
+        String typeName = this.readIdentifier();
+
+        try {
+            Protocol protocol = Protocol.valueOf(protocolName.toUpperCase(Locale.ROOT));
+            Sender sender = Sender.valueOf(senderName.toUpperCase(Locale.ROOT));
+
+            for (PacketType type : PacketType.values()) {
+                if (type.getProtocol() == protocol && type.getSender() == sender && type.name().equalsIgnoreCase(typeName)) {
+                    return type;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            // reported below
+        }
+
+        throw new FilterSyntaxException("Unknown packet type " + protocolName + "." + senderName + "." + typeName,
+                start, false);
+    }
+
+    private String readIdentifier() throws FilterSyntaxException {
+        int start = this.position;
+        if (start >= this.input.length() || !Character.isJavaIdentifierStart(this.input.charAt(start))) {
+            throw this.error("Expected an identifier");
+        }
+
+        while (this.position < this.input.length() && Character.isJavaIdentifierPart(this.input.charAt(this.position))) {
+            this.position++;
+        }
+        return this.input.substring(start, this.position);
+    }
+
+    private static Method findGetter(String fields) {
+        for (Method method : PacketContainer.class.getMethods()) {
+            if (method.getParameterCount() == 0
+                    && StructureModifier.class.isAssignableFrom(method.getReturnType())
+                    && method.getName().equalsIgnoreCase("get" + fields)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private boolean peek(String token) {
+        this.skipWhitespace();
+        return this.input.startsWith(token, this.position);
+    }
+
+    private boolean accept(String token) {
+        if (this.peek(token)) {
+            this.position += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) throws FilterSyntaxException {
+        if (!this.accept(token)) {
+            throw this.error("Expected '" + token + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (this.position < this.input.length() && Character.isWhitespace(this.input.charAt(this.position))) {
+            this.position++;
+        }
+    }
+
+    private FilterSyntaxException error(String message) {
+        return new FilterSyntaxException(message, this.position, this.position >= this.input.length());
+    }
+}
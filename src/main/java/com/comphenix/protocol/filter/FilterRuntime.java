@@ -0,0 +1,86 @@
+package com.comphenix.protocol.filter;
+
+import java.util.Objects;
+
+/**
+ * The operations compiled filters delegate to. This class is public as it is called from generated code, it isn't
+ * meant to be used otherwise.
+ */
+public final class FilterRuntime {
+
+    private FilterRuntime() {
+        // static helpers
+    }
+
+    /**
+     * Determine whether two values are equal. Numbers are compared by their value regardless of their type, and any
+     * value is equal to a string if its string representation is.
+     *
+     * @param left  - the left value.
+     * @param right - the right value.
+     * @return TRUE if the values are equal, FALSE otherwise.
+     */
+    public static boolean isEqual(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return compareNumbers((Number) left, (Number) right) == 0;
+        }
+        if (left == null || right == null) {
+            return left == right;
+        }
+        if (left instanceof String || right instanceof String) {
+            return left.toString().equals(right.toString());
+        }
+        return Objects.equals(left, right);
+    }
+
+    /**
+     * Compare the order of two numbers or two comparable values of the same type.
+     *
+     * @param left  - the left value.
+     * @param right - the right value.
+     * @return a negative number, zero or a positive number if the left value is less than, equal to or greater than the
+     * right value.
+     * @throws IllegalArgumentException If the values cannot be compared.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static int compare(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return compareNumbers((Number) left, (Number) right);
+        }
+        if (left instanceof Comparable && right != null && left.getClass() == right.getClass()) {
+            return ((Comparable) left).compareTo(right);
+        }
+        throw new IllegalArgumentException("Cannot compare " + left + " with " + right);
+    }
+
+    /**
+     * Determine whether the given value counts as true, which are TRUE and non-zero numbers.
+     *
+     * @param value - the value.
+     * @return TRUE if it counts as true, FALSE otherwise.
+     * @throws IllegalArgumentException If the value is neither a boolean, a number nor NULL.
+     */
+    public static boolean isTrue(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue() != 0;
+        }
+        if (value == null) {
+            return false;
+        }
+        throw new IllegalArgumentException(value + " is not a boolean");
+    }
+
+    private static int compareNumbers(Number left, Number right) {
+        if (isDecimal(left) || isDecimal(right)) {
+            return Double.compare(left.doubleValue(), right.doubleValue());
+        }
+        return Long.compare(left.longValue(), right.longValue());
+    }
+
+    private static boolean isDecimal(Number number) {
+        return number instanceof Double || number instanceof Float;
+    }
+}
@@ -0,0 +1,36 @@
+package com.comphenix.protocol.filter;
+
+/**
+ * Thrown when a filter expression cannot be parsed.
+ */
+public class FilterSyntaxException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int position;
+    private final boolean endOfInput;
+
+    public FilterSyntaxException(String message, int position, boolean endOfInput) {
+        super(message + " at position " + (position + 1));
+        this.position = position;
+        this.endOfInput = endOfInput;
+    }
+
+    /**
+     * Retrieve the position in the expression at which the error occurred.
+     *
+     * @return the zero-based position.
+     */
+    public int getPosition() {
+        return this.position;
+    }
+
+    /**
+     * Determine whether the expression ended unexpectedly, meaning it might still become valid if more input follows.
+     *
+     * @return TRUE if the end of the expression was reached, FALSE otherwise.
+     */
+    public boolean isEndOfInput() {
+        return this.endOfInput;
+    }
+}
@@ -0,0 +1,278 @@
+package com.comphenix.protocol.filter;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.reflect.StructureModifier;
+import com.comphenix.protocol.utility.ByteBuddyFactory;
+
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * Compiles filter expressions into packet event predicates.
+ * <p>
+ * An expression combines conditions with {@code &&}, {@code ||}, {@code !} and parentheses. A condition compares two
+ * values with {@code ==}, {@code !=}, {@code <}, {@code <=}, {@code >} or {@code >=}, or is a single boolean value.
+ * Values are numbers, strings, {@code true}, {@code false}, {@code null}, packet types such as
+ * {@code PLAY.SERVER.CHAT}, the packet type of the event as {@code type}, {@code cancelled}, and packet fields read
+ * through the structure modifiers of the packet container such as {@code integers[0]} or {@code strings[1]}:
+ * <pre>
+ * type == PLAY.SERVER.ENTITY_VELOCITY &amp;&amp; (integers[1] &gt; 8000 || integers[1] &lt; -8000)
+ * </pre>
+ * Every expression is compiled into its own class, so evaluating a filter costs about as much as the equivalent Java
+ * code and the predicate can be used from any thread. The class is defined in its own class loader and is unloaded
+ * once the predicate is no longer referenced.
+ */
+public final class PacketFilterCompiler {
+
+    private static final String FILTER_PACKAGE = PacketFilterCompiler.class.getPackage().getName();
+    private static final AtomicInteger FILTER_ID = new AtomicInteger();
+
+    private static final String CONSTANTS_FIELD = "constants";
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String OBJECT_ARRAY = Type.getDescriptor(Object[].class);
+    private static final String PACKET_EVENT = Type.getInternalName(PacketEvent.class);
+    private static final String PACKET_CONTAINER = Type.getInternalName(PacketContainer.class);
+    private static final String STRUCTURE_MODIFIER = Type.getInternalName(StructureModifier.class);
+    private static final String RUNTIME = Type.getInternalName(FilterRuntime.class);
+
+    // locals of the generated test method
+    private static final int THIS = 0;
+    private static final int EVENT = 2;
+
+    private PacketFilterCompiler() {
+        // static compiler
+    }
+
+    /**
+     * Check the syntax of the given filter expression without compiling it.
+     *
+     * @param expression - the expression.
+     * @throws FilterSyntaxException If the expression is invalid.
+     */
+    public static void validate(String expression) throws FilterSyntaxException {
+        FilterParser.parse(expression);
+    }
+
+    /**
+     * Compile the given filter expression.
+     *
+     * @param expression - the expression.
+     * @return the compiled predicate.
+     * @throws FilterSyntaxException If the expression is invalid.
+     */
+    @SuppressWarnings("unchecked")
+    public static Predicate<PacketEvent> compile(String expression) throws FilterSyntaxException {
+        FilterNode.Condition condition = FilterParser.parse(expression);
+        List<Object> constants = new ArrayList<>();
+
+        // every filter gets its own class loader, so the class can be unloaded together with the filter
+        Class<?> filterClass = ByteBuddyFactory.getInstance()
+                .createSubclass(Object.class)
+                .name(FILTER_PACKAGE + ".CompiledFilter$" + FILTER_ID.incrementAndGet())
+                .implement(Predicate.class)
+                .defineField(CONSTANTS_FIELD, Object[].class, Visibility.PUBLIC)
+                .method(ElementMatchers.named("test").and(ElementMatchers.takesArguments(Object.class)))
+                .intercept(new Implementation.Simple(new TestAppender(condition, constants)))
+                .visit(new AsmVisitorWrapper.ForDeclaredMethods().writerFlags(ClassWriter.COMPUTE_FRAMES))
+                .make()
+                .load(ByteBuddyFactory.getInstance().getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+
+        try {
+            Object filter = filterClass.getConstructor().newInstance();
+            filterClass.getField(CONSTANTS_FIELD).set(filter, constants.toArray());
+            return (Predicate<PacketEvent>) filter;
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Unable to construct compiled filter " + filterClass, ex);
+        }
+    }
+
+    /**
+     * Generates {@code boolean test(Object event)} of a compiled filter. Conditions are compiled into jumps, so the
+     * operand stack is empty at every jump target.
+     */
+    private static final class TestAppender implements ByteCodeAppender {
+
+        private final FilterNode.Condition condition;
+        private final List<Object> constants;
+        private String owner;
+
+        TestAppender(FilterNode.Condition condition, List<Object> constants) {
+            this.condition = condition;
+            this.constants = constants;
+        }
+
+        @Override
+        public Size apply(MethodVisitor visitor, Implementation.Context context, MethodDescription method) {
+            this.owner = context.getInstrumentedType().getInternalName();
+
+            visitor.visitVarInsn(Opcodes.ALOAD, 1);
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, PACKET_EVENT);
+            visitor.visitVarInsn(Opcodes.ASTORE, EVENT);
+
+            Label rejected = new Label();
+            this.jumpIfFalse(visitor, this.condition, rejected);
+            visitor.visitInsn(Opcodes.ICONST_1);
+            visitor.visitInsn(Opcodes.IRETURN);
+
+            visitor.visitLabel(rejected);
+            visitor.visitInsn(Opcodes.ICONST_0);
+            visitor.visitInsn(Opcodes.IRETURN);
+
+            // a comparison with two field reads needs the most stack
+            return new Size(6, EVENT + 1);
+        }
+
+        private void jumpIfFalse(MethodVisitor visitor, FilterNode.Condition node, Label target) {
+            if (node instanceof FilterNode.And) {
+                FilterNode.And and = (FilterNode.And) node;
+                this.jumpIfFalse(visitor, and.left, target);
+                this.jumpIfFalse(visitor, and.right, target);
+            } else if (node instanceof FilterNode.Or) {
+                FilterNode.Or or = (FilterNode.Or) node;
+                Label accepted = new Label();
+                this.jumpIfTrue(visitor, or.left, accepted);
+                this.jumpIfFalse(visitor, or.right, target);
+                visitor.visitLabel(accepted);
+            } else if (node instanceof FilterNode.Not) {
+                this.jumpIfTrue(visitor, ((FilterNode.Not) node).operand, target);
+            } else {
+                this.test(visitor, node, false, target);
+            }
+        }
+
+        private void jumpIfTrue(MethodVisitor visitor, FilterNode.Condition node, Label target) {
+            if (node instanceof FilterNode.And) {
+                FilterNode.And and = (FilterNode.And) node;
+                Label rejected = new Label();
+                this.jumpIfFalse(visitor, and.left, rejected);
+                this.jumpIfTrue(visitor, and.right, target);
+                visitor.visitLabel(rejected);
+            } else if (node instanceof FilterNode.Or) {
+                FilterNode.Or or = (FilterNode.Or) node;
+                this.jumpIfTrue(visitor, or.left, target);
+                this.jumpIfTrue(visitor, or.right, target);
+            } else if (node instanceof FilterNode.Not) {
+                this.jumpIfFalse(visitor, ((FilterNode.Not) node).operand, target);
+            } else {
+                this.test(visitor, node, true, target);
+            }
+        }
+
+        private void test(MethodVisitor visitor, FilterNode.Condition node, boolean jumpIfTrue, Label target) {
+            if (node instanceof FilterNode.Truth) {
+                this.pushValue(visitor, ((FilterNode.Truth) node).value);
+                visitor.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "isTrue", "(L" + OBJECT + ";)Z", false);
+                visitor.visitJumpInsn(jumpIfTrue ? Opcodes.IFNE : Opcodes.IFEQ, target);
+                return;
+            }
+
+            FilterNode.Comparison comparison = (FilterNode.Comparison) node;
+            this.pushValue(visitor, comparison.left);
+            this.pushValue(visitor, comparison.right);
+
+            FilterNode.Operator operator = comparison.operator;
+            if (!jumpIfTrue) {
+                operator = negate(operator);
+            }
+
+            switch (operator) {
+                case EQUAL:
+                case NOT_EQUAL:
+                    visitor.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "isEqual",
+                            "(L" + OBJECT + ";L" + OBJECT + ";)Z", false);
+                    visitor.visitJumpInsn(operator == FilterNode.Operator.EQUAL ? Opcodes.IFNE : Opcodes.IFEQ, target);
+                    break;
+                default:
+                    visitor.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "compare",
+                            "(L" + OBJECT + ";L" + OBJECT + ";)I", false);
+                    visitor.visitJumpInsn(getCompareJump(operator), target);
+                    break;
+            }
+        }
+
+        private void pushValue(MethodVisitor visitor, FilterNode.Value value) {
+            if (value instanceof FilterNode.Constant) {
+                this.constants.add(((FilterNode.Constant) value).value);
+                visitor.visitVarInsn(Opcodes.ALOAD, THIS);
+                visitor.visitFieldInsn(Opcodes.GETFIELD, this.owner, CONSTANTS_FIELD, OBJECT_ARRAY);
+                visitor.visitLdcInsn(this.constants.size() - 1);
+                visitor.visitInsn(Opcodes.AALOAD);
+            } else if (value instanceof FilterNode.PacketTypeValue) {
+                visitor.visitVarInsn(Opcodes.ALOAD, EVENT);
+                visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, PACKET_EVENT, "getPacketType",
+                        "()" + Type.getDescriptor(PacketType.class), false);
+            } else if (value instanceof FilterNode.CancelledValue) {
+                visitor.visitVarInsn(Opcodes.ALOAD, EVENT);
+                visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, PACKET_EVENT, "isCancelled", "()Z", false);
+                visitor.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Boolean.class), "valueOf",
+                        "(Z)Ljava/lang/Boolean;", false);
+            } else {
+                FilterNode.FieldRead read = (FilterNode.FieldRead) value;
+                Method getter = read.getter;
+
+                visitor.visitVarInsn(Opcodes.ALOAD, EVENT);
+                visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, PACKET_EVENT, "getPacket",
+                        "()" + Type.getDescriptor(PacketContainer.class), false);
+                visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, PACKET_CONTAINER, getter.getName(),
+                        Type.getMethodDescriptor(getter), false);
+                visitor.visitLdcInsn(read.index);
+                visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, STRUCTURE_MODIFIER, "read", "(I)L" + OBJECT + ";",
+                        false);
+            }
+        }
+
+        private static FilterNode.Operator negate(FilterNode.Operator operator) {
+            switch (operator) {
+                case EQUAL:
+                    return FilterNode.Operator.NOT_EQUAL;
+                case NOT_EQUAL:
+                    return FilterNode.Operator.EQUAL;
+                case LESS:
+                    return FilterNode.Operator.GREATER_OR_EQUAL;
+                case LESS_OR_EQUAL:
+                    return FilterNode.Operator.GREATER;
+                case GREATER:
+                    return FilterNode.Operator.LESS_OR_EQUAL;
+                case GREATER_OR_EQUAL:
+                    return FilterNode.Operator.LESS;
+                default:
+                    throw new IllegalArgumentException("Unknown operator " + operator);
+            }
+        }
+
+        private static int getCompareJump(FilterNode.Operator operator) {
+            switch (operator) {
+                case LESS:
+                    return Opcodes.IFLT;
+                case LESS_OR_EQUAL:
+                    return Opcodes.IFLE;
+                case GREATER:
+                    return Opcodes.IFGT;
+                case GREATER_OR_EQUAL:
+                    return Opcodes.IFGE;
+                default:
+                    throw new IllegalArgumentException("Not an ordering " + operator);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.comphenix.protocol.injector;
 
 import com.comphenix.protocol.ProtocolManager;
+import com.comphenix.protocol.injector.netty.channel.InboundRateLimits;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
 
@@ -37,4 +38,19 @@ public interface InternalManager extends ProtocolManager {
      * @param debug - TRUE if it is, FALSE otherwise.
      */
     void setDebug(boolean debug);
+
+    /**
+     * Set the limits of the queue which processes packets for main thread listeners.
+     *
+     * @param tickBudget   - the maximum amount of packets processed per tick.
+     * @param backlogLimit - the amount of queued packets after which players stop being read from.
+     */
+    void setMainThreadQueueLimits(int tickBudget, int backlogLimit);
+
+    /**
+     * Set the limits of packets players may send, which are enforced before any listener is called.
+     *
+     * @param inboundRateLimits - the new limits.
+     */
+    void setInboundRateLimits(InboundRateLimits inboundRateLimits);
 }
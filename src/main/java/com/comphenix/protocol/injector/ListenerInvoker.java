@@ -31,6 +31,13 @@ public interface ListenerInvoker {
 
 	boolean hasOutboundListener(PacketType packetType);
 
+	/**
+	 * Determine if any outbound listener is registered, regardless of the packet type.
+	 *
+	 * @return TRUE if at least one outbound listener is registered, FALSE otherwise.
+	 */
+	boolean hasOutboundListeners();
+
 	boolean hasMainThreadListener(PacketType packetType);
 
 	/**
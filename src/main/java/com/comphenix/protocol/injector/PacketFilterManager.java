@@ -1,9 +1,11 @@
 package com.comphenix.protocol.injector;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
@@ -44,14 +46,21 @@ import com.comphenix.protocol.injector.collection.InboundPacketListenerSet;
 import com.comphenix.protocol.injector.collection.OutboundPacketListenerSet;
 import com.comphenix.protocol.injector.collection.PacketListenerSet;
 import com.comphenix.protocol.injector.netty.WirePacket;
+import com.comphenix.protocol.injector.netty.channel.InboundRateLimits;
 import com.comphenix.protocol.injector.netty.manager.NetworkManagerInjector;
 import com.comphenix.protocol.injector.packet.PacketRegistry;
 import com.comphenix.protocol.injector.player.PlayerInjectionHandler;
 import com.comphenix.protocol.injector.player.PlayerInjectionHandler.ConflictStrategy;
+import com.comphenix.protocol.metrics.PacketMetrics;
+import com.comphenix.protocol.metrics.PacketTraffic;
+import com.comphenix.protocol.timing.PacketFlowProfiler;
+import com.comphenix.protocol.timing.PacketFlowStage;
+import com.comphenix.protocol.timing.PacketFlowTrace;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.utility.MinecraftVersion;
 import com.google.common.collect.ImmutableSet;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 
 public class PacketFilterManager implements ListenerInvoker, InternalManager {
@@ -60,6 +69,9 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
     private static final ReportType PLUGIN_VERIFIER_ERROR = new ReportType("Plugin verifier error: %s");
     private static final ReportType INVALID_PLUGIN_VERIFY = new ReportType("Plugin %s does not %s on ProtocolLib");
 
+    // the maximum amount of packets the client accepts in a single bundle
+    private static final int MAX_BUNDLE_SIZE = 4096;
+
     // bukkit references
     private final Plugin plugin;
     private final Server server;
@@ -79,6 +91,9 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
     // only for api lookups
     private final Set<PacketListener> registeredListeners;
 
+    // if any outbound listener is registered, read by the injectors before they look at an outbound packet
+    private volatile boolean outboundInterest = false;
+
     // injectors
     private final PlayerInjectionHandler playerInjectionHandler;
     private final NetworkManagerInjector networkManagerInjector;
@@ -184,6 +199,100 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
         }
     }
 
+    @Override
+    public void sendServerPackets(Player receiver, List<PacketContainer> packets) {
+        this.sendServerPackets(receiver, packets, true, false);
+    }
+
+    @Override
+    public void sendServerPackets(Player receiver, List<PacketContainer> packets, boolean filters) {
+        this.sendServerPackets(receiver, packets, filters, false);
+    }
+
+    @Override
+    public void sendServerPackets(Player receiver, List<PacketContainer> packets, boolean filters, boolean bundle) {
+        if (!this.closed && !packets.isEmpty()) {
+            List<PacketContainer> batch = bundle ? this.bundlePackets(packets) : packets;
+
+            // the listeners are called on this thread, ensure we are on the main thread if any listener requires that
+            if (!this.server.isPrimaryThread() && this.hasMainThreadListener(batch)) {
+                ProtocolLibrary.getScheduler().runTask(() -> this.sendServerPackets(receiver, batch, filters, false));
+                return;
+            }
+
+            List<Object> handles = new ArrayList<>(batch.size());
+            List<PacketEvent> postEvents = new ArrayList<>();
+            for (PacketContainer packet : batch) {
+                PacketEvent event;
+                if (filters) {
+                    event = PacketEvent.fromServer(this.networkManagerInjector, packet, null, receiver);
+                    this.invokePacketSending(event);
+                } else {
+                    // notify all monitor listeners, they will not be able to change the event tho
+                    event = PacketEvent.fromServer(this, packet, null, receiver, false);
+                    this.outboundListeners.invoke(event, ListenerPriority.MONITOR);
+                }
+
+                if (!event.isCancelled()) {
+                    handles.add(event.getPacket().getHandle());
+
+                    // check without accidentally constructing the marker if any post processing is needed
+                    if (NetworkMarker.getNetworkMarker(event) != null) {
+                        postEvents.add(event);
+                    }
+                }
+            }
+
+            if (!handles.isEmpty()) {
+                this.playerInjectionHandler.sendServerPackets(receiver, handles, postEvents);
+            }
+        }
+    }
+
+    private List<PacketContainer> bundlePackets(List<PacketContainer> packets) {
+        // bundles are only supported in the play phase on servers which know about them
+        if (packets.size() < 2 || !MinecraftReflection.getPackedBundlePacketClass().isPresent()) {
+            return packets;
+        }
+
+        for (PacketContainer packet : packets) {
+            if (packet.getType().getProtocol() != PacketType.Protocol.PLAY || packet.getType() == PacketType.Play.Server.BUNDLE) {
+                return packets;
+            }
+        }
+
+        // the client refuses bundles with more packets than the limit, split them into multiple bundles
+        List<PacketContainer> bundles = new ArrayList<>();
+        for (int start = 0; start < packets.size(); start += MAX_BUNDLE_SIZE) {
+            List<PacketContainer> content = packets.subList(start, Math.min(packets.size(), start + MAX_BUNDLE_SIZE));
+
+            PacketContainer bundle = new PacketContainer(PacketType.Play.Server.BUNDLE);
+            bundle.getPacketBundles().write(0, new ArrayList<>(content));
+            bundles.add(bundle);
+        }
+
+        return bundles;
+    }
+
+    private boolean hasMainThreadListener(List<PacketContainer> packets) {
+        for (PacketContainer packet : packets) {
+            if (this.hasMainThreadListener(packet.getType())) {
+                return true;
+            }
+
+            // the content of a bundle is posted to the listeners as well
+            if (packet.getType() == PacketType.Play.Server.BUNDLE) {
+                for (PacketContainer bundled : packet.getPacketBundles().read(0)) {
+                    if (bundled != null && this.hasMainThreadListener(bundled.getType())) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
     @Override
     public void sendWirePacket(Player receiver, int id, byte[] bytes) {
         this.sendWirePacket(receiver, new WirePacket(id, bytes));
@@ -249,6 +358,11 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
         return this.playerInjectionHandler.getProtocolVersion(player);
     }
 
+    @Override
+    public Map<PacketType, PacketTraffic> getOutboundTraffic(Player player) {
+        return this.playerInjectionHandler.getOutboundTraffic(player);
+    }
+
     @Override
     public void broadcastServerPacket(PacketContainer packet) {
         this.broadcastServerPacket(packet, this.server.getOnlinePlayers());
@@ -296,6 +410,38 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
         }
     }
 
+    @Override
+    public void broadcastServerPacket(PacketContainer packet, Collection<? extends Player> targetPlayers, boolean encodeOnce) {
+        // listeners might change the packet per player, and bundles are split up by the pipeline
+        PacketType type = packet.getType();
+        if (!encodeOnce || targetPlayers.size() < 2 || type.getProtocol() != PacketType.Protocol.PLAY
+                || type == PacketType.Play.Server.BUNDLE || this.hasOutboundListener(type)) {
+            this.broadcastServerPacket(packet, targetPlayers);
+            return;
+        }
+
+        if (!this.closed) {
+            ByteBuf encoded = WirePacket.encodeFully(packet);
+            try {
+                for (Player player : targetPlayers) {
+                    Channel channel = this.playerInjectionHandler.getChannel(player);
+                    PacketType.Protocol protocol = this.playerInjectionHandler.getCurrentProtocol(player, PacketType.Sender.SERVER);
+
+                    // the packet id is only valid in the play state
+                    if (channel == null || protocol != PacketType.Protocol.PLAY) {
+                        this.sendServerPacket(player, packet);
+                        continue;
+                    }
+
+                    // the duplicate shares the content, every channel releases its own reference once written
+                    channel.writeAndFlush(encoded.duplicate().retain());
+                }
+            } finally {
+                encoded.release();
+            }
+        }
+    }
+
     @Override
     public ImmutableSet<PacketListener> getPacketListeners() {
         return ImmutableSet.copyOf(this.registeredListeners);
@@ -325,6 +471,7 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
                 // registration
                 this.registeredListeners.add(listener);
                 this.outboundListeners.addListener(listener);
+                this.updateOutboundInterest();
             }
 
             // register as inbound listener if anything outbound is handled
@@ -348,6 +495,7 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
             // remove outbound listeners (if any)
             if (outbound != null && outbound.isEnabled()) {
                 this.outboundListeners.removeListener(listener);
+                this.updateOutboundInterest();
             }
 
             // remove inbound listeners (if any)
@@ -485,6 +633,7 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
             this.mainThreadPacketTypes.clear();
             this.inboundListeners.clear();
             this.outboundListeners.clear();
+            this.outboundInterest = false;
 
             // cleanup
             this.registeredListeners.clear();
@@ -501,6 +650,16 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
     public void setDebug(boolean debug) {
         this.debug = debug;
     }
+
+    @Override
+    public void setMainThreadQueueLimits(int tickBudget, int backlogLimit) {
+        this.networkManagerInjector.setMainThreadQueueLimits(tickBudget, backlogLimit);
+    }
+
+    @Override
+    public void setInboundRateLimits(InboundRateLimits inboundRateLimits) {
+        this.networkManagerInjector.setInboundRateLimits(inboundRateLimits);
+    }
     
     @Override
     public boolean hasInboundListener(PacketType packetType) {
@@ -512,6 +671,11 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
     	return this.outboundListeners.containsPacketType(packetType);
     }
     
+    @Override
+    public boolean hasOutboundListeners() {
+    	return this.outboundInterest;
+    }
+
     @Override
     public boolean hasMainThreadListener(PacketType packetType) {
     	return this.mainThreadPacketTypes.contains(packetType);
@@ -553,11 +717,21 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
             }
 
             // post to sync listeners
+            long startTime = System.nanoTime();
             listeners.invoke(event);
+            PacketMetrics.recordListeners(event.getPacketType(), System.nanoTime() - startTime, event.isCancelled());
 
             // check if we need to post the packet to the async handler
             if (!event.isCancelled() && event.getAsyncMarker() != null && !event.getAsyncMarker().isAsyncCancelled()) {
+                PacketFlowTrace trace = PacketFlowProfiler.current();
+                if (trace != null) {
+                    trace.mark();
+                }
+
                 this.asyncFilterManager.enqueueSyncPacket(event, event.getAsyncMarker());
+                if (trace != null) {
+                    trace.lap(PacketFlowStage.ASYNC_HANDOFF);
+                }
 
                 // cancel the packet here for async processing (enqueueSyncPacket will create a copy of the event)
                 event.setReadOnly(false);
@@ -568,6 +742,10 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
         }
     }
 
+    private void updateOutboundInterest() {
+        this.outboundInterest = !this.outboundListeners.isEmpty();
+    }
+
     private boolean shouldVerifyPlugin(ListeningWhitelist out, ListeningWhitelist in) {
         if (out != null && out.isEnabled() && !out.getOptions().contains(ListenerOptions.SKIP_PLUGIN_VERIFIER)) {
             return true;
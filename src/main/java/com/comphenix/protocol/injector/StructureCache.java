@@ -17,7 +17,13 @@
 
 package com.comphenix.protocol.injector;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -25,6 +31,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.injector.packet.PacketRegistry;
 import com.comphenix.protocol.reflect.FuzzyReflection;
 import com.comphenix.protocol.reflect.StructureModifier;
@@ -70,6 +77,9 @@ public class StructureCache {
     private static final Map<Class<?>, Supplier<Object>> PACKET_INSTANCE_CREATORS = new ConcurrentHashMap<>();
     private static final Map<PacketType, StructureModifier<Object>> STRUCTURE_MODIFIER_CACHE = new ConcurrentHashMap<>();
 
+    // the structure modifier getters of a packet container, used to warm up the typed modifiers
+    private static volatile List<Method> MODIFIER_GETTERS;
+
     // packet data serializer which always returns an empty nbt tag compound
     private static final Object TRICK_INIT_LOCK = new Object();
     private static boolean TRICK_TRIED = false;
@@ -196,6 +206,65 @@ public class StructureCache {
         });
     }
 
+    /**
+     * Compute the typed structure modifiers of the given packet types ahead of time, so that the first packet of each
+     * type doesn't have to filter the fields of the packet class when a listener accesses it.
+     * <p>
+     * This can safely be called from any thread. Packet types which aren't supported by the current server are skipped.
+     *
+     * @param types - the packet types to warm up.
+     */
+    public static void warmUp(PacketType... types) {
+        warmUp(Arrays.asList(types));
+    }
+
+    /**
+     * Compute the typed structure modifiers of the given packet types ahead of time.
+     *
+     * @param types - the packet types to warm up.
+     * @see #warmUp(PacketType...)
+     */
+    public static void warmUp(Iterable<PacketType> types) {
+        for (PacketType type : types) {
+            if (!type.isSupported()) {
+                continue;
+            }
+
+            PacketContainer container;
+            try {
+                container = new PacketContainer(type);
+            } catch (RuntimeException ex) {
+                // the packet can't be constructed on this version, nobody will be able to access it either
+                continue;
+            }
+
+            for (Method getter : getModifierGetters()) {
+                try {
+                    getter.invoke(container);
+                } catch (ReflectiveOperationException | RuntimeException ex) {
+                    // the wrapped type doesn't exist on this version
+                }
+            }
+        }
+    }
+
+    private static List<Method> getModifierGetters() {
+        List<Method> getters = MODIFIER_GETTERS;
+        if (getters == null) {
+            getters = new ArrayList<>();
+            for (Method method : PacketContainer.class.getMethods()) {
+                if (method.getParameterCount() == 0
+                        && !Modifier.isStatic(method.getModifiers())
+                        && !method.isAnnotationPresent(Deprecated.class)
+                        && StructureModifier.class.isAssignableFrom(method.getReturnType())) {
+                    getters.add(method);
+                }
+            }
+            MODIFIER_GETTERS = getters = Collections.unmodifiableList(getters);
+        }
+        return getters;
+    }
+
     /**
      * Returns a new mocked null data serializer instance, if possible.
      *
@@ -18,6 +18,10 @@ import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.events.PacketListener;
 import com.comphenix.protocol.injector.packet.PacketRegistry;
+import com.comphenix.protocol.timing.ListenerStallWatchdog;
+import com.comphenix.protocol.timing.PacketFlowProfiler;
+import com.comphenix.protocol.timing.PacketFlowTrace;
+import com.comphenix.protocol.timing.PluginTimingTracker;
 import com.comphenix.protocol.timing.TimingListenerType;
 import com.comphenix.protocol.timing.TimingTrackerManager;
 import com.google.common.collect.ImmutableSet;
@@ -27,7 +31,7 @@ public abstract class PacketListenerSet {
 	private static final ReportType UNSUPPORTED_PACKET = new ReportType(
 			"Plugin %s tried to register listener for unknown packet %s [direction: from %s]");
 
-	protected final PacketTypeMultiMap<PacketListener> map = new PacketTypeMultiMap<>();
+	protected final PacketTypeMultiMap<RegisteredPacketListener> map = new PacketTypeMultiMap<>();
 
 	protected final PacketTypeListenerSet mainThreadPacketTypes;
 	protected final ErrorReporter errorReporter;
@@ -41,7 +45,7 @@ public abstract class PacketListenerSet {
 
 	public void addListener(PacketListener packetListener) {
 		ListeningWhitelist listeningWhitelist = getListeningWhitelist(packetListener);
-		this.map.put(listeningWhitelist, packetListener);
+		this.map.put(listeningWhitelist, new RegisteredPacketListener(packetListener));
 
 		Set<ListenerOptions> options = listeningWhitelist.getOptions();
 		for (PacketType packetType : listeningWhitelist.getTypes()) {
@@ -67,7 +71,7 @@ public abstract class PacketListenerSet {
 
 	public void removeListener(PacketListener packetListener) {
 		ListeningWhitelist listeningWhitelist = getListeningWhitelist(packetListener);
-		this.map.remove(listeningWhitelist, packetListener);
+		this.map.remove(listeningWhitelist, new RegisteredPacketListener(packetListener));
 
 		if (this.mainThreadPacketTypes != null) {
 			for (PacketType packetType : listeningWhitelist.getTypes()) {
@@ -80,6 +84,10 @@ public abstract class PacketListenerSet {
 		return this.map.contains(packetType);
 	}
 
+	public final boolean isEmpty() {
+		return this.map.isEmpty();
+	}
+
 	public final ImmutableSet<PacketType> getPacketTypes() {
 		return this.map.getPacketTypes();
 	}
@@ -89,16 +97,36 @@ public abstract class PacketListenerSet {
 	}
 
 	public void invoke(PacketEvent event, @Nullable ListenerPriority priorityFilter) {
-		Iterable<PacketListener> listeners = this.map.get(event.getPacketType());
+		// pre-sorted snapshot of the listeners, including the priority they were registered with
+		PacketTypeMultiMap.Entries<RegisteredPacketListener> listeners = this.map.getEntries(event.getPacketType());
+		TimingListenerType timingType = event.isServerPacket() ? TimingListenerType.SYNC_OUTBOUND : TimingListenerType.SYNC_INBOUND;
+		PacketFlowTrace trace = PacketFlowProfiler.current();
 
-		for (PacketListener listener : listeners) {
-			ListeningWhitelist listeningWhitelist = listener.getReceivingWhitelist();
-			if (priorityFilter != null && listeningWhitelist.getPriority() != priorityFilter) {
+		for (int index = 0; index < listeners.size(); index++) {
+			if (priorityFilter != null && listeners.getPriority(index) != priorityFilter) {
 				continue;
 			}
 
-			TimingTrackerManager.get(listener, event.isServerPacket() ? TimingListenerType.SYNC_OUTBOUND : TimingListenerType.SYNC_INBOUND)
-				.track(event.getPacketType(), () -> invokeListener(event, listener));
+			RegisteredPacketListener registered = listeners.get(index);
+
+			// a single volatile read if timings are disabled
+			PluginTimingTracker tracker = TimingTrackerManager.isTracking() ? registered.getTimingSlot().get(timingType) : null;
+			long startTime = tracker != null ? System.nanoTime() : 0;
+			if (trace != null) {
+				trace.mark();
+			}
+
+			ListenerStallWatchdog.InFlight inFlight = ListenerStallWatchdog.enter(registered.getListener(), event.getPacketType());
+			this.invokeListener(event, registered.getListener());
+			ListenerStallWatchdog.exit(inFlight);
+
+			if (trace != null) {
+				trace.lap(registered.getListener());
+			}
+
+			if (tracker != null) {
+				tracker.track(event.getPacketType(), System.nanoTime() - startTime);
+			}
 		}
 	}
 
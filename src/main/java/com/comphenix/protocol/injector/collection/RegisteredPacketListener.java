@@ -0,0 +1,41 @@
+package com.comphenix.protocol.injector.collection;
+
+import com.comphenix.protocol.events.PacketListener;
+import com.comphenix.protocol.timing.TimingTrackerSlot;
+
+/**
+ * A registered packet listener together with everything resolved once on registration.
+ * Equality is based on the listener only.
+ */
+final class RegisteredPacketListener {
+
+	private final PacketListener listener;
+	private final TimingTrackerSlot timingSlot;
+
+	public RegisteredPacketListener(PacketListener listener) {
+		this.listener = listener;
+		this.timingSlot = new TimingTrackerSlot(listener);
+	}
+
+	public PacketListener getListener() {
+		return this.listener;
+	}
+
+	public TimingTrackerSlot getTimingSlot() {
+		return this.timingSlot;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		return obj instanceof RegisteredPacketListener other && this.listener.equals(other.listener);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.listener.hashCode();
+	}
+}
@@ -0,0 +1,198 @@
+/**
+ * ProtocolLib - Bukkit server library that allows access to the Minecraft protocol. Copyright (C) 2015 dmulloy2
+ * <p>
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * <p>
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package com.comphenix.protocol.injector.netty;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.ReferenceCounted;
+
+/**
+ * A wire packet whose contents are backed by a reference counted buffer instead of a byte array.
+ * <p>
+ * The contents are never copied when the packet is written into a pipeline, the buffer is passed on together with a
+ * small header holding the packet id. Writing the packet transfers one reference to the pipeline, so the packet must
+ * be {@link #retain() retained} before writing it more than once, and released when it is not written at all.
+ */
+public class ByteBufWirePacket extends WirePacket implements ReferenceCounted {
+
+    private final ByteBuf content;
+
+    /**
+     * Constructs a new ByteBufWirePacket with a given type and contents
+     *
+     * @param type    Type of the packet
+     * @param content Contents of the packet, ownership is transferred to the packet
+     */
+    public ByteBufWirePacket(PacketType type, ByteBuf content) {
+        super(type, null);
+        this.content = checkNotNull(content, "content cannot be null");
+    }
+
+    /**
+     * Constructs a new ByteBufWirePacket with a given id and contents
+     *
+     * @param id      ID of the packet
+     * @param content Contents of the packet, ownership is transferred to the packet
+     */
+    public ByteBufWirePacket(int id, ByteBuf content) {
+        super(id, null);
+        this.content = checkNotNull(content, "content cannot be null");
+    }
+
+    /**
+     * Creates a ByteBufWirePacket from an existing PacketContainer, serializing it into an unpooled buffer
+     *
+     * @param packet Existing packet
+     * @return The resulting packet
+     */
+    public static ByteBufWirePacket fromPacket(PacketContainer packet) {
+        return fromPacket(packet, null);
+    }
+
+    /**
+     * Creates a ByteBufWirePacket from an existing PacketContainer, serializing it into a buffer of the given
+     * allocator. Use the allocator of the target channel to get pooled buffers.
+     *
+     * @param packet    Existing packet
+     * @param allocator Allocator for the contents, or null to use an unpooled buffer
+     * @return The resulting packet
+     */
+    public static ByteBufWirePacket fromPacket(PacketContainer packet, ByteBufAllocator allocator) {
+        checkNotNull(packet, "packet cannot be null!");
+
+        ByteBuf buffer = allocator == null ? Unpooled.buffer() : allocator.buffer();
+        try {
+            serializeInto(packet, buffer);
+            return new ByteBufWirePacket(packet.getType().getCurrentId(), buffer);
+        } catch (RuntimeException exception) {
+            ReferenceCountUtil.safeRelease(buffer);
+            throw exception;
+        }
+    }
+
+    /**
+     * Gets the buffer backing the contents of this packet
+     *
+     * @return The contents
+     */
+    public ByteBuf content() {
+        return this.content;
+    }
+
+    /**
+     * Copies the contents of this packet into a new byte array
+     *
+     * @return A copy of the contents
+     */
+    @Override
+    public byte[] getBytes() {
+        byte[] bytes = new byte[this.content.readableBytes()];
+        this.content.getBytes(this.content.readerIndex(), bytes);
+        return bytes;
+    }
+
+    @Override
+    public void writeBytes(ByteBuf output) {
+        checkNotNull(output, "output cannot be null!");
+        output.writeBytes(this.content, this.content.readerIndex(), this.content.readableBytes());
+    }
+
+    /**
+     * Creates a buffer holding the header of this packet followed by its contents, without copying the contents.
+     * The returned buffer holds one reference to the contents of this packet.
+     *
+     * @param allocator Allocator for the header
+     * @return The buffer
+     */
+    public ByteBuf toBuffer(ByteBufAllocator allocator) {
+        ByteBuf header = allocator.buffer(5);
+        this.writeId(header);
+        return Unpooled.wrappedBuffer(header, this.content.duplicate().retain());
+    }
+
+    @Override
+    public ByteBuf serialize() {
+        return this.toBuffer(UnpooledByteBufAllocator.DEFAULT);
+    }
+
+    @Override
+    public int refCnt() {
+        return this.content.refCnt();
+    }
+
+    @Override
+    public ByteBufWirePacket retain() {
+        this.content.retain();
+        return this;
+    }
+
+    @Override
+    public ByteBufWirePacket retain(int increment) {
+        this.content.retain(increment);
+        return this;
+    }
+
+    // no @Override, touch is only present since netty 4.1. The return type has to match the interface exactly, as
+    // no bridge method is emitted for a covariant return type when compiling against netty 4.0
+    public ReferenceCounted touch() {
+        return this;
+    }
+
+    // no @Override, see above
+    public ReferenceCounted touch(Object hint) {
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return this.content.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return this.content.release(decrement);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj instanceof ByteBufWirePacket that) {
+            return this.getId() == that.getId() && ByteBufUtil.equals(this.content, that.content);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * ByteBufUtil.hashCode(this.content) + this.getId();
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufWirePacket[id=" + this.getId() + ", content=" + this.content + "]";
+    }
+}
@@ -41,6 +41,15 @@ public interface ChannelListener {
 
 	boolean hasOutboundListener(PacketType packetType);
 
+	/**
+	 * Determine if any outbound listener is registered, regardless of the packet type.
+	 * <p>
+	 * This is checked before the packet of an outbound action is looked up, so it must be cheap.
+	 *
+	 * @return TRUE if at least one outbound listener is registered, FALSE otherwise.
+	 */
+	boolean hasOutboundListeners();
+
     boolean hasMainThreadListener(PacketType type);
 
     /**
@@ -3,6 +3,8 @@ package com.comphenix.protocol.injector.netty;
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.PacketType.Protocol;
 import com.comphenix.protocol.events.NetworkMarker;
+import com.comphenix.protocol.events.PacketEvent;
+import java.util.List;
 import org.bukkit.entity.Player;
 
 /**
@@ -44,6 +46,16 @@ public interface Injector {
      */
     void sendServerPacket(Object packet, NetworkMarker marker, boolean filtered);
 
+    /**
+     * Send multiple packets to a player's client, writing all of them before flushing the connection once.
+     * <p>
+     * The packets are not posted to any packet listener, this has to be done before calling this method.
+     *
+     * @param packets    - the packets to send.
+     * @param postEvents - the events of sent packets whose network marker should be processed once they were written.
+     */
+    void sendServerPackets(List<Object> packets, List<PacketEvent> postEvents);
+
     void receiveClientPacket(Object packet);
 
     /**
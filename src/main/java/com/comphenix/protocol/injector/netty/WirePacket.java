@@ -19,14 +19,23 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.injector.StructureCache;
+import com.comphenix.protocol.injector.packet.PacketRegistry;
+import com.comphenix.protocol.reflect.accessors.Accessors;
+import com.comphenix.protocol.reflect.accessors.FieldAccessor;
 import com.comphenix.protocol.reflect.accessors.MethodAccessor;
 import com.comphenix.protocol.utility.MinecraftMethods;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.utility.StreamSerializer;
+import com.comphenix.protocol.wrappers.WrappedStreamCodec;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.util.ReferenceCountUtil;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * A packet represented only by its id and bytes.
@@ -36,6 +45,33 @@ import java.util.Arrays;
 @SuppressWarnings("deprecation") // yea we need to do that :/
 public class WirePacket {
 
+    // instance fields of packets holding a buffer which is consumed when the packet is written using the legacy
+    // write method, or an empty array if the packet holds no such buffer and can be written as is
+    private static final ClassValue<FieldAccessor[]> PAYLOAD_PACKET_FIELDS = new ClassValue<>() {
+        @Override
+        protected FieldAccessor[] computeValue(Class<?> packetClass) {
+            // records are never written using the legacy method
+            if (packetClass.isRecord()) {
+                return new FieldAccessor[0];
+            }
+
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> type = packetClass; type != null && type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        fields.add(field);
+                    }
+                }
+            }
+
+            if (fields.stream().noneMatch(field -> ByteBuf.class.isAssignableFrom(field.getType()))) {
+                return new FieldAccessor[0];
+            }
+
+            return fields.stream().map(Accessors::getFieldAccessor).toArray(FieldAccessor[]::new);
+        }
+    };
+
     private final int id;
     private final byte[] bytes;
 
@@ -82,29 +118,8 @@ public class WirePacket {
         checkNotNull(packet, "packet cannot be null!");
 
         ByteBuf buffer = PacketContainer.createPacketBuffer();
-        ByteBuf store = PacketContainer.createPacketBuffer();
-
-        // Read the bytes once
-        MethodAccessor write = MinecraftMethods.getPacketWriteByteBufMethod();
-        write.invoke(packet.getHandle(), buffer);
-
-        byte[] bytes = StreamSerializer.getDefault().getBytesAndRelease(buffer);
-
-        // Rewrite them to the packet to avoid issues with certain packets
-        if (packet.getType() == PacketType.Play.Server.CUSTOM_PAYLOAD
-                || packet.getType() == PacketType.Play.Client.CUSTOM_PAYLOAD) {
-            // Make a copy of the array before writing
-            byte[] ret = Arrays.copyOf(bytes, bytes.length);
-            store.writeBytes(bytes);
-
-            MethodAccessor read = MinecraftMethods.getPacketReadByteBufMethod();
-            read.invoke(packet.getHandle(), store);
-
-            bytes = ret;
-        }
-
-        ReferenceCountUtil.safeRelease(store);
-        return bytes;
+        serializeInto(packet.getHandle(), buffer);
+        return StreamSerializer.getDefault().getBytesAndRelease(buffer);
     }
 
     /**
@@ -119,9 +134,7 @@ public class WirePacket {
         checkArgument(MinecraftReflection.isPacketClass(packet), "packet must be a Minecraft packet");
 
         ByteBuf buffer = PacketContainer.createPacketBuffer();
-
-        MethodAccessor write = MinecraftMethods.getPacketWriteByteBufMethod();
-        write.invoke(packet, buffer);
+        serializeInto(packet, buffer);
 
         byte[] bytes = StreamSerializer.getDefault().getBytesAndRelease(buffer);
         int id = PacketType.fromClass(packet.getClass()).getCurrentId();
@@ -129,6 +142,86 @@ public class WirePacket {
         return new WirePacket(id, bytes);
     }
 
+    /**
+     * Serializes an existing PacketContainer including its id into a new buffer. The buffer has the same layout the
+     * vanilla encoder produces, so it can be written as-is into the pipeline of every player which is in the protocol
+     * state of the packet.
+     *
+     * @param packet Existing packet
+     * @return The buffer, which must be released by the caller
+     */
+    public static ByteBuf encodeFully(PacketContainer packet) {
+        checkNotNull(packet, "packet cannot be null!");
+
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            writeVarInt(buffer, packet.getType().getCurrentId());
+            serializeInto(packet, buffer);
+            return buffer;
+        } catch (RuntimeException exception) {
+            ReferenceCountUtil.safeRelease(buffer);
+            throw exception;
+        }
+    }
+
+    /**
+     * Serializes the contents of an existing PacketContainer into the given buffer
+     *
+     * @param packet Existing packet
+     * @param output Output to write to
+     */
+    static void serializeInto(PacketContainer packet, ByteBuf output) {
+        serializeInto(packet.getHandle(), output);
+    }
+
+    /**
+     * Serializes the contents of an existing Minecraft packet into the given buffer. The packet is left untouched,
+     * even if it holds a buffer which would be consumed by writing it.
+     *
+     * @param handle Existing Minecraft packet
+     * @param output Output to write to
+     */
+    static void serializeInto(Object handle, ByteBuf output) {
+        // the serializer writes through to the buffer, no need to copy the contents afterwards
+        Object serializer = MinecraftReflection.getPacketDataSerializer(output);
+        WrappedStreamCodec streamCodec = PacketRegistry.getStreamCodec(handle.getClass());
+        if (streamCodec != null) {
+            streamCodec.encode(serializer, handle);
+            return;
+        }
+
+        MethodAccessor write = MinecraftMethods.getPacketWriteByteBufMethod();
+        FieldAccessor[] fields = PAYLOAD_PACKET_FIELDS.get(handle.getClass());
+        if (fields.length == 0) {
+            write.invoke1(handle, serializer);
+            return;
+        }
+
+        // writing reads the payload buffers of the packet (custom payloads for example). The packet might be written
+        // by the vanilla encoder at the same time, so we write a shallow copy holding duplicates of the buffers
+        // instead, which share the contents but not the indices. The packet itself is never modified
+        Object copy = StructureCache.newPacket(handle.getClass());
+        for (FieldAccessor field : fields) {
+            Object value = field.get(handle);
+            if (value instanceof ByteBuf) {
+                value = duplicatePayload(field, (ByteBuf) value);
+            }
+            field.set(copy, value);
+        }
+
+        write.invoke1(copy, serializer);
+    }
+
+    private static Object duplicatePayload(FieldAccessor field, ByteBuf payload) {
+        ByteBuf duplicate = payload.duplicate();
+        if (field.getField().getType().isInstance(duplicate)) {
+            return duplicate;
+        }
+
+        // the field holds a packet data serializer, which has to wrap the duplicate
+        return MinecraftReflection.getPacketDataSerializer(duplicate);
+    }
+
     public static void writeVarInt(ByteBuf output, int value) {
         while (true) {
             if ((value & ~0x7F) == 0) {
@@ -15,6 +15,7 @@ import com.comphenix.protocol.reflect.fuzzy.FuzzyFieldContract;
 import com.comphenix.protocol.utility.MinecraftReflection;
 
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.util.AttributeKey;
 
 @SuppressWarnings("unchecked")
@@ -80,6 +81,28 @@ final class ChannelProtocolUtil {
         PROTOCOL_RESOLVER = baseResolver;
     }
 
+    /**
+     * Finds the pipeline context of the codec handler which holds the protocol state of the given direction. The
+     * context gets removed from the pipeline once the codec is replaced during a protocol switch, which allows callers
+     * to cache the resolved protocol until {@link ChannelHandlerContext#isRemoved()} returns true.
+     *
+     * @param channel the channel to find the codec context in.
+     * @param sender  the side for which the codec context should be resolved.
+     * @return the codec context, or null if the protocol state is not bound to a codec handler on this version.
+     */
+    static ChannelHandlerContext findCodecContext(final Channel channel, final PacketType.Sender sender) {
+        if (!(PROTOCOL_RESOLVER instanceof Post1_20_5WrappedResolver resolver)) {
+            return null;
+        }
+
+        final ChannelHandlerContext context = channel.pipeline().context(resolver.getKeyForSender(sender));
+        if (context != null) {
+            return context;
+        }
+
+        return channel.pipeline().context(resolver.getUnconfiguratedKeyForSender(sender));
+    }
+
     private static final class Pre1_20_2DirectResolver
             implements BiFunction<Channel, PacketType.Sender, PacketType.Protocol> {
 
@@ -213,7 +236,7 @@ final class ChannelProtocolUtil {
             // get ProtocolInfo from handler and get EnumProtocol of ProtocolInfo
             return handler -> {
                 final Object protocolInfo = protocolInfoAccessor.get(handler);
-                return protocolAccessor.invoke(protocolInfo);
+                return protocolAccessor.invoke0(protocolInfo);
             };
         }
     }
@@ -0,0 +1,78 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.channel.Channel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+
+/**
+ * Stops and resumes reading from a channel on behalf of independent back pressure mechanisms, such as the main thread
+ * packet queue and the inbound rate limits. Every pause is counted per channel, and reading is only resumed once every
+ * pause was released again, so one mechanism can't resume a channel another one still wants paused.
+ */
+final class ChannelReadPause {
+
+    private static final AttributeKey<AtomicInteger> PAUSES = AttributeKey.valueOf("ProtocolLib-read-pauses");
+
+    private ChannelReadPause() {
+        // static utility
+    }
+
+    /**
+     * Stop reading from the given channel until the pause is released.
+     *
+     * @param channel - the channel.
+     */
+    static void pause(Channel channel) {
+        getPauses(channel).incrementAndGet();
+        updateAutoRead(channel);
+    }
+
+    /**
+     * Release a pause of the given channel, reading is resumed if no other pause is left.
+     *
+     * @param channel - the channel.
+     */
+    static void resume(Channel channel) {
+        getPauses(channel).updateAndGet(pauses -> Math.max(0, pauses - 1));
+        updateAutoRead(channel);
+    }
+
+    /**
+     * Check if reading from the given channel is paused.
+     *
+     * @param channel - the channel.
+     * @return TRUE if at least one pause is held, FALSE otherwise.
+     */
+    static boolean isPaused(Channel channel) {
+        return getPauses(channel).get() > 0;
+    }
+
+    private static AtomicInteger getPauses(Channel channel) {
+        Attribute<AtomicInteger> attribute = channel.attr(PAUSES);
+        AtomicInteger pauses = attribute.get();
+        if (pauses == null) {
+            AtomicInteger created = new AtomicInteger();
+            pauses = attribute.setIfAbsent(created);
+            if (pauses == null) {
+                pauses = created;
+            }
+        }
+        return pauses;
+    }
+
+    private static void updateAutoRead(Channel channel) {
+        if (!channel.isOpen()) {
+            return;
+        }
+
+        // pauses are taken and released from different threads, applying the current count on the event loop ensures
+        // that the last update wins instead of whichever thread happened to call setAutoRead last
+        if (channel.eventLoop().inEventLoop()) {
+            channel.config().setAutoRead(getPauses(channel).get() == 0);
+        } else {
+            channel.eventLoop().execute(() -> channel.config().setAutoRead(getPauses(channel).get() == 0));
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.comphenix.protocol.injector.netty.channel;
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.PacketType.Protocol;
 import com.comphenix.protocol.events.NetworkMarker;
+import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.injector.netty.Injector;
+import java.util.List;
 import org.bukkit.entity.Player;
 
 final class EmptyInjector implements Injector {
@@ -38,6 +40,10 @@ final class EmptyInjector implements Injector {
     public void sendServerPacket(Object packet, NetworkMarker marker, boolean filtered) {
     }
 
+    @Override
+    public void sendServerPackets(List<Object> packets, List<PacketEvent> postEvents) {
+    }
+
     @Override
     public void receiveClientPacket(Object packet) {
     }
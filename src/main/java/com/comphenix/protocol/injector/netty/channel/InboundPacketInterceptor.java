@@ -1,18 +1,35 @@
 package com.comphenix.protocol.injector.netty.channel;
 
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
 import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLogger;
 import com.comphenix.protocol.injector.netty.ChannelListener;
 import com.comphenix.protocol.injector.packet.PacketRegistry;
+import com.comphenix.protocol.timing.PacketFlowProfiler;
+import com.comphenix.protocol.timing.PacketFlowStage;
+import com.comphenix.protocol.timing.PacketFlowTrace;
 import com.comphenix.protocol.utility.MinecraftReflection;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.ReferenceCountUtil;
 
 final class InboundPacketInterceptor extends ChannelInboundHandlerAdapter {
 
+	// packets decoded from bytes which were already read when the channel was paused still arrive, a client which
+	// exceeds this while being delayed is flooding us
+	static final int MAX_DELAYED_PACKETS = 512;
+
 	private final NettyChannelInjector injector;
 	private final ChannelListener channelListener;
 
+	// rate limiting state, only accessed from the event loop
+	private InboundRateLimits rateLimits = InboundRateLimits.DISABLED;
+	private long[] rateLimitState = InboundRateLimits.DISABLED.newState();
+	private ArrayDeque<DelayedPacket> delayedPackets;
+
 	public InboundPacketInterceptor(NettyChannelInjector injector, ChannelListener listener) {
 		this.injector = injector;
 		this.channelListener = listener;
@@ -26,27 +43,154 @@ final class InboundPacketInterceptor extends ChannelInboundHandlerAdapter {
 			// packet is not a login packet
 			this.injector.tryProcessLogin(msg);
 
+			PacketFlowTrace trace = PacketFlowProfiler.current();
+			if (trace != null) {
+				trace.lap(PacketFlowStage.DECODE);
+			}
+
 			PacketType.Protocol protocol = this.injector.getInboundProtocol();
 			PacketType packetType = PacketRegistry.getPacketType(protocol, msg.getClass());
-			
+			if (trace != null) {
+				trace.setPacketType(packetType);
+				trace.lap(PacketFlowStage.PROTOCOL_LOOKUP);
+			}
+
 			// TODO: ignore packet or throw error?
 			if (packetType == null) {
 				ctx.fireChannelRead(msg);
 				return;
 			}
 
-			// check if there are any listeners bound for the packet - if not just post the
-			// packet down the pipeline
-			if (!this.channelListener.hasInboundListener(packetType)) {
-				ctx.fireChannelRead(msg);
+			this.injector.getTrafficMeter().recordInbound(packetType);
+
+			// packets which were read after a delayed packet have to wait for it to keep the order
+			if (this.delayedPackets != null) {
+				this.delayPacket(ctx, msg, packetType);
+				return;
+			}
+
+			long wait = this.acquireRateLimit(packetType);
+			if (wait > 0) {
+				this.handleRateLimited(ctx, msg, packetType, wait);
 				return;
 			}
 
-			// call all inbound listeners
-			this.injector.processInboundPacket(ctx, msg, packetType);
+			this.dispatch(ctx, msg, packetType);
 		} else {
 			// just pass the message down the pipeline
 			ctx.fireChannelRead(msg);
 		}
 	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		// nobody will read the delayed packets anymore
+		this.releaseDelayed(ctx);
+		super.channelInactive(ctx);
+	}
+
+	private void delayPacket(ChannelHandlerContext ctx, Object msg, PacketType packetType) {
+		if (this.delayedPackets.size() >= MAX_DELAYED_PACKETS) {
+			ReferenceCountUtil.release(msg);
+			ProtocolLogger.debug("closing connection of {0}, too many packets delayed by the rate limit", ctx.channel().remoteAddress());
+
+			this.releaseDelayed(ctx);
+			ctx.channel().close();
+			return;
+		}
+
+		this.delayedPackets.add(new DelayedPacket(msg, packetType));
+	}
+
+	private void releaseDelayed(ChannelHandlerContext ctx) {
+		if (this.delayedPackets != null) {
+			for (DelayedPacket delayed : this.delayedPackets) {
+				ReferenceCountUtil.release(delayed.packet);
+			}
+			this.delayedPackets = null;
+			ChannelReadPause.resume(ctx.channel());
+		}
+	}
+
+	private void dispatch(ChannelHandlerContext ctx, Object msg, PacketType packetType) {
+		// check if there are any listeners bound for the packet - if not just post the
+		// packet down the pipeline
+		if (!this.channelListener.hasInboundListener(packetType)) {
+			ctx.fireChannelRead(msg);
+			return;
+		}
+
+		// call all inbound listeners
+		this.injector.processInboundPacket(ctx, msg, packetType);
+	}
+
+	private long acquireRateLimit(PacketType packetType) {
+		InboundRateLimits limits = this.injector.getInboundRateLimits();
+		if (limits.isEmpty()) {
+			return 0;
+		}
+
+		// the limits were reloaded, start over with full buckets
+		if (limits != this.rateLimits) {
+			this.rateLimits = limits;
+			this.rateLimitState = limits.newState();
+		}
+
+		return limits.acquire(this.rateLimitState, packetType, System.nanoTime());
+	}
+
+	private void handleRateLimited(ChannelHandlerContext ctx, Object msg, PacketType packetType, long wait) {
+		switch (this.rateLimits.getAction()) {
+			case DROP -> ReferenceCountUtil.release(msg);
+			case DISCONNECT -> {
+				ReferenceCountUtil.release(msg);
+				ProtocolLogger.debug("closing connection of {0}, exceeded rate limit of {1}", ctx.channel().remoteAddress(), packetType);
+				ctx.channel().close();
+			}
+			case DELAY -> {
+				// stop reading until the delayed packets were processed
+				this.delayedPackets = new ArrayDeque<>();
+				this.delayedPackets.add(new DelayedPacket(msg, packetType));
+				ChannelReadPause.pause(ctx.channel());
+				ctx.executor().schedule(() -> this.processDelayed(ctx), wait, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+
+	private void processDelayed(ChannelHandlerContext ctx) {
+		if (this.delayedPackets == null) {
+			return;
+		}
+
+		DelayedPacket delayed;
+		while ((delayed = this.delayedPackets.peek()) != null) {
+			long wait = this.acquireRateLimit(delayed.packetType);
+			if (wait > 0) {
+				ctx.executor().schedule(() -> this.processDelayed(ctx), wait, TimeUnit.NANOSECONDS);
+				return;
+			}
+
+			this.delayedPackets.poll();
+			this.dispatch(ctx, delayed.packet, delayed.packetType);
+
+			// the channel might have been closed by a handler further down the pipeline
+			if (this.delayedPackets == null) {
+				return;
+			}
+		}
+
+		this.delayedPackets = null;
+		ChannelReadPause.resume(ctx.channel());
+	}
+
+	private static final class DelayedPacket {
+
+		private final Object packet;
+		private final PacketType packetType;
+
+		public DelayedPacket(Object packet, PacketType packetType) {
+			this.packet = packet;
+			this.packetType = packetType;
+		}
+	}
 }
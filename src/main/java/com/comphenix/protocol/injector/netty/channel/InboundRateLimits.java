@@ -0,0 +1,135 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.comphenix.protocol.PacketType;
+
+/**
+ * The limits of packets a single player may send per packet type, which are enforced before any packet listener is
+ * called.
+ * <p>
+ * Each limit is a token bucket holding one second worth of packets. The state of the buckets is kept by every channel
+ * in a plain long array (see {@link #newState()}), which stores the time at which the next packet would have been
+ * expected if the player sent packets at exactly the allowed rate.
+ */
+public final class InboundRateLimits {
+
+    /**
+     * Limits which don't limit anything.
+     */
+    public static final InboundRateLimits DISABLED = new InboundRateLimits(Action.DROP, Collections.emptyMap());
+
+    /**
+     * What to do with packets exceeding their limit.
+     */
+    public enum Action {
+        /**
+         * Discard the packet.
+         */
+        DROP,
+
+        /**
+         * Stop reading from the player and process the packet once it is within the limit again.
+         */
+        DELAY,
+
+        /**
+         * Discard the packet and close the connection of the player.
+         */
+        DISCONNECT
+    }
+
+    private final Action action;
+    private final Map<PacketType, Limit> limits;
+
+    /**
+     * Construct new inbound rate limits.
+     *
+     * @param action           - what to do with packets exceeding their limit.
+     * @param packetsPerSecond - the amount of packets allowed per second, per packet type.
+     */
+    public InboundRateLimits(Action action, Map<PacketType, Integer> packetsPerSecond) {
+        this.action = action;
+        this.limits = new HashMap<>();
+
+        for (Map.Entry<PacketType, Integer> entry : packetsPerSecond.entrySet()) {
+            int rate = entry.getValue();
+            if (rate <= 0) {
+                throw new IllegalArgumentException("Rate of " + entry.getKey() + " must be positive, got " + rate);
+            }
+
+            long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+            this.limits.put(entry.getKey(), new Limit(this.limits.size(), interval, (rate - 1) * interval));
+        }
+    }
+
+    /**
+     * Retrieve what to do with packets exceeding their limit.
+     *
+     * @return the action.
+     */
+    public Action getAction() {
+        return this.action;
+    }
+
+    /**
+     * Determine if no packet type is limited.
+     *
+     * @return TRUE if nothing is limited, FALSE otherwise.
+     */
+    public boolean isEmpty() {
+        return this.limits.isEmpty();
+    }
+
+    /**
+     * Create the initial state of the buckets of a channel, all buckets are full.
+     *
+     * @return the new state.
+     */
+    long[] newState() {
+        long[] state = new long[this.limits.size()];
+        Arrays.fill(state, Long.MIN_VALUE);
+        return state;
+    }
+
+    /**
+     * Attempt to take a token for the given packet type from the buckets of a channel.
+     *
+     * @param state - the state of the channel, created by {@link #newState()}.
+     * @param type  - the type of the received packet.
+     * @param now   - the current value of {@link System#nanoTime()}.
+     * @return 0 if the packet is within its limit, otherwise the nanoseconds until it would be.
+     */
+    long acquire(long[] state, PacketType type, long now) {
+        Limit limit = this.limits.get(type);
+        if (limit == null) {
+            return 0;
+        }
+
+        long expected = Math.max(state[limit.index], now);
+        long wait = expected - now - limit.tolerance;
+        if (wait > 0) {
+            return wait;
+        }
+
+        state[limit.index] = expected + limit.interval;
+        return 0;
+    }
+
+    private static final class Limit {
+
+        private final int index;
+        private final long interval;
+        private final long tolerance;
+
+        public Limit(int index, long interval, long tolerance) {
+            this.index = index;
+            this.interval = interval;
+            this.tolerance = tolerance;
+        }
+    }
+}
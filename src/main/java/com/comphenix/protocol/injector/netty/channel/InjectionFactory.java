@@ -49,6 +49,8 @@ public class InjectionFactory {
 
     // protocol lib stuff
     private final ErrorReporter errorReporter;
+    private final MainThreadPacketQueue mainThreadQueue;
+    private volatile InboundRateLimits inboundRateLimits = InboundRateLimits.DISABLED;
 
     // state of the factory
     private boolean closed;
@@ -57,6 +59,7 @@ public class InjectionFactory {
         this.plugin = plugin;
         this.server = server;
         this.errorReporter = errorReporter;
+        this.mainThreadQueue = new MainThreadPacketQueue(errorReporter);
     }
 
     /**
@@ -68,6 +71,33 @@ public class InjectionFactory {
         return this.plugin;
     }
 
+    /**
+     * Retrieve the queue which processes packets on the main thread for all injectors of this factory.
+     *
+     * @return The main thread queue.
+     */
+    public MainThreadPacketQueue getMainThreadQueue() {
+        return this.mainThreadQueue;
+    }
+
+    /**
+     * Retrieve the limits of packets players may send, which are enforced by all injectors of this factory.
+     *
+     * @return The inbound rate limits.
+     */
+    public InboundRateLimits getInboundRateLimits() {
+        return this.inboundRateLimits;
+    }
+
+    /**
+     * Set the limits of packets players may send, which are enforced by all injectors of this factory.
+     *
+     * @param inboundRateLimits - the new inbound rate limits.
+     */
+    public void setInboundRateLimits(InboundRateLimits inboundRateLimits) {
+        this.inboundRateLimits = inboundRateLimits;
+    }
+
     /**
      * Construct or retrieve a channel injector from an existing Bukkit player.
      *
@@ -286,6 +316,8 @@ public class InjectionFactory {
             for (Injector injector : this.nameLookup.values()) {
                 injector.close();
             }
+
+            this.mainThreadQueue.close();
         }
     }
 }
@@ -0,0 +1,195 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.error.ErrorReporter;
+import com.comphenix.protocol.error.Report;
+import com.comphenix.protocol.error.ReportType;
+import com.comphenix.protocol.metrics.PacketMetrics;
+import com.comphenix.protocol.scheduler.Task;
+
+import io.netty.channel.Channel;
+
+/**
+ * Collects the packets which need to be processed on the main thread because of a main thread listener, and processes
+ * them in batches from a single repeating task instead of scheduling one task per packet.
+ * <p>
+ * At most {@link #getTickBudget()} packets are processed per tick, the remaining packets stay queued for the next
+ * tick. Once more than {@link #getBacklogLimit()} packets are queued, channels which queue further packets stop reading
+ * from the network until the backlog dropped below half of the limit.
+ */
+public class MainThreadPacketQueue {
+
+    public static final int DEFAULT_TICK_BUDGET = 2000;
+    public static final int DEFAULT_BACKLOG_LIMIT = 10000;
+
+    private static final String SIZE_GAUGE = "protocollib_main_thread_queue";
+
+    private static final ReportType REPORT_CANNOT_SCHEDULE_DRAIN = new ReportType("Unable to schedule the main thread packet task");
+
+    // many event loops enqueue, only the main thread polls
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // channels which we've stopped reading from and need to re-enable once the backlog is gone
+    private final Set<Channel> pausedChannels = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final ErrorReporter errorReporter;
+
+    private volatile int tickBudget = DEFAULT_TICK_BUDGET;
+    private volatile int backlogLimit = DEFAULT_BACKLOG_LIMIT;
+
+    private volatile Task drainTask;
+    private volatile boolean closed;
+
+    public MainThreadPacketQueue(ErrorReporter errorReporter) {
+        this.errorReporter = errorReporter;
+        PacketMetrics.registerGauge(SIZE_GAUGE, "Packets waiting to be processed on the main thread.", this::size);
+    }
+
+    /**
+     * Queues the processing of a packet on the main thread.
+     *
+     * @param channel - the channel the packet belongs to.
+     * @param task    - the processing to execute on the main thread.
+     */
+    public void enqueue(Channel channel, Runnable task) {
+        if (this.closed) {
+            return;
+        }
+
+        this.ensureStarted();
+        this.queue.offer(task);
+        PacketMetrics.recordMainThreadReschedule();
+
+        // stop reading from the channel if the main thread can't keep up, the channel is re-enabled when draining
+        if (this.size.incrementAndGet() > this.backlogLimit && this.pausedChannels.add(channel)) {
+            ChannelReadPause.pause(channel);
+        }
+    }
+
+    private void ensureStarted() {
+        if (!this.started.get() && this.started.compareAndSet(false, true)) {
+            try {
+                this.drainTask = ProtocolLibrary.getScheduler().scheduleSyncRepeatingTask(this::drain, 1, 1);
+            } catch (RuntimeException exception) {
+                this.started.set(false);
+                this.errorReporter.reportWarning(this, Report.newBuilder(REPORT_CANNOT_SCHEDULE_DRAIN).error(exception));
+            }
+        }
+    }
+
+    /**
+     * Processes up to {@link #getTickBudget()} queued packets. Must be called on the main thread.
+     */
+    void drain() {
+        int budget = this.tickBudget;
+        for (int processed = 0; processed < budget; processed++) {
+            Runnable task = this.queue.poll();
+            if (task == null) {
+                break;
+            }
+
+            this.size.decrementAndGet();
+            try {
+                task.run();
+            } catch (Exception exception) {
+                this.errorReporter.reportMinimal(ProtocolLibrary.getPlugin(), "drain", exception);
+            }
+        }
+
+        // resume reading once we've caught up with the backlog
+        if (!this.pausedChannels.isEmpty() && this.size.get() <= this.backlogLimit / 2) {
+            this.resumeChannels();
+        }
+    }
+
+    private void resumeChannels() {
+        for (Channel channel : this.pausedChannels) {
+            // other pauses of the channel, like the inbound rate limits, keep it paused
+            if (this.pausedChannels.remove(channel)) {
+                ChannelReadPause.resume(channel);
+            }
+        }
+    }
+
+    /**
+     * Retrieve the amount of packets which are currently waiting to be processed.
+     *
+     * @return the amount of queued packets.
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Retrieve the maximum amount of packets processed per tick.
+     *
+     * @return the tick budget.
+     */
+    public int getTickBudget() {
+        return this.tickBudget;
+    }
+
+    /**
+     * Set the maximum amount of packets processed per tick.
+     *
+     * @param tickBudget - the new tick budget, must be positive.
+     */
+    public void setTickBudget(int tickBudget) {
+        if (tickBudget <= 0) {
+            throw new IllegalArgumentException("tickBudget must be positive");
+        }
+
+        this.tickBudget = tickBudget;
+    }
+
+    /**
+     * Retrieve the amount of queued packets after which channels stop reading from the network.
+     *
+     * @return the backlog limit.
+     */
+    public int getBacklogLimit() {
+        return this.backlogLimit;
+    }
+
+    /**
+     * Set the amount of queued packets after which channels stop reading from the network.
+     *
+     * @param backlogLimit - the new backlog limit, must be positive.
+     */
+    public void setBacklogLimit(int backlogLimit) {
+        if (backlogLimit <= 0) {
+            throw new IllegalArgumentException("backlogLimit must be positive");
+        }
+
+        this.backlogLimit = backlogLimit;
+    }
+
+    /**
+     * Stops the drain task, drops all queued packets and resumes reading of all paused channels.
+     */
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            PacketMetrics.unregisterGauge(SIZE_GAUGE);
+
+            Task task = this.drainTask;
+            if (task != null) {
+                task.cancel();
+                this.drainTask = null;
+            }
+
+            this.queue.clear();
+            this.size.set(0);
+            this.resumeChannels();
+        }
+    }
+}
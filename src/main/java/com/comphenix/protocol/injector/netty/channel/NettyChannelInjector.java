@@ -2,13 +2,14 @@ package com.comphenix.protocol.injector.netty.channel;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 import org.bukkit.Server;
@@ -16,7 +17,6 @@ import org.bukkit.entity.Player;
 
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.PacketType.Protocol;
-import com.comphenix.protocol.ProtocolLibrary;
 import com.comphenix.protocol.error.ErrorReporter;
 import com.comphenix.protocol.error.Report;
 import com.comphenix.protocol.error.ReportType;
@@ -27,10 +27,15 @@ import com.comphenix.protocol.injector.NetworkProcessor;
 import com.comphenix.protocol.injector.netty.ChannelListener;
 import com.comphenix.protocol.injector.netty.Injector;
 import com.comphenix.protocol.injector.packet.PacketRegistry;
+import com.comphenix.protocol.metrics.PacketTraffic;
 import com.comphenix.protocol.reflect.FuzzyReflection;
 import com.comphenix.protocol.reflect.accessors.Accessors;
 import com.comphenix.protocol.reflect.accessors.FieldAccessor;
+import com.comphenix.protocol.reflect.accessors.MethodAccessor;
 import com.comphenix.protocol.reflect.fuzzy.FuzzyFieldContract;
+import com.comphenix.protocol.timing.PacketFlowProfiler;
+import com.comphenix.protocol.timing.PacketFlowStage;
+import com.comphenix.protocol.timing.PacketFlowTrace;
 import com.comphenix.protocol.utility.ByteBuddyGenerated;
 import com.comphenix.protocol.utility.MinecraftFields;
 import com.comphenix.protocol.utility.MinecraftMethods;
@@ -38,6 +43,7 @@ import com.comphenix.protocol.utility.MinecraftProtocolVersion;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.utility.MinecraftVersion;
 import com.comphenix.protocol.wrappers.WrappedGameProfile;
+import com.google.common.collect.MapMaker;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
@@ -68,10 +74,15 @@ public class NettyChannelInjector implements Injector {
     private static final String INTERCEPTOR_NAME = "protocol_lib_inbound_interceptor";
     private static final String PROTOCOL_READER_NAME = "protocol_lib_protocol_reader";
     private static final String WIRE_PACKET_ENCODER_NAME = "protocol_lib_wire_packet_encoder";
+    private static final String INBOUND_FRAME_METER_NAME = "protocol_lib_inbound_frame_meter";
+    private static final String OUTBOUND_PACKET_METER_NAME = "protocol_lib_outbound_packet_meter";
+    private static final String OUTBOUND_FRAME_METER_NAME = "protocol_lib_outbound_frame_meter";
+    private static final String OUTBOUND_WIRE_METER_NAME = "protocol_lib_outbound_wire_meter";
 
     // all registered channel handlers to easier make sure we unregister them all from the pipeline
     private static final String[] PROTOCOL_LIB_HANDLERS = new String[]{
-            WIRE_PACKET_ENCODER_NAME, INTERCEPTOR_NAME, PROTOCOL_READER_NAME
+            WIRE_PACKET_ENCODER_NAME, INTERCEPTOR_NAME, PROTOCOL_READER_NAME,
+            INBOUND_FRAME_METER_NAME, OUTBOUND_PACKET_METER_NAME, OUTBOUND_FRAME_METER_NAME, OUTBOUND_WIRE_METER_NAME
     };
 
     private static final ReportType REPORT_CANNOT_SEND_PACKET = new ReportType("Unable to send packet %s to %s");
@@ -104,11 +115,15 @@ public class NettyChannelInjector implements Injector {
 
     private final FieldAccessor channelField;
 
-    // packet marking
-    private final Map<Object, NetworkMarker> savedMarkers = new WeakHashMap<>(16, 0.9f);
-    private final Set<Object> skippedPackets = ConcurrentHashMap.newKeySet();
+    // packet marking - weak keys are compared by identity, so packets are never hashed by their content and a
+    // packet which gets dropped before reaching processOutbound is collected together with its tag
+    private final ConcurrentMap<Object, PacketTag> packetTags = new MapMaker().weakKeys().makeMap();
     protected final ThreadLocal<Boolean> processedPackets = ThreadLocal.withInitial(() -> Boolean.FALSE);
 
+    // cached protocol states, refreshed once the codec handler holding the state is replaced
+    private volatile ProtocolState inboundProtocolState;
+    private volatile ProtocolState outboundProtocolState;
+
     // status of this injector
     private volatile boolean closed = false;
     private volatile boolean injected = false;
@@ -121,6 +136,7 @@ public class NettyChannelInjector implements Injector {
     private Object playerConnection;
     
     private InboundProtocolReader inboundProtocolReader;
+    private final PacketTrafficMeter trafficMeter = new PacketTrafficMeter(this);
 
     public NettyChannelInjector(
             Player player,
@@ -238,6 +254,14 @@ public class NettyChannelInjector implements Injector {
                     INTERCEPTOR_NAME,
                     new InboundPacketInterceptor(this, this.channelListener));
 
+            // the meters surround the minecraft codec to see both the packet type and the frame size
+            pipeline.addBefore("decoder", INBOUND_FRAME_METER_NAME, this.trafficMeter.getInboundFrames());
+            pipeline.addAfter(encoderName, OUTBOUND_PACKET_METER_NAME, this.trafficMeter.getOutboundPackets());
+            pipeline.addBefore(encoderName, OUTBOUND_FRAME_METER_NAME, this.trafficMeter.getOutboundFrames());
+            if (pipeline.get("prepender") != null) {
+                pipeline.addBefore("prepender", OUTBOUND_WIRE_METER_NAME, this.trafficMeter.getOutboundWire());
+            }
+
             this.injected = true;
             return true;
         } else {
@@ -282,8 +306,9 @@ public class NettyChannelInjector implements Injector {
             this.uninject();
 
             // cleanup
-            this.savedMarkers.clear();
-            this.skippedPackets.clear();
+            this.packetTags.clear();
+            this.inboundProtocolState = null;
+            this.outboundProtocolState = null;
 
             // wipe this injector completely
             this.injectionFactory.invalidate(this.getPlayer(), this.playerName);
@@ -297,21 +322,17 @@ public class NettyChannelInjector implements Injector {
             return;
         }
 
-        // register the packet as filtered if we shouldn't post it to any listener
-        if (!filtered) {
-            this.skippedPackets.add(packet);
-        }
-
-        // save the given packet marker and send the packet
-        this.saveMarker(packet, marker);
+        // register the packet as filtered if we shouldn't post it to any listener, save the given packet marker
+        // and send the packet
+        this.tagPacket(packet, marker, !filtered);
         try {
             if (this.resolvedPlayer instanceof ByteBuddyGenerated) {
-                MinecraftMethods.getNetworkManagerHandleMethod().invoke(this.networkManager, packet);
+                MinecraftMethods.getNetworkManagerHandleMethod().invoke1(this.networkManager, packet);
             } else {
                 // ensure that the player is properly connected before sending
                 Object playerConnection = this.getPlayerConnection();
                 if (playerConnection != null) {
-                    MinecraftMethods.getSendPacketMethod().invoke(playerConnection, packet);
+                    MinecraftMethods.getSendPacketMethod().invoke1(playerConnection, packet);
                 }
             }
         } catch (Exception exception) {
@@ -322,6 +343,44 @@ public class NettyChannelInjector implements Injector {
         }
     }
 
+    @Override
+    public void sendServerPackets(List<Object> packets, List<PacketEvent> postEvents) {
+        // do not send the packets if this injector was already closed / is not injected yet
+        if (this.closed || !this.injected) {
+            return;
+        }
+
+        // all listeners were already called at this point, the packets are only tagged so that the post events of
+        // their markers are invoked once the packet was written, just like for a single packet
+        for (Object packet : packets) {
+            this.tagPacket(packet, null, null, true);
+        }
+        for (PacketEvent event : postEvents) {
+            this.tagPacket(event.getPacket().getHandle(), NetworkMarker.getNetworkMarker(event), event, true);
+        }
+
+        // send through the network manager in order, which queues the packets during a protocol switch, but only
+        // flush the channel once all packets were written
+        this.ensureInEventLoop(() -> {
+            Optional<MethodAccessor> send = MinecraftMethods.getNetworkManagerSendMethod();
+            for (Object packet : packets) {
+                try {
+                    if (send.isPresent()) {
+                        send.get().invoke3(this.networkManager, packet, null, false);
+                    } else {
+                        MinecraftMethods.getNetworkManagerHandleMethod().invoke1(this.networkManager, packet);
+                    }
+                } catch (Exception exception) {
+                    this.errorReporter.reportWarning(this, Report.newBuilder(REPORT_CANNOT_SEND_PACKET)
+                            .messageParam(packet, this.playerName)
+                            .error(exception)
+                            .build());
+                }
+            }
+            this.wrappedChannel.flush();
+        });
+    }
+
     @Override
     public void receiveClientPacket(Object packet) {
         // do not do that if we're not injected or this injector was closed
@@ -332,7 +391,7 @@ public class NettyChannelInjector implements Injector {
         Runnable receiveAction = () -> {
             try {
                 // try to invoke the method, this should normally not fail
-                MinecraftMethods.getNetworkManagerReadPacketMethod().invoke(this.networkManager, null, packet);
+                MinecraftMethods.getNetworkManagerReadPacketMethod().invoke2(this.networkManager, null, packet);
             } catch (Exception exception) {
                 // 99% the user gave wrong information to the server
                 this.errorReporter.reportMinimal(this.injectionFactory.getPlugin(), "receiveClientPacket", exception);
@@ -356,18 +415,47 @@ public class NettyChannelInjector implements Injector {
 
     @Override
     public Protocol getCurrentProtocol(PacketType.Sender sender) {
-        return ChannelProtocolUtil.PROTOCOL_RESOLVER.apply(this.wrappedChannel, sender);
+        ProtocolState state = sender == PacketType.Sender.SERVER ? this.outboundProtocolState : this.inboundProtocolState;
+        if (state != null && !state.codecContext.isRemoved()) {
+            return state.protocol;
+        }
+
+        // resolve the codec context before the protocol, if the codec gets replaced in between the context
+        // is marked as removed and the state gets refreshed on the next call
+        ChannelHandlerContext codecContext = ChannelProtocolUtil.findCodecContext(this.wrappedChannel, sender);
+        Protocol protocol = ChannelProtocolUtil.PROTOCOL_RESOLVER.apply(this.wrappedChannel, sender);
+
+        // the protocol state is not bound to a codec handler (either pre 1.20.5 or no codec is present yet)
+        if (codecContext == null) {
+            return protocol;
+        }
+
+        if (sender == PacketType.Sender.SERVER) {
+            this.outboundProtocolState = new ProtocolState(codecContext, protocol);
+        } else {
+            this.inboundProtocolState = new ProtocolState(codecContext, protocol);
+        }
+        return protocol;
     }
 
     @Override
     public NetworkMarker getMarker(Object packet) {
-        return this.savedMarkers.get(packet);
+        PacketTag tag = this.packetTags.get(packet);
+        return tag == null ? null : tag.marker;
     }
 
     @Override
     public void saveMarker(Object packet, NetworkMarker marker) {
-        if (marker != null && !this.closed) {
-            this.savedMarkers.put(packet, marker);
+        this.tagPacket(packet, marker, false);
+    }
+
+    private void tagPacket(Object packet, NetworkMarker marker, boolean skipped) {
+        this.tagPacket(packet, marker, null, skipped);
+    }
+
+    private void tagPacket(Object packet, NetworkMarker marker, PacketEvent event, boolean skipped) {
+        if ((marker != null || skipped) && !this.closed) {
+            this.packetTags.merge(packet, new PacketTag(marker, event, skipped), PacketTag::merge);
         }
     }
 
@@ -515,13 +603,19 @@ public class NettyChannelInjector implements Injector {
     void processInboundPacket(ChannelHandlerContext ctx, Object packet, PacketType packetType) {
         if (this.channelListener.hasMainThreadListener(packetType) && !this.server.isPrimaryThread()) {
             // not on the main thread but we are required to be - re-schedule the packet on the main thread
-            ProtocolLibrary.getScheduler().runTask(
+            this.injectionFactory.getMainThreadQueue().enqueue(
+                    this.wrappedChannel,
                     () -> this.processInboundPacket(ctx, packet, packetType));
             return;
         }
 
         // call packet handlers, a null result indicates that we shouldn't change anything
         PacketContainer packetContainer = new PacketContainer(packetType, packet);
+        PacketFlowTrace trace = PacketFlowProfiler.current();
+        if (trace != null) {
+            trace.lap(PacketFlowStage.CONTAINER);
+        }
+
         PacketEvent interceptionResult = this.channelListener.onPacketReceiving(this, packetContainer, null);
         if (interceptionResult == null) {
             this.ensureInEventLoop(ctx.channel().eventLoop(), () -> ctx.fireChannelRead(packet));
@@ -543,7 +637,43 @@ public class NettyChannelInjector implements Injector {
         }
     }
 
+    PacketTrafficMeter getTrafficMeter() {
+        return this.trafficMeter;
+    }
+
+    /**
+     * Retrieve the traffic sent to this channel by packet type.
+     *
+     * @return the traffic of every packet type that was sent at least once.
+     */
+    public Map<PacketType, PacketTraffic> getOutboundTraffic() {
+        return this.trafficMeter.getOutboundTraffic();
+    }
+
+    InboundRateLimits getInboundRateLimits() {
+        return this.injectionFactory.getInboundRateLimits();
+    }
+
+    boolean hasOutboundInterest() {
+        // pre-checking the packet tags for emptiness avoids hashing any packet here
+        return this.channelListener.hasOutboundListeners() || !this.packetTags.isEmpty();
+    }
+
     <T> T processOutbound(T action) {
+        // nothing can be interested in the packet, don't even look it up
+        if (!this.hasOutboundInterest()) {
+            return action;
+        }
+
+        PacketFlowTrace trace = PacketFlowProfiler.begin();
+        try {
+            return this.interceptOutbound(action, trace);
+        } finally {
+            PacketFlowProfiler.end();
+        }
+    }
+
+    private <T> T interceptOutbound(T action, PacketFlowTrace trace) {
         // get the accessor to the packet field
         // if we are unable to look up the accessor then just return the runnable, probably nothing of our business
         FieldAccessor packetAccessor = this.lookupPacketAccessor(action);
@@ -558,14 +688,14 @@ public class NettyChannelInjector implements Injector {
         }
 
         // filter out all packets which were explicitly send to not be processed by any event
-        // pre-checking isEmpty will reduce the need of hashing packets which don't override the
-        // hashCode method; this presents calls to the very slow identityHashCode default implementation
-        NetworkMarker marker = this.savedMarkers.isEmpty() ? null : this.savedMarkers.remove(packet);
-        if (!this.skippedPackets.isEmpty() && this.skippedPackets.remove(packet)) {
+        // pre-checking isEmpty will reduce the need of computing the identity hash code of packets
+        PacketTag tag = this.packetTags.isEmpty() ? null : this.packetTags.remove(packet);
+        NetworkMarker marker = tag == null ? null : tag.marker;
+        if (tag != null && tag.skipped) {
             // if a marker was set there might be scheduled packets to execute after the packet send
             // for this to work we need to proxy the input action to provide access to them
             if (marker != null) {
-                return this.proxyAction(action, null, marker);
+                return this.proxyAction(action, tag.event, marker);
             }
 
             // nothing special, just no processing
@@ -580,6 +710,11 @@ public class NettyChannelInjector implements Injector {
 			return action;
 		}
 
+        if (trace != null) {
+            trace.setPacketType(packetType);
+            trace.lap(PacketFlowStage.PROTOCOL_LOOKUP);
+        }
+
         // no listener and no marker - no magic :)
         if (!this.channelListener.hasOutboundListener(packetType) && marker == null && !MinecraftReflection.isBundlePacket(packet.getClass())) {
             return action;
@@ -588,7 +723,8 @@ public class NettyChannelInjector implements Injector {
         // ensure that we are on the main thread if we need to
         if (this.channelListener.hasMainThreadListener(packetType) && !this.server.isPrimaryThread()) {
             // not on the main thread but we are required to be - re-schedule the packet on the main thread
-            ProtocolLibrary.getScheduler().runTask(
+            this.injectionFactory.getMainThreadQueue().enqueue(
+                    this.wrappedChannel,
                     () -> this.sendServerPacket(packet, null, true));
             return null;
         }
@@ -596,6 +732,10 @@ public class NettyChannelInjector implements Injector {
         // call all listeners which are listening to the outbound packet, if any
         // null indicates that no listener was affected by the packet, meaning that we can directly send the original packet
         PacketContainer packetContainer = new PacketContainer(packetType, packet);
+        if (trace != null) {
+            trace.lap(PacketFlowStage.CONTAINER);
+        }
+
         PacketEvent event = this.channelListener.onPacketSending(this, packetContainer, marker);
         if (event == null) {
             return action;
@@ -687,4 +827,36 @@ public class NettyChannelInjector implements Injector {
     public Channel getWrappedChannel() {
         return this.wrappedChannel;
     }
+
+    private static final class PacketTag {
+
+        private final NetworkMarker marker;
+        private final PacketEvent event;
+        private final boolean skipped;
+
+        public PacketTag(NetworkMarker marker, PacketEvent event, boolean skipped) {
+            this.marker = marker;
+            this.event = event;
+            this.skipped = skipped;
+        }
+
+        private static PacketTag merge(PacketTag previous, PacketTag next) {
+            // the latest marker wins, but a packet stays skipped once it was marked as such
+            if (next.marker == null) {
+                return new PacketTag(previous.marker, previous.event, previous.skipped || next.skipped);
+            }
+            return new PacketTag(next.marker, next.event, previous.skipped || next.skipped);
+        }
+    }
+
+    private static final class ProtocolState {
+
+        private final ChannelHandlerContext codecContext;
+        private final Protocol protocol;
+
+        public ProtocolState(ChannelHandlerContext codecContext, Protocol protocol) {
+            this.codecContext = codecContext;
+            this.protocol = protocol;
+        }
+    }
 }
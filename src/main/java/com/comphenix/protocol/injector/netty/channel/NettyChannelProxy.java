@@ -253,8 +253,8 @@ final class NettyChannelProxy implements Channel {
                 this.injector.processedPackets.set(Boolean.FALSE);
                 return false;
             } else {
-                // no packet was processed in the current context, we need to process
-                return true;
+                // no packet was processed in the current context, we need to process if anyone is interested
+                return this.injector.hasOutboundInterest();
             }
         } else {
             // not a packet, just ignore
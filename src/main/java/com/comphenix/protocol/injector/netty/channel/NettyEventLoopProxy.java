@@ -38,7 +38,12 @@ abstract class NettyEventLoopProxy implements EventLoop {
         this.injector = injector;
     }
 
-    private Runnable proxyRunnable(Runnable original) {
+    Runnable proxyRunnable(Runnable original) {
+        // no listener, marker or skipped packet - the original task can be scheduled as-is
+        if (!this.injector.hasOutboundInterest()) {
+            return original;
+        }
+
         // execute the proxy and check if we need to do anything
         Runnable proxied = this.doProxyRunnable(original);
         if (proxied != null && proxied == original) {
@@ -53,7 +58,12 @@ abstract class NettyEventLoopProxy implements EventLoop {
         }
     }
 
-    private <T> Callable<T> proxyCallable(Callable<T> original) {
+    <T> Callable<T> proxyCallable(Callable<T> original) {
+        // no listener, marker or skipped packet - the original task can be scheduled as-is
+        if (!this.injector.hasOutboundInterest()) {
+            return original;
+        }
+
         // execute the proxy and check if we need to do anything
         Callable<T> proxied = this.doProxyCallable(original);
         if (proxied != null && proxied == original) {
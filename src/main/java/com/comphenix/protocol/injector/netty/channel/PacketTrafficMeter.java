@@ -0,0 +1,233 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.injector.packet.PacketRegistry;
+import com.comphenix.protocol.metrics.PacketMetrics;
+import com.comphenix.protocol.metrics.PacketTraffic;
+import com.comphenix.protocol.timing.PacketFlowProfiler;
+import com.comphenix.protocol.timing.PacketFlowStage;
+import com.comphenix.protocol.timing.PacketFlowTrace;
+import com.comphenix.protocol.utility.MinecraftReflection;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Counts the packets and bytes of a channel for the {@link PacketMetrics}.
+ * <p>
+ * The packet type is only known on one side of the minecraft codec and the size only on the other, so the meter
+ * consists of a handler on each side which share their state. Depending on the server version the (de)compression
+ * handlers are placed between our handlers and the codec, in that case the compressed frame sizes are counted. A
+ * fourth handler in front of the length prefixer measures the size of outbound packets on the wire.
+ * <p>
+ * Besides feeding the global metrics, the outbound traffic of the channel is counted per packet type. All state is
+ * only written from the event loop of the channel, readers on other threads might see slightly outdated counts.
+ */
+final class PacketTrafficMeter {
+
+    private final NettyChannelInjector injector;
+
+    private final InboundFrames inboundFrames = new InboundFrames();
+    private final OutboundPackets outboundPackets = new OutboundPackets();
+    private final OutboundFrames outboundFrames = new OutboundFrames();
+    private final OutboundWire outboundWire = new OutboundWire();
+
+    private int inboundFrameSize;
+    private PacketType pendingOutbound;
+    private PacketFlowTrace pendingTrace;
+    private long pendingStart;
+
+    // indexed by the packet type index
+    private volatile TrafficCounters[] outboundTraffic = new TrafficCounters[0];
+
+    PacketTrafficMeter(NettyChannelInjector injector) {
+        this.injector = injector;
+    }
+
+    /**
+     * Retrieve the handler which must be placed in front of the packet decoder.
+     */
+    ChannelInboundHandlerAdapter getInboundFrames() {
+        return this.inboundFrames;
+    }
+
+    /**
+     * Retrieve the handler which must be placed behind the packet encoder.
+     */
+    ChannelOutboundHandlerAdapter getOutboundPackets() {
+        return this.outboundPackets;
+    }
+
+    /**
+     * Retrieve the handler which must be placed in front of the packet encoder.
+     */
+    ChannelOutboundHandlerAdapter getOutboundFrames() {
+        return this.outboundFrames;
+    }
+
+    /**
+     * Retrieve the handler which must be placed in front of the length prefixer.
+     */
+    ChannelOutboundHandlerAdapter getOutboundWire() {
+        return this.outboundWire;
+    }
+
+    /**
+     * Retrieve the outbound traffic of the channel by packet type.
+     *
+     * @return the traffic of every packet type that was sent at least once.
+     */
+    Map<PacketType, PacketTraffic> getOutboundTraffic() {
+        Map<PacketType, PacketTraffic> result = new HashMap<>();
+        for (TrafficCounters counters : this.outboundTraffic) {
+            if (counters != null) {
+                result.put(counters.packetType, new PacketTraffic(
+                        counters.packetType, counters.packets, counters.bytes, counters.wireBytes));
+            }
+        }
+        return result;
+    }
+
+    private TrafficCounters getOutboundCounters(PacketType packetType) {
+        int index = packetType.getIndex();
+        TrafficCounters[] traffic = this.outboundTraffic;
+        if (index < traffic.length && traffic[index] != null) {
+            return traffic[index];
+        }
+
+        // only the event loop writes, so there is no need to synchronize the growth
+        if (index >= traffic.length) {
+            traffic = Arrays.copyOf(traffic, Math.max(index + 1, traffic.length * 2));
+        }
+
+        TrafficCounters counters = new TrafficCounters(packetType);
+        traffic[index] = counters;
+        this.outboundTraffic = traffic;
+        return counters;
+    }
+
+    /**
+     * Record an inbound packet which was decoded from the last frame.
+     *
+     * @param packetType - the type of the decoded packet.
+     */
+    void recordInbound(PacketType packetType) {
+        PacketMetrics.recordPacket(packetType, this.inboundFrameSize);
+        this.inboundFrameSize = 0;
+    }
+
+    private final class InboundFrames extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (!(msg instanceof ByteBuf)) {
+                ctx.fireChannelRead(msg);
+                return;
+            }
+
+            PacketTrafficMeter.this.inboundFrameSize = ((ByteBuf) msg).readableBytes();
+
+            // decoding and intercepting the packet happens synchronously down the pipeline
+            PacketFlowProfiler.begin();
+            try {
+                ctx.fireChannelRead(msg);
+            } finally {
+                PacketFlowProfiler.end();
+            }
+        }
+    }
+
+    private final class OutboundPackets extends ChannelOutboundHandlerAdapter {
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (!MinecraftReflection.isPacketClass(msg)) {
+                ctx.write(msg, promise);
+                return;
+            }
+
+            PacketType.Protocol protocol = PacketTrafficMeter.this.injector.getCurrentProtocol(PacketType.Sender.SERVER);
+            PacketType packetType = PacketRegistry.getPacketType(protocol, msg.getClass());
+            if (packetType == null) {
+                ctx.write(msg, promise);
+                return;
+            }
+
+            PacketMetrics.recordPacket(packetType, 0);
+            PacketTrafficMeter.this.getOutboundCounters(packetType).packets++;
+
+            PacketFlowTrace trace = PacketFlowProfiler.begin();
+            if (trace != null) {
+                trace.setPacketType(packetType);
+            } else {
+                // a packet written while another flow is traced (sent from a listener for example) is folded into it
+                trace = PacketFlowProfiler.enclosing();
+            }
+
+            // the encoder writes the frame(s) synchronously, which lets the frame handler attribute them to the type
+            PacketTrafficMeter.this.pendingOutbound = packetType;
+            PacketTrafficMeter.this.pendingTrace = trace;
+            PacketTrafficMeter.this.pendingStart = System.nanoTime();
+            try {
+                ctx.write(msg, promise);
+            } finally {
+                PacketTrafficMeter.this.pendingOutbound = null;
+                PacketTrafficMeter.this.pendingTrace = null;
+                PacketFlowProfiler.end();
+            }
+        }
+    }
+
+    private final class OutboundFrames extends ChannelOutboundHandlerAdapter {
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            PacketType packetType = PacketTrafficMeter.this.pendingOutbound;
+            if (packetType != null && msg instanceof ByteBuf) {
+                int bytes = ((ByteBuf) msg).readableBytes();
+                PacketMetrics.recordBytes(packetType, bytes);
+                PacketTrafficMeter.this.getOutboundCounters(packetType).bytes += bytes;
+
+                PacketFlowTrace trace = PacketTrafficMeter.this.pendingTrace;
+                if (trace != null) {
+                    long start = PacketTrafficMeter.this.pendingStart;
+                    PacketTrafficMeter.this.pendingStart = trace.lap(PacketFlowStage.ENCODE, start);
+                }
+            }
+            ctx.write(msg, promise);
+        }
+    }
+
+    private final class OutboundWire extends ChannelOutboundHandlerAdapter {
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            // compression and the length prefix are applied synchronously as well
+            PacketType packetType = PacketTrafficMeter.this.pendingOutbound;
+            if (packetType != null && msg instanceof ByteBuf) {
+                PacketTrafficMeter.this.getOutboundCounters(packetType).wireBytes += ((ByteBuf) msg).readableBytes();
+            }
+            ctx.write(msg, promise);
+        }
+    }
+
+    private static final class TrafficCounters {
+
+        private final PacketType packetType;
+
+        private long packets;
+        private long bytes;
+        private long wireBytes;
+
+        private TrafficCounters(PacketType packetType) {
+            this.packetType = packetType;
+        }
+    }
+}
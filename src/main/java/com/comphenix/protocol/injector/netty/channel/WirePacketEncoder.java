@@ -1,12 +1,26 @@
 package com.comphenix.protocol.injector.netty.channel;
 
+import com.comphenix.protocol.injector.netty.ByteBufWirePacket;
 import com.comphenix.protocol.injector.netty.WirePacket;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 final class WirePacketEncoder extends MessageToByteEncoder<WirePacket> {
 
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof ByteBufWirePacket packet) {
+            // pass the contents on without copying them, the reference held by the packet moves to the new buffer
+            ByteBuf buffer = packet.toBuffer(ctx.alloc());
+            packet.release();
+            ctx.write(buffer, promise);
+        } else {
+            super.write(ctx, msg, promise);
+        }
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, WirePacket msg, ByteBuf out) throws Exception {
         msg.writeFully(out);
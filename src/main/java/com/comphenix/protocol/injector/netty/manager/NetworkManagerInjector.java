@@ -19,7 +19,9 @@ import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.injector.ListenerInvoker;
 import com.comphenix.protocol.injector.netty.ChannelListener;
 import com.comphenix.protocol.injector.netty.Injector;
+import com.comphenix.protocol.injector.netty.channel.InboundRateLimits;
 import com.comphenix.protocol.injector.netty.channel.InjectionFactory;
+import com.comphenix.protocol.injector.netty.channel.MainThreadPacketQueue;
 import com.comphenix.protocol.injector.player.PlayerInjectionHandler;
 import com.comphenix.protocol.injector.temporary.TemporaryPlayerFactory;
 import com.comphenix.protocol.reflect.FuzzyReflection;
@@ -114,6 +116,11 @@ public class NetworkManagerInjector implements ChannelListener {
         return this.listenerInvoker.hasOutboundListener(packetType);
     }
 
+    @Override
+    public boolean hasOutboundListeners() {
+        return this.listenerInvoker.hasOutboundListeners();
+    }
+
     @Override
     public boolean hasMainThreadListener(PacketType packetType) {
         return this.listenerInvoker.hasMainThreadListener(packetType);
@@ -133,6 +140,16 @@ public class NetworkManagerInjector implements ChannelListener {
         this.debug = debug;
     }
 
+    public void setMainThreadQueueLimits(int tickBudget, int backlogLimit) {
+        MainThreadPacketQueue queue = this.injectionFactory.getMainThreadQueue();
+        queue.setTickBudget(tickBudget);
+        queue.setBacklogLimit(backlogLimit);
+    }
+
+    public void setInboundRateLimits(InboundRateLimits inboundRateLimits) {
+        this.injectionFactory.setInboundRateLimits(inboundRateLimits);
+    }
+
     @SuppressWarnings("unchecked")
     public void inject() {
         if (this.closed || this.injected) {
@@ -1,14 +1,21 @@
 package com.comphenix.protocol.injector.netty.manager;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 import org.bukkit.entity.Player;
 
+import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.events.NetworkMarker;
 import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.injector.netty.ChannelListener;
 import com.comphenix.protocol.injector.netty.Injector;
 import com.comphenix.protocol.injector.netty.channel.InjectionFactory;
 import com.comphenix.protocol.injector.netty.channel.NettyChannelInjector;
 import com.comphenix.protocol.injector.player.PlayerInjectionHandler;
+import com.comphenix.protocol.metrics.PacketTraffic;
 
 import io.netty.channel.Channel;
 
@@ -46,6 +53,11 @@ final class NetworkManagerPlayerInjector implements PlayerInjectionHandler {
         this.injectionFactory.fromPlayer(receiver, this.listener).sendServerPacket(packet.getHandle(), marker, filters);
     }
 
+    @Override
+    public void sendServerPackets(Player receiver, List<Object> packets, List<PacketEvent> postEvents) {
+        this.injectionFactory.fromPlayer(receiver, this.listener).sendServerPackets(packets, postEvents);
+    }
+
     @Override
     public void receiveClientPacket(Player player, Object mcPacket) {
         this.injectionFactory.fromPlayer(player, this.listener).receiveClientPacket(mcPacket);
@@ -65,4 +77,19 @@ final class NetworkManagerPlayerInjector implements PlayerInjectionHandler {
 
         return null;
     }
+
+    @Override
+    public PacketType.Protocol getCurrentProtocol(Player player, PacketType.Sender sender) {
+        return this.injectionFactory.fromPlayer(player, this.listener).getCurrentProtocol(sender);
+    }
+
+    @Override
+    public Map<PacketType, PacketTraffic> getOutboundTraffic(Player player) {
+        Injector injector = this.injectionFactory.fromPlayer(player, this.listener);
+        if (injector instanceof NettyChannelInjector nettyChannelInjector) {
+            return nettyChannelInjector.getOutboundTraffic();
+        }
+
+        return Collections.emptyMap();
+    }
 }
@@ -78,6 +78,18 @@ public class PacketRegistry {
 		final Map<Class<?>, WrappedStreamCodec> classToCodec = new ConcurrentHashMap<>();
 		final Map<PacketType.Protocol, Map<Class<?>, PacketType>> protocolClassToType = new ConcurrentHashMap<>();
 
+		// class indexed view of protocolClassToType, the array is indexed by the protocol ordinal
+		final ClassValue<PacketType[]> classToProtocolTypes = new ClassValue<PacketType[]>() {
+			@Override
+			protected PacketType[] computeValue(Class<?> packetClass) {
+				PacketType[] types = new PacketType[PacketType.Protocol.values().length];
+				for (Map.Entry<PacketType.Protocol, Map<Class<?>, PacketType>> entry : protocolClassToType.entrySet()) {
+					types[entry.getKey().ordinal()] = entry.getValue().get(packetClass);
+				}
+				return types;
+			}
+		};
+
 		volatile Set<PacketType> serverPackets = new HashSet<>();
 		volatile Set<PacketType> clientPackets = new HashSet<>();
 		final List<MapContainer> containers = new ArrayList<>();
@@ -724,8 +736,9 @@ public class PacketRegistry {
 		if (!MinecraftVersion.CONFIG_PHASE_PROTOCOL_UPDATE.atOrAbove()) {
 			return getPacketType(packet);
 		}
-		Map<Class<?>, PacketType> classToTypesForProtocol = REGISTER.protocolClassToType.get(protocol);
-		return classToTypesForProtocol == null ? null : classToTypesForProtocol.get(packet);
+
+		// the class value lookup is computed once per packet class, leaving only an array index for the protocol
+		return protocol == null ? null : REGISTER.classToProtocolTypes.get(packet)[protocol.ordinal()];
 	}
 
 	/**
@@ -1,9 +1,15 @@
 package com.comphenix.protocol.injector.player;
 
+import java.util.List;
+import java.util.Map;
+
 import org.bukkit.entity.Player;
 
+import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.events.NetworkMarker;
 import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.metrics.PacketTraffic;
 
 import io.netty.channel.Channel;
 
@@ -45,6 +51,16 @@ public interface PlayerInjectionHandler {
      */
     void sendServerPacket(Player receiver, PacketContainer packet, NetworkMarker marker, boolean filters);
 
+    /**
+     * Send the given packets to the given receiver, flushing the connection only once. The packets are not posted to
+     * any packet filter.
+     *
+     * @param receiver   - the player receiver.
+     * @param packets    - the NMS packets to send.
+     * @param postEvents - the events of sent packets whose network marker should be processed after the flush.
+     */
+    void sendServerPackets(Player receiver, List<Object> packets, List<PacketEvent> postEvents);
+
     /**
      * Process a packet as if it were sent by the given player.
      *
@@ -62,6 +78,23 @@ public interface PlayerInjectionHandler {
 
     Channel getChannel(Player player);
 
+    /**
+     * Retrieve the current protocol state of the given player.
+     *
+     * @param player - the player.
+     * @param sender - the side for which the state should be resolved.
+     * @return The current protocol.
+     */
+    PacketType.Protocol getCurrentProtocol(Player player, PacketType.Sender sender);
+
+    /**
+     * Retrieve the traffic sent to the given player by packet type.
+     *
+     * @param player - the player.
+     * @return The traffic of every packet type that was sent at least once, empty if the player isn't injected.
+     */
+    Map<PacketType, PacketTraffic> getOutboundTraffic(Player player);
+
     /**
      * How to handle a previously existing player injection.
      *
@@ -0,0 +1,321 @@
+package com.comphenix.protocol.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.PacketType.Sender;
+
+/**
+ * Always-on counters about the packets processed by ProtocolLib.
+ * <p>
+ * All counters are monotonic and never reset, rates such as packets or bytes per second are meant to be derived by
+ * the consumer (for instance by the {@code rate()} function of Prometheus). Recording is backed by {@link LongAdder}
+ * cells, so concurrent event loops don't contend with each other, and summing only happens when the counters are read.
+ */
+public final class PacketMetrics {
+
+    private static final Object LOCK = new Object();
+
+    // indexed by PacketType#getIndex, grown on demand
+    private static volatile Counters[] counters = new Counters[0];
+
+    private static final LongAdder MAIN_THREAD_RESCHEDULES = new LongAdder();
+    private static final ConcurrentMap<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+
+    private PacketMetrics() {
+        // static registry
+    }
+
+    /**
+     * Retrieve the counters of the given packet type, creating them if necessary.
+     *
+     * @param type - the packet type.
+     * @return the counters.
+     */
+    public static Counters getCounters(PacketType type) {
+        int index = type.getIndex();
+        Counters[] table = counters;
+        if (index < table.length) {
+            Counters existing = table[index];
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return createCounters(type, index);
+    }
+
+    private static Counters createCounters(PacketType type, int index) {
+        synchronized (LOCK) {
+            Counters[] table = counters;
+            if (index >= table.length) {
+                Counters[] grown = new Counters[Math.max(index + 1, table.length * 2)];
+                System.arraycopy(table, 0, grown, 0, table.length);
+                table = grown;
+            }
+
+            Counters existing = table[index];
+            if (existing == null) {
+                existing = new Counters(type);
+                table[index] = existing;
+            }
+
+            // publish the table after the counters were stored in it
+            counters = table;
+            return existing;
+        }
+    }
+
+    /**
+     * Retrieve the counters of all packet types which have been recorded at least once.
+     *
+     * @return the counters, ordered by the index of the packet type.
+     */
+    public static List<Counters> getAllCounters() {
+        List<Counters> result = new ArrayList<>();
+        for (Counters entry : counters) {
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Record a packet which was read from or written to the network.
+     *
+     * @param type  - the type of the packet, the direction is derived from its sender.
+     * @param bytes - the size of the packet frame, or 0 if unknown.
+     */
+    public static void recordPacket(PacketType type, int bytes) {
+        Counters entry = getCounters(type);
+        entry.packets.increment();
+        if (bytes > 0) {
+            entry.bytes.add(bytes);
+        }
+    }
+
+    /**
+     * Record bytes which belong to an already recorded packet.
+     *
+     * @param type  - the type of the packet.
+     * @param bytes - the amount of bytes.
+     */
+    public static void recordBytes(PacketType type, int bytes) {
+        getCounters(type).bytes.add(bytes);
+    }
+
+    /**
+     * Record the time it took to post a packet to all synchronous listeners.
+     *
+     * @param type      - the packet type.
+     * @param nanos     - the elapsed time in nanoseconds.
+     * @param cancelled - whether the listeners cancelled the packet.
+     */
+    public static void recordListeners(PacketType type, long nanos, boolean cancelled) {
+        Counters entry = getCounters(type);
+        entry.listenerInvocations.increment();
+        entry.listenerNanos.add(nanos);
+        if (cancelled) {
+            entry.cancelled.increment();
+        }
+    }
+
+    /**
+     * Record a packet which was handed over to the asynchronous listeners.
+     *
+     * @param type - the packet type.
+     */
+    public static void recordAsyncEnqueued(PacketType type) {
+        getCounters(type).asyncEnqueued.increment();
+    }
+
+    /**
+     * Record a packet whose processing had to be moved from an event loop to the main thread.
+     */
+    public static void recordMainThreadReschedule() {
+        MAIN_THREAD_RESCHEDULES.increment();
+    }
+
+    /**
+     * Retrieve the amount of packets whose processing had to be moved to the main thread.
+     *
+     * @return number of reschedules.
+     */
+    public static long getMainThreadReschedules() {
+        return MAIN_THREAD_RESCHEDULES.sum();
+    }
+
+    /**
+     * Register a value which is sampled whenever the metrics are read, such as the size of a queue. A gauge with the
+     * same name is replaced.
+     *
+     * @param name     - the name of the gauge, must be a valid Prometheus metric name.
+     * @param help     - a short description of the gauge.
+     * @param supplier - supplier of the current value.
+     */
+    public static void registerGauge(String name, String help, LongSupplier supplier) {
+        GAUGES.put(name, new Gauge(help, supplier));
+    }
+
+    /**
+     * Remove a previously registered gauge.
+     *
+     * @param name - the name of the gauge.
+     */
+    public static void unregisterGauge(String name) {
+        GAUGES.remove(name);
+    }
+
+    /**
+     * Sample the current value of all registered gauges.
+     *
+     * @return the values by gauge name, ordered by name.
+     */
+    public static Map<String, Long> getGauges() {
+        Map<String, Long> result = new TreeMap<>();
+        GAUGES.forEach((name, gauge) -> result.put(name, gauge.supplier.getAsLong()));
+        return result;
+    }
+
+    /**
+     * Write all metrics in the Prometheus text exposition format.
+     *
+     * @param out - the destination.
+     * @throws IOException If the destination could not be written to.
+     */
+    public static void writePrometheus(Appendable out) throws IOException {
+        List<Counters> all = getAllCounters();
+
+        writeHeader(out, "protocollib_packets_total", "counter", "Packets read from or written to the network.");
+        for (Counters entry : all) {
+            writeSample(out, "protocollib_packets_total", entry, entry.getPackets());
+        }
+
+        writeHeader(out, "protocollib_packet_bytes_total", "counter", "Size of the packet frames read from or written to the network.");
+        for (Counters entry : all) {
+            writeSample(out, "protocollib_packet_bytes_total", entry, entry.getBytes());
+        }
+
+        writeHeader(out, "protocollib_packets_cancelled_total", "counter", "Packets cancelled by synchronous listeners.");
+        for (Counters entry : all) {
+            writeSample(out, "protocollib_packets_cancelled_total", entry, entry.getCancelled());
+        }
+
+        writeHeader(out, "protocollib_listener_invocations_total", "counter", "Packets posted to synchronous listeners.");
+        for (Counters entry : all) {
+            writeSample(out, "protocollib_listener_invocations_total", entry, entry.getListenerInvocations());
+        }
+
+        writeHeader(out, "protocollib_listener_seconds_total", "counter", "Time spent in synchronous listeners.");
+        for (Counters entry : all) {
+            long nanos = entry.getListenerNanos();
+            if (nanos > 0) {
+                writeLabels(out, "protocollib_listener_seconds_total", entry);
+                out.append(' ').append(Double.toString((double) nanos / TimeUnit.SECONDS.toNanos(1))).append('\n');
+            }
+        }
+
+        writeHeader(out, "protocollib_async_enqueued_total", "counter", "Packets handed over to asynchronous listeners.");
+        for (Counters entry : all) {
+            writeSample(out, "protocollib_async_enqueued_total", entry, entry.getAsyncEnqueued());
+        }
+
+        writeHeader(out, "protocollib_main_thread_reschedules_total", "counter", "Packets moved from an event loop to the main thread.");
+        out.append("protocollib_main_thread_reschedules_total ").append(Long.toString(getMainThreadReschedules())).append('\n');
+
+        for (Map.Entry<String, Gauge> entry : new TreeMap<>(GAUGES).entrySet()) {
+            writeHeader(out, entry.getKey(), "gauge", entry.getValue().help);
+            out.append(entry.getKey()).append(' ').append(Long.toString(entry.getValue().supplier.getAsLong())).append('\n');
+        }
+    }
+
+    private static void writeHeader(Appendable out, String name, String type, String help) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSample(Appendable out, String name, Counters entry, long value) throws IOException {
+        // leave out series which never changed, most packet types are never seen by most servers
+        if (value > 0) {
+            writeLabels(out, name, entry);
+            out.append(' ').append(Long.toString(value)).append('\n');
+        }
+    }
+
+    private static void writeLabels(Appendable out, String name, Counters entry) throws IOException {
+        PacketType type = entry.getPacketType();
+        out.append(name)
+                .append("{direction=\"").append(type.getSender() == Sender.CLIENT ? "inbound" : "outbound")
+                .append("\",protocol=\"").append(type.getProtocol().name())
+                .append("\",type=\"").append(type.name())
+                .append("\"}");
+    }
+
+    private static final class Gauge {
+
+        private final String help;
+        private final LongSupplier supplier;
+
+        private Gauge(String help, LongSupplier supplier) {
+            this.help = help;
+            this.supplier = supplier;
+        }
+    }
+
+    /**
+     * The counters of a single packet type.
+     */
+    public static final class Counters {
+
+        private final PacketType packetType;
+
+        private final LongAdder packets = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private final LongAdder listenerInvocations = new LongAdder();
+        private final LongAdder listenerNanos = new LongAdder();
+        private final LongAdder asyncEnqueued = new LongAdder();
+
+        private Counters(PacketType packetType) {
+            this.packetType = packetType;
+        }
+
+        public PacketType getPacketType() {
+            return this.packetType;
+        }
+
+        public long getPackets() {
+            return this.packets.sum();
+        }
+
+        public long getBytes() {
+            return this.bytes.sum();
+        }
+
+        public long getCancelled() {
+            return this.cancelled.sum();
+        }
+
+        public long getListenerInvocations() {
+            return this.listenerInvocations.sum();
+        }
+
+        public long getListenerNanos() {
+            return this.listenerNanos.sum();
+        }
+
+        public long getAsyncEnqueued() {
+            return this.asyncEnqueued.sum();
+        }
+    }
+}
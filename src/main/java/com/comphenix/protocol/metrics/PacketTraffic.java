@@ -0,0 +1,59 @@
+package com.comphenix.protocol.metrics;
+
+import com.comphenix.protocol.PacketType;
+
+/**
+ * The amount of packets and bytes of a single packet type sent over a connection.
+ */
+public final class PacketTraffic {
+
+    private final PacketType packetType;
+    private final long packets;
+    private final long bytes;
+    private final long wireBytes;
+
+    public PacketTraffic(PacketType packetType, long packets, long bytes, long wireBytes) {
+        this.packetType = packetType;
+        this.packets = packets;
+        this.bytes = bytes;
+        this.wireBytes = wireBytes;
+    }
+
+    public PacketType getPacketType() {
+        return this.packetType;
+    }
+
+    /**
+     * Retrieve the number of packets.
+     *
+     * @return number of packets.
+     */
+    public long getPackets() {
+        return this.packets;
+    }
+
+    /**
+     * Retrieve the size of the packets as written by the vanilla encoder, which is before any compression.
+     *
+     * @return number of bytes.
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Retrieve the size of the packets as sent over the network, which is after compression and includes the length
+     * prefix of each packet.
+     *
+     * @return number of bytes, or 0 if the connection has no length prefix handler we could measure behind.
+     */
+    public long getWireBytes() {
+        return this.wireBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "PacketTraffic[type=" + this.packetType + ", packets=" + this.packets + ", bytes=" + this.bytes
+                + ", wireBytes=" + this.wireBytes + "]";
+    }
+}
@@ -18,7 +18,14 @@
 package com.comphenix.protocol.reflect;
 
 import com.comphenix.protocol.reflect.accessors.Accessors;
+import com.comphenix.protocol.reflect.accessors.BooleanFieldAccessor;
+import com.comphenix.protocol.reflect.accessors.ByteFieldAccessor;
+import com.comphenix.protocol.reflect.accessors.DoubleFieldAccessor;
 import com.comphenix.protocol.reflect.accessors.FieldAccessor;
+import com.comphenix.protocol.reflect.accessors.FloatFieldAccessor;
+import com.comphenix.protocol.reflect.accessors.IntFieldAccessor;
+import com.comphenix.protocol.reflect.accessors.LongFieldAccessor;
+import com.comphenix.protocol.reflect.accessors.ShortFieldAccessor;
 import com.comphenix.protocol.reflect.instances.BannedGenerator;
 import com.comphenix.protocol.reflect.instances.DefaultInstances;
 import com.comphenix.protocol.reflect.instances.InstanceProvider;
@@ -40,6 +47,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
@@ -86,7 +94,7 @@ public class StructureModifier<T> {
 
     // Improved default values
     protected Map<FieldAccessor, Integer> defaultFields;
-    // Cache of previous types
+    // Cache of previous types, shared by every copy of this modifier and therefore accessed concurrently
     protected Map<Class<?>, StructureModifier<?>> subtypeCache;
 
     // Whether or subclasses should handle conversion
@@ -116,7 +124,7 @@ public class StructureModifier<T> {
         List<FieldAccessor> fields = getFields(targetType, superclassExclude);
         Map<FieldAccessor, Integer> defaults = requireDefault ? generateDefaultFields(fields) : new HashMap<>();
 
-        this.initialize(targetType, Object.class, fields, defaults, null, new HashMap<>());
+        this.initialize(targetType, Object.class, fields, defaults, null, new ConcurrentHashMap<>());
     }
 
     /**
@@ -239,15 +247,7 @@ public class StructureModifier<T> {
      * @throws IllegalStateException if this modifier has no target set.
      */
     public T read(int fieldIndex) throws FieldAccessException {
-        FieldAccessor accessor = this.findFieldAccessor(fieldIndex);
-        if (accessor == null) {
-            throw FieldAccessException.fromFormat(
-                    "Field index %d is out of bounds for length %s",
-                    fieldIndex,
-                    this.accessors.size());
-        }
-
-        return this.readInternal(accessor);
+        return this.readInternal(this.getFieldAccessor(fieldIndex));
     }
 
     /**
@@ -310,15 +310,7 @@ public class StructureModifier<T> {
      *                              contraints.
      */
     public StructureModifier<T> write(int fieldIndex, T value) throws FieldAccessException {
-        FieldAccessor accessor = this.findFieldAccessor(fieldIndex);
-        if (accessor == null) {
-            throw FieldAccessException.fromFormat(
-                    "Field index %d is out of bounds for length %s",
-                    fieldIndex,
-                    this.accessors.size());
-        }
-
-        return this.writeInternal(accessor, value);
+        return this.writeInternal(this.getFieldAccessor(fieldIndex), value);
     }
 
     /**
@@ -347,6 +339,265 @@ public class StructureModifier<T> {
         return this.write(fieldIndex, select.apply(value));
     }
 
+    /**
+     * Reads the value of a int field given its index, without boxing the value if the field is a int field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    public int readInt(int fieldIndex) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof IntFieldAccessor && !this.needConversion()) {
+            return ((IntFieldAccessor) accessor).getInt(this.target);
+        }
+
+        return (Integer) this.readInternal(accessor);
+    }
+
+    /**
+     * Writes the value of a int field given its index, without boxing the value if the field is a int field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public StructureModifier<T> writeInt(int fieldIndex, int value) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof IntFieldAccessor && !this.needConversion()) {
+            ((IntFieldAccessor) accessor).setInt(this.target, value);
+            return this;
+        }
+
+        return this.writeInternal(accessor, (T) (Integer) value);
+    }
+
+    /**
+     * Reads the value of a long field given its index, without boxing the value if the field is a long field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    public long readLong(int fieldIndex) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof LongFieldAccessor && !this.needConversion()) {
+            return ((LongFieldAccessor) accessor).getLong(this.target);
+        }
+
+        return (Long) this.readInternal(accessor);
+    }
+
+    /**
+     * Writes the value of a long field given its index, without boxing the value if the field is a long field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public StructureModifier<T> writeLong(int fieldIndex, long value) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof LongFieldAccessor && !this.needConversion()) {
+            ((LongFieldAccessor) accessor).setLong(this.target, value);
+            return this;
+        }
+
+        return this.writeInternal(accessor, (T) (Long) value);
+    }
+
+    /**
+     * Reads the value of a double field given its index, without boxing the value if the field is a double field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    public double readDouble(int fieldIndex) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof DoubleFieldAccessor && !this.needConversion()) {
+            return ((DoubleFieldAccessor) accessor).getDouble(this.target);
+        }
+
+        return (Double) this.readInternal(accessor);
+    }
+
+    /**
+     * Writes the value of a double field given its index, without boxing the value if the field is a double field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public StructureModifier<T> writeDouble(int fieldIndex, double value) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof DoubleFieldAccessor && !this.needConversion()) {
+            ((DoubleFieldAccessor) accessor).setDouble(this.target, value);
+            return this;
+        }
+
+        return this.writeInternal(accessor, (T) (Double) value);
+    }
+
+    /**
+     * Reads the value of a float field given its index, without boxing the value if the field is a float field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    public float readFloat(int fieldIndex) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof FloatFieldAccessor && !this.needConversion()) {
+            return ((FloatFieldAccessor) accessor).getFloat(this.target);
+        }
+
+        return (Float) this.readInternal(accessor);
+    }
+
+    /**
+     * Writes the value of a float field given its index, without boxing the value if the field is a float field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public StructureModifier<T> writeFloat(int fieldIndex, float value) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof FloatFieldAccessor && !this.needConversion()) {
+            ((FloatFieldAccessor) accessor).setFloat(this.target, value);
+            return this;
+        }
+
+        return this.writeInternal(accessor, (T) (Float) value);
+    }
+
+    /**
+     * Reads the value of a boolean field given its index, without boxing the value if the field is a boolean field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    public boolean readBoolean(int fieldIndex) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof BooleanFieldAccessor && !this.needConversion()) {
+            return ((BooleanFieldAccessor) accessor).getBoolean(this.target);
+        }
+
+        return (Boolean) this.readInternal(accessor);
+    }
+
+    /**
+     * Writes the value of a boolean field given its index, without boxing the value if the field is a boolean field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public StructureModifier<T> writeBoolean(int fieldIndex, boolean value) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof BooleanFieldAccessor && !this.needConversion()) {
+            ((BooleanFieldAccessor) accessor).setBoolean(this.target, value);
+            return this;
+        }
+
+        return this.writeInternal(accessor, (T) (Boolean) value);
+    }
+
+    /**
+     * Reads the value of a short field given its index, without boxing the value if the field is a short field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    public short readShort(int fieldIndex) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof ShortFieldAccessor && !this.needConversion()) {
+            return ((ShortFieldAccessor) accessor).getShort(this.target);
+        }
+
+        return (Short) this.readInternal(accessor);
+    }
+
+    /**
+     * Writes the value of a short field given its index, without boxing the value if the field is a short field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public StructureModifier<T> writeShort(int fieldIndex, short value) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof ShortFieldAccessor && !this.needConversion()) {
+            ((ShortFieldAccessor) accessor).setShort(this.target, value);
+            return this;
+        }
+
+        return this.writeInternal(accessor, (T) (Short) value);
+    }
+
+    /**
+     * Reads the value of a byte field given its index, without boxing the value if the field is a byte field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    public byte readByte(int fieldIndex) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof ByteFieldAccessor && !this.needConversion()) {
+            return ((ByteFieldAccessor) accessor).getByte(this.target);
+        }
+
+        return (Byte) this.readInternal(accessor);
+    }
+
+    /**
+     * Writes the value of a byte field given its index, without boxing the value if the field is a byte field and this
+     * modifier has no converter.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @throws FieldAccessException if the given field index is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public StructureModifier<T> writeByte(int fieldIndex, byte value) throws FieldAccessException {
+        FieldAccessor accessor = this.getFieldAccessor(fieldIndex);
+        if (accessor instanceof ByteFieldAccessor && !this.needConversion()) {
+            ((ByteFieldAccessor) accessor).setByte(this.target, value);
+            return this;
+        }
+
+        return this.writeInternal(accessor, (T) (Byte) value);
+    }
+
     private StructureModifier<T> writeInternal(FieldAccessor accessor, T value) throws FieldAccessException {
         // just ignore if the accessor is not present
         if (accessor == null) {
@@ -360,6 +611,18 @@ public class StructureModifier<T> {
         return this;
     }
 
+    private FieldAccessor getFieldAccessor(int fieldIndex) {
+        FieldAccessor accessor = this.findFieldAccessor(fieldIndex);
+        if (accessor == null) {
+            throw FieldAccessException.fromFormat(
+                    "Field index %d is out of bounds for length %s",
+                    fieldIndex,
+                    this.accessors.size());
+        }
+
+        return accessor;
+    }
+
     protected FieldAccessor findFieldAccessor(int fieldIndex) {
         if (this.target == null) {
             throw new IllegalStateException("Cannot read from modifier which has no target!");
@@ -530,53 +793,54 @@ public class StructureModifier<T> {
         }
 
         // Do we need to update the cache?
-        StructureModifier<R> result = (StructureModifier<R>) this.subtypeCache.get(fieldType);
-        if (result == null) {
-            List<FieldAccessor> fields = new ArrayList<>();
-            Map<FieldAccessor, Integer> defaults = new HashMap<>();
-
-            // filter out all fields we don't need
-            for (int i = 0; i < this.accessors.size(); i++) {
-                FieldAccessor accessor = this.accessors.get(i);
-                Field field = accessor.getField();
-
-                // check if the field type matches
-                if (!fieldType.isAssignableFrom(field.getType())) {
-                    continue;
-                }
+        StructureModifier<R> result = (StructureModifier<R>) this.subtypeCache.computeIfAbsent(
+                fieldType,
+                type -> this.createSubtype(type, paramTypes));
+
+        // Add the target too
+        result = result.withTarget(this.target);
+        result.converter = converter;
+
+        return result;
+    }
+
+    private StructureModifier<?> createSubtype(Class<?> fieldType, Class<?>[] paramTypes) {
+        List<FieldAccessor> fields = new ArrayList<>();
+        Map<FieldAccessor, Integer> defaults = new HashMap<>();
+
+        // filter out all fields we don't need
+        for (int i = 0; i < this.accessors.size(); i++) {
+            FieldAccessor accessor = this.accessors.get(i);
+            Field field = accessor.getField();
+
+            // check if the field type matches
+            if (!fieldType.isAssignableFrom(field.getType())) {
+                continue;
+            }
 
-                // check if we need to check for parameters
-                if (paramTypes.length > 0) {
-                    // check if the field is parameterized
-                    Type generic = field.getGenericType();
-                    if (!(generic instanceof ParameterizedType)) {
-                        continue;
-                    }
-
-                    // check if the type arguments of the field are matching
-                    ParameterizedType parameterized = (ParameterizedType) generic;
-                    if (!Arrays.equals(parameterized.getActualTypeArguments(), paramTypes)) {
-                        continue;
-                    }
+            // check if we need to check for parameters
+            if (paramTypes.length > 0) {
+                // check if the field is parameterized
+                Type generic = field.getGenericType();
+                if (!(generic instanceof ParameterizedType)) {
+                    continue;
                 }
 
-                // this field should be included
-                fields.add(accessor);
-                if (this.defaultFields.containsKey(accessor)) {
-                    defaults.put(accessor, i);
+                // check if the type arguments of the field are matching
+                ParameterizedType parameterized = (ParameterizedType) generic;
+                if (!Arrays.equals(parameterized.getActualTypeArguments(), paramTypes)) {
+                    continue;
                 }
             }
 
-            // Cache structure modifiers
-            result = this.withFieldType(fieldType, fields, defaults);
-            this.subtypeCache.put(fieldType, result);
+            // this field should be included
+            fields.add(accessor);
+            if (this.defaultFields.containsKey(accessor)) {
+                defaults.put(accessor, i);
+            }
         }
 
-        // Add the target too
-        result = result.withTarget(this.target);
-        result.converter = converter;
-
-        return result;
+        return this.withFieldType(fieldType, fields, defaults);
     }
 
     /**
@@ -620,7 +884,7 @@ public class StructureModifier<T> {
                 filtered,
                 defaults,
                 converter,
-                new HashMap<>());
+                new ConcurrentHashMap<>());
         return result;
     }
 
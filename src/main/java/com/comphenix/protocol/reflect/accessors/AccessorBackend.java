@@ -0,0 +1,21 @@
+package com.comphenix.protocol.reflect.accessors;
+
+/**
+ * The ways field and method accessors can be implemented.
+ *
+ * @see Accessors#setBackend(AccessorBackend)
+ */
+public enum AccessorBackend {
+
+    /**
+     * Access members through method handles of a generic type.
+     */
+    METHOD_HANDLE,
+
+    /**
+     * Access fields and methods of a class through a class generated for it, which reads and writes the fields
+     * directly and calls the methods with their exact signature. Members which can't be accessed this way, such as
+     * final fields when writing or static members, are still accessed through method handles.
+     */
+    BYTECODE
+}
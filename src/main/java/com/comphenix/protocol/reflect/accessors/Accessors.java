@@ -2,6 +2,7 @@ package com.comphenix.protocol.reflect.accessors;
 
 import com.comphenix.protocol.reflect.ExactReflection;
 import com.comphenix.protocol.reflect.FuzzyReflection;
+import com.google.common.base.Preconditions;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -10,10 +11,31 @@ import java.lang.reflect.Method;
 
 public final class Accessors {
 
+    private static volatile AccessorBackend backend = AccessorBackend.METHOD_HANDLE;
+
     // Seal this class
     private Accessors() {
     }
 
+    /**
+     * Retrieve the backend used by new field and method accessors.
+     *
+     * @return The accessor backend.
+     */
+    public static AccessorBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Set the backend used by field and method accessors which are created from now on. Existing accessors keep
+     * their backend.
+     *
+     * @param backend - the new backend.
+     */
+    public static void setBackend(AccessorBackend backend) {
+        Accessors.backend = Preconditions.checkNotNull(backend, "backend cannot be NULL");
+    }
+
     /**
      * Retrieve an accessor (in declared order) for every field of the givne type.
      *
@@ -0,0 +1,65 @@
+package com.comphenix.protocol.reflect.accessors;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+
+/**
+ * Accesses a byte instance field without boxing its value.
+ */
+public final class ByteFieldAccessor implements FieldAccessor {
+
+    private final FieldAccessor generic;
+
+    // exact types (Object)byte and (Object,byte)void
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    ByteFieldAccessor(FieldAccessor generic, MethodHandle getter, MethodHandle setter) {
+        this.generic = generic;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Retrieve the value of the field for a particular instance.
+     *
+     * @param instance - the instance.
+     * @return The value of the field.
+     */
+    public byte getByte(Object instance) {
+        try {
+            return (byte) this.getter.invokeExact(instance);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to read field value of " + this.getField(), throwable);
+        }
+    }
+
+    /**
+     * Set the value of the field for a particular instance.
+     *
+     * @param instance - the instance.
+     * @param value    - the new value of the field.
+     */
+    public void setByte(Object instance, byte value) {
+        try {
+            this.setter.invokeExact(instance, value);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to set value of field " + this.getField(), throwable);
+        }
+    }
+
+    @Override
+    public Object get(Object instance) {
+        return this.generic.get(instance);
+    }
+
+    @Override
+    public void set(Object instance, Object value) {
+        this.generic.set(instance, value);
+    }
+
+    @Override
+    public Field getField() {
+        return this.generic.getField();
+    }
+}
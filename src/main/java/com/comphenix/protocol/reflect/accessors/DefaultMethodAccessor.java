@@ -10,10 +10,13 @@ final class DefaultMethodAccessor implements MethodAccessor {
     private final boolean staticMethod;
 
     private final MethodHandle methodHandle;
+    // takes the target and each argument as an object, used by the fixed arity invocations
+    private final MethodHandle exactHandle;
 
-    public DefaultMethodAccessor(Method method, MethodHandle methodHandle, boolean staticMethod) {
+    public DefaultMethodAccessor(Method method, MethodHandle methodHandle, MethodHandle exactHandle, boolean staticMethod) {
         this.method = method;
         this.methodHandle = methodHandle;
+        this.exactHandle = exactHandle;
         this.staticMethod = staticMethod;
     }
 
@@ -26,6 +29,42 @@ final class DefaultMethodAccessor implements MethodAccessor {
         }
     }
 
+    @Override
+    public Object invoke0(Object target) {
+        try {
+            return (Object) this.exactHandle.invokeExact(target);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to invoke method " + this.method, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke1(Object target, Object arg0) {
+        try {
+            return (Object) this.exactHandle.invokeExact(target, arg0);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to invoke method " + this.method, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke2(Object target, Object arg0, Object arg1) {
+        try {
+            return (Object) this.exactHandle.invokeExact(target, arg0, arg1);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to invoke method " + this.method, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke3(Object target, Object arg0, Object arg1, Object arg2) {
+        try {
+            return (Object) this.exactHandle.invokeExact(target, arg0, arg1, arg2);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to invoke method " + this.method, throwable);
+        }
+    }
+
     @Override
     public Method getMethod() {
         return this.method;
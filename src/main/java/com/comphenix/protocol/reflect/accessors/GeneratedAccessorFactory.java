@@ -0,0 +1,411 @@
+package com.comphenix.protocol.reflect.accessors;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.comphenix.protocol.ProtocolLogger;
+import com.google.common.primitives.Primitives;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.FieldManifestation;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * Generates the accessors of the {@link AccessorBackend#BYTECODE} backend.
+ * <p>
+ * Every class gets a single hidden class in its nest, so that the generated code may access private members. The
+ * hidden class reads a field in {@code Object apply(Object instance)}, writes a field in
+ * {@code void accept(Object instance, Object value)} and calls a method in
+ * {@code Object apply(Object target, Object args)}, selecting the member by the index it was constructed with. It only
+ * implements interfaces of the JDK, as the types of ProtocolLib are not visible from the class loader of the server.
+ */
+final class GeneratedAccessorFactory {
+
+    private static final String INDEX_FIELD = "index";
+
+    private static final String OBJECT_ARRAY = Type.getInternalName(Object[].class);
+    private static final String NUMBER = Type.getInternalName(Number.class);
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, int.class);
+    private static final MethodType GENERIC_CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, int.class);
+
+    // locals of the generated methods
+    private static final int THIS = 0;
+    private static final int TARGET = 1;
+    private static final int VALUE = 2;
+    private static final int ARGUMENTS = 3;
+
+    // an empty optional marks classes we were unable to generate accessors for
+    private static final Map<Class<?>, Optional<AccessorClass>> ACCESSOR_CLASSES = new ConcurrentHashMap<>();
+
+    // sealed class
+    private GeneratedAccessorFactory() {
+    }
+
+    /**
+     * Retrieve a generated accessor for the given instance field.
+     *
+     * @param field    - the field.
+     * @param fallback - the accessor used to write final fields.
+     * @return The generated accessor, or the fallback if the field can't be accessed by a generated class.
+     */
+    @SuppressWarnings("unchecked")
+    static FieldAccessor getFieldAccessor(Field field, FieldAccessor fallback) {
+        AccessorClass accessorClass = getAccessorClass(field.getDeclaringClass());
+        Integer index = accessorClass == null ? null : accessorClass.fieldIndices.get(field);
+        if (index == null) {
+            return fallback;
+        }
+
+        Object accessor = accessorClass.newInstance(index);
+        BiConsumer<Object, Object> writer = Modifier.isFinal(field.getModifiers())
+                ? null
+                : (BiConsumer<Object, Object>) accessor;
+        return new GeneratedFieldAccessor(field, (Function<Object, Object>) accessor, writer, fallback);
+    }
+
+    /**
+     * Retrieve a generated accessor for the given method.
+     *
+     * @param method   - the method.
+     * @param fallback - the accessor to return if the method can't be invoked by a generated class.
+     * @return The generated accessor, or the fallback.
+     */
+    @SuppressWarnings("unchecked")
+    static MethodAccessor getMethodAccessor(Method method, MethodAccessor fallback) {
+        AccessorClass accessorClass = getAccessorClass(method.getDeclaringClass());
+        Integer index = accessorClass == null ? null : accessorClass.methodIndices.get(method);
+        if (index == null) {
+            return fallback;
+        }
+
+        Object accessor = accessorClass.newInstance(index);
+        return new GeneratedMethodAccessor(method, (BiFunction<Object, Object, Object>) accessor, fallback);
+    }
+
+    private static AccessorClass getAccessorClass(Class<?> declaringClass) {
+        return ACCESSOR_CLASSES.computeIfAbsent(declaringClass, clazz -> {
+            // classes of the boot loader and hidden classes can't have a nestmate defined by us
+            if (clazz.getClassLoader() == null || clazz.isHidden()) {
+                return Optional.empty();
+            }
+
+            try {
+                return Optional.of(generate(clazz));
+            } catch (Exception | LinkageError ex) {
+                ProtocolLogger.debug("Unable to generate accessors for " + clazz.getName() + ", using method handles", ex);
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private static AccessorClass generate(Class<?> declaringClass) throws ReflectiveOperationException {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : declaringClass.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.add(field);
+            }
+        }
+
+        List<Method> methods = new ArrayList<>();
+        for (Method method : declaringClass.getDeclaredMethods()) {
+            // skips bridges and lambda bodies, which are not worth a switch case
+            if (!method.isSynthetic()) {
+                methods.add(method);
+            }
+        }
+
+        byte[] classFile = new ByteBuddy()
+                .subclass(Object.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .name(declaringClass.getName() + "$ProtocolLibAccessors")
+                .implement(Function.class, BiConsumer.class, BiFunction.class)
+                .defineField(INDEX_FIELD, int.class, Visibility.PRIVATE, FieldManifestation.FINAL)
+                .defineConstructor(Visibility.PUBLIC)
+                .withParameters(int.class)
+                .intercept(MethodCall.invoke(Object.class.getConstructor())
+                        .andThen(net.bytebuddy.implementation.FieldAccessor.ofField(INDEX_FIELD).setsArgumentAt(0)))
+                .method(ElementMatchers.named("apply").and(ElementMatchers.takesArguments(1)))
+                .intercept(new Implementation.Simple(new ReadAppender(fields)))
+                .method(ElementMatchers.named("accept").and(ElementMatchers.takesArguments(2)))
+                .intercept(new Implementation.Simple(new WriteAppender(fields)))
+                .method(ElementMatchers.named("apply").and(ElementMatchers.takesArguments(2)))
+                .intercept(new Implementation.Simple(new InvokeAppender(methods)))
+                .visit(new AsmVisitorWrapper.ForDeclaredMethods().writerFlags(ClassWriter.COMPUTE_FRAMES))
+                .make()
+                .getBytes();
+
+        // joining the nest of the declaring class grants access to its private members
+        Lookup lookup = MethodHandleHelper.LOOKUP.in(declaringClass)
+                .defineHiddenClass(classFile, true, Lookup.ClassOption.NESTMATE);
+        MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(), CONSTRUCTOR_TYPE)
+                .asType(GENERIC_CONSTRUCTOR_TYPE);
+
+        return new AccessorClass(constructor, indexOf(fields), indexOf(methods));
+    }
+
+    private static <T> Map<T, Integer> indexOf(List<T> members) {
+        Map<T, Integer> indices = new HashMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            indices.put(members.get(i), i);
+        }
+        return indices;
+    }
+
+    private static final class AccessorClass {
+
+        private final MethodHandle constructor;
+        private final Map<Field, Integer> fieldIndices;
+        private final Map<Method, Integer> methodIndices;
+
+        private AccessorClass(MethodHandle constructor, Map<Field, Integer> fieldIndices,
+                Map<Method, Integer> methodIndices) {
+            this.constructor = constructor;
+            this.fieldIndices = fieldIndices;
+            this.methodIndices = methodIndices;
+        }
+
+        private Object newInstance(int index) {
+            try {
+                return (Object) this.constructor.invokeExact(index);
+            } catch (Throwable throwable) {
+                throw new IllegalStateException("Unable to construct generated accessor", throwable);
+            }
+        }
+    }
+
+    /**
+     * Base of the generated methods, which load the index of the accessor and jump to the case of the member. An
+     * unknown index throws an {@link IllegalArgumentException}. No case stores a local, so the frames of the generated
+     * methods never have to merge types, and the types of the server don't need to be resolved.
+     */
+    private abstract static class SwitchAppender implements ByteCodeAppender {
+
+        private final int cases;
+
+        SwitchAppender(int cases) {
+            this.cases = cases;
+        }
+
+        @Override
+        public Size apply(MethodVisitor visitor, Implementation.Context context, MethodDescription method) {
+            Label unknown = new Label();
+            int maxStack = 2;
+
+            this.prepare(visitor);
+            if (this.cases > 0) {
+                Label[] labels = new Label[this.cases];
+                for (int i = 0; i < this.cases; i++) {
+                    labels[i] = this.hasCase(i) ? new Label() : unknown;
+                }
+
+                visitor.visitVarInsn(Opcodes.ALOAD, THIS);
+                visitor.visitFieldInsn(Opcodes.GETFIELD, context.getInstrumentedType().getInternalName(), INDEX_FIELD,
+                        "I");
+                visitor.visitTableSwitchInsn(0, this.cases - 1, unknown, labels);
+
+                for (int i = 0; i < this.cases; i++) {
+                    if (labels[i] != unknown) {
+                        visitor.visitLabel(labels[i]);
+                        maxStack = Math.max(maxStack, this.visitCase(visitor, i));
+                    }
+                }
+            }
+
+            visitor.visitLabel(unknown);
+            visitor.visitTypeInsn(Opcodes.NEW, Type.getInternalName(IllegalArgumentException.class));
+            visitor.visitInsn(Opcodes.DUP);
+            visitor.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(IllegalArgumentException.class),
+                    "<init>", "()V", false);
+            visitor.visitInsn(Opcodes.ATHROW);
+
+            return new Size(maxStack, ARGUMENTS + 1);
+        }
+
+        void prepare(MethodVisitor visitor) {
+        }
+
+        boolean hasCase(int index) {
+            return true;
+        }
+
+        /**
+         * Generate the case of the member with the given index, which has to return from the method.
+         *
+         * @return The maximum stack size of the case.
+         */
+        abstract int visitCase(MethodVisitor visitor, int index);
+    }
+
+    private static final class ReadAppender extends SwitchAppender {
+
+        private final List<Field> fields;
+
+        ReadAppender(List<Field> fields) {
+            super(fields.size());
+            this.fields = fields;
+        }
+
+        @Override
+        int visitCase(MethodVisitor visitor, int index) {
+            Field field = this.fields.get(index);
+            String owner = Type.getInternalName(field.getDeclaringClass());
+
+            visitor.visitVarInsn(Opcodes.ALOAD, TARGET);
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, owner);
+            visitor.visitFieldInsn(Opcodes.GETFIELD, owner, field.getName(), Type.getDescriptor(field.getType()));
+            box(visitor, field.getType());
+            visitor.visitInsn(Opcodes.ARETURN);
+            return 2;
+        }
+    }
+
+    private static final class WriteAppender extends SwitchAppender {
+
+        private final List<Field> fields;
+
+        WriteAppender(List<Field> fields) {
+            super(fields.size());
+            this.fields = fields;
+        }
+
+        @Override
+        boolean hasCase(int index) {
+            // final fields may only be assigned by their own class
+            return !Modifier.isFinal(this.fields.get(index).getModifiers());
+        }
+
+        @Override
+        int visitCase(MethodVisitor visitor, int index) {
+            Field field = this.fields.get(index);
+            String owner = Type.getInternalName(field.getDeclaringClass());
+
+            visitor.visitVarInsn(Opcodes.ALOAD, TARGET);
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, owner);
+            visitor.visitVarInsn(Opcodes.ALOAD, VALUE);
+            unbox(visitor, field.getType());
+            visitor.visitFieldInsn(Opcodes.PUTFIELD, owner, field.getName(), Type.getDescriptor(field.getType()));
+            visitor.visitInsn(Opcodes.RETURN);
+            return 3;
+        }
+    }
+
+    private static final class InvokeAppender extends SwitchAppender {
+
+        private final List<Method> methods;
+
+        InvokeAppender(List<Method> methods) {
+            super(methods.size());
+            this.methods = methods;
+        }
+
+        @Override
+        void prepare(MethodVisitor visitor) {
+            visitor.visitVarInsn(Opcodes.ALOAD, VALUE);
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, OBJECT_ARRAY);
+            visitor.visitVarInsn(Opcodes.ASTORE, ARGUMENTS);
+        }
+
+        @Override
+        int visitCase(MethodVisitor visitor, int index) {
+            Method method = this.methods.get(index);
+            Class<?> declaringClass = method.getDeclaringClass();
+            String owner = Type.getInternalName(declaringClass);
+            boolean staticMethod = Modifier.isStatic(method.getModifiers());
+
+            int stack = 0;
+            if (!staticMethod) {
+                visitor.visitVarInsn(Opcodes.ALOAD, TARGET);
+                visitor.visitTypeInsn(Opcodes.CHECKCAST, owner);
+                stack++;
+            }
+
+            Class<?>[] parameters = method.getParameterTypes();
+            for (int i = 0; i < parameters.length; i++) {
+                visitor.visitVarInsn(Opcodes.ALOAD, ARGUMENTS);
+                pushInt(visitor, i);
+                visitor.visitInsn(Opcodes.AALOAD);
+                unbox(visitor, parameters[i]);
+                stack += Type.getType(parameters[i]).getSize();
+            }
+
+            int opcode;
+            if (staticMethod) {
+                opcode = Opcodes.INVOKESTATIC;
+            } else if (declaringClass.isInterface()) {
+                opcode = Opcodes.INVOKEINTERFACE;
+            } else {
+                opcode = Opcodes.INVOKEVIRTUAL;
+            }
+            visitor.visitMethodInsn(opcode, owner, method.getName(), Type.getMethodDescriptor(method),
+                    declaringClass.isInterface());
+
+            if (method.getReturnType() == void.class) {
+                visitor.visitInsn(Opcodes.ACONST_NULL);
+            } else {
+                box(visitor, method.getReturnType());
+            }
+            visitor.visitInsn(Opcodes.ARETURN);
+
+            // the array and index of the last argument are on top of the previous arguments
+            return Math.max(stack + 2, 2);
+        }
+    }
+
+    private static void box(MethodVisitor visitor, Class<?> type) {
+        if (type.isPrimitive()) {
+            String wrapper = Type.getInternalName(Primitives.wrap(type));
+            String descriptor = "(" + Type.getDescriptor(type) + ")L" + wrapper + ";";
+            visitor.visitMethodInsn(Opcodes.INVOKESTATIC, wrapper, "valueOf", descriptor, false);
+        }
+    }
+
+    private static void unbox(MethodVisitor visitor, Class<?> type) {
+        if (!type.isPrimitive()) {
+            if (type != Object.class) {
+                visitor.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+            }
+            return;
+        }
+
+        // numbers are converted like a method handle would, so a byte may be passed to an int parameter
+        String owner = type == boolean.class || type == char.class ? Type.getInternalName(Primitives.wrap(type)) : NUMBER;
+        visitor.visitTypeInsn(Opcodes.CHECKCAST, owner);
+        visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, type.getName() + "Value", "()" + Type.getDescriptor(type),
+                false);
+    }
+
+    private static void pushInt(MethodVisitor visitor, int value) {
+        if (value <= 5) {
+            visitor.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            visitor.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            visitor.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.comphenix.protocol.reflect.accessors;
+
+import java.lang.reflect.Field;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+final class GeneratedFieldAccessor implements FieldAccessor {
+
+    private final Field field;
+
+    private final Function<Object, Object> reader;
+    private final BiConsumer<Object, Object> writer;
+
+    // used to write final fields, which the generated class can't assign
+    private final FieldAccessor fallback;
+
+    public GeneratedFieldAccessor(
+            Field field,
+            Function<Object, Object> reader,
+            BiConsumer<Object, Object> writer,
+            FieldAccessor fallback
+    ) {
+        this.field = field;
+        this.reader = reader;
+        this.writer = writer;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Object get(Object instance) {
+        try {
+            return this.reader.apply(instance);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to read field value of " + this.field, throwable);
+        }
+    }
+
+    @Override
+    public void set(Object instance, Object value) {
+        if (this.writer == null) {
+            this.fallback.set(instance, value);
+            return;
+        }
+
+        try {
+            this.writer.accept(instance, value);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to set value of field " + this.field, throwable);
+        }
+    }
+
+    @Override
+    public Field getField() {
+        return this.field;
+    }
+}
@@ -0,0 +1,53 @@
+package com.comphenix.protocol.reflect.accessors;
+
+import java.lang.reflect.Method;
+import java.util.function.BiFunction;
+
+final class GeneratedMethodAccessor implements MethodAccessor {
+
+    private final Method method;
+    private final BiFunction<Object, Object, Object> invoker;
+
+    // the generated invoker only takes an argument array, calls with a fixed arity use the exact method handle instead
+    private final MethodAccessor fallback;
+
+    public GeneratedMethodAccessor(Method method, BiFunction<Object, Object, Object> invoker, MethodAccessor fallback) {
+        this.method = method;
+        this.invoker = invoker;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Object invoke(Object target, Object... args) {
+        try {
+            return this.invoker.apply(target, args);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to invoke method " + this.method, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke0(Object target) {
+        return this.fallback.invoke0(target);
+    }
+
+    @Override
+    public Object invoke1(Object target, Object arg0) {
+        return this.fallback.invoke1(target, arg0);
+    }
+
+    @Override
+    public Object invoke2(Object target, Object arg0, Object arg1) {
+        return this.fallback.invoke2(target, arg0, arg1);
+    }
+
+    @Override
+    public Object invoke3(Object target, Object arg0, Object arg1, Object arg2) {
+        return this.fallback.invoke3(target, arg0, arg1, arg2);
+    }
+
+    @Override
+    public Method getMethod() {
+        return this.method;
+    }
+}
@@ -18,6 +18,52 @@ public interface MethodAccessor {
      */
     Object invoke(Object target, Object... args);
 
+    /**
+     * Invoke the underlying method, which takes no arguments, without allocating an argument array.
+     *
+     * @param target - the target instance, or NULL for a static method.
+     * @return The return value, or NULL for void methods.
+     */
+    default Object invoke0(Object target) {
+        return this.invoke(target);
+    }
+
+    /**
+     * Invoke the underlying method, which takes a single argument, without allocating an argument array.
+     *
+     * @param target - the target instance, or NULL for a static method.
+     * @param arg0   - the first argument.
+     * @return The return value, or NULL for void methods.
+     */
+    default Object invoke1(Object target, Object arg0) {
+        return this.invoke(target, arg0);
+    }
+
+    /**
+     * Invoke the underlying method, which takes two arguments, without allocating an argument array.
+     *
+     * @param target - the target instance, or NULL for a static method.
+     * @param arg0   - the first argument.
+     * @param arg1   - the second argument.
+     * @return The return value, or NULL for void methods.
+     */
+    default Object invoke2(Object target, Object arg0, Object arg1) {
+        return this.invoke(target, arg0, arg1);
+    }
+
+    /**
+     * Invoke the underlying method, which takes three arguments, without allocating an argument array.
+     *
+     * @param target - the target instance, or NULL for a static method.
+     * @param arg0   - the first argument.
+     * @param arg1   - the second argument.
+     * @param arg2   - the third argument.
+     * @return The return value, or NULL for void methods.
+     */
+    default Object invoke3(Object target, Object arg0, Object arg1, Object arg2) {
+        return this.invoke(target, arg0, arg1, arg2);
+    }
+
     /**
      * Retrieve the underlying method.
      *
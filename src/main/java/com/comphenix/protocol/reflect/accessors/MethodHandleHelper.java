@@ -15,7 +15,8 @@ import com.google.common.base.Preconditions;
 
 final class MethodHandleHelper {
 
-    private static final Lookup LOOKUP;
+    // also used to define the classes of the bytecode backend in the nest of the accessed class
+    static final Lookup LOOKUP;
 
     // static fields, converted as "public Object get()" and "public void set(Object value)"
     private static final MethodType STATIC_FIELD_GETTER = MethodType.methodType(Object.class);
@@ -60,7 +61,12 @@ final class MethodHandleHelper {
             boolean staticMethod = Modifier.isStatic(method.getModifiers());
 
             MethodHandle generified = convertToGeneric(unreflected, staticMethod, false);
-            return new DefaultMethodAccessor(method, generified, staticMethod);
+            MethodHandle exact = convertToExact(unreflected, staticMethod);
+            MethodAccessor accessor = new DefaultMethodAccessor(method, generified, exact, staticMethod);
+            if (Accessors.getBackend() == AccessorBackend.BYTECODE) {
+                accessor = GeneratedAccessorFactory.getMethodAccessor(method, accessor);
+            }
+            return accessor;
         } catch (IllegalAccessException ex) {
             throw new IllegalStateException("Unable to access method " + method, ex);
         }
@@ -96,6 +102,9 @@ final class MethodHandleHelper {
                 setter = LOOKUP.findSetter(field.getDeclaringClass(), field.getName(), field.getType());
             }
 
+            MethodHandle exactGetter = getter;
+            MethodHandle exactSetter = setter;
+
             // generify the method type so that we don't need to worry about it when using the handles
             if (staticField) {
                 getter = getter.asType(STATIC_FIELD_GETTER);
@@ -113,13 +122,63 @@ final class MethodHandleHelper {
                 throw new IllegalStateException("Unable to access field " + field + ". Could not find setter");
             }
 
-            return new DefaultFieldAccessor(field, setter, getter, staticField);
+            FieldAccessor generic = new DefaultFieldAccessor(field, setter, getter, staticField);
+            if (!staticField && Accessors.getBackend() == AccessorBackend.BYTECODE) {
+                generic = GeneratedAccessorFactory.getFieldAccessor(field, generic);
+            }
+
+            if (staticField || !field.getType().isPrimitive()) {
+                return generic;
+            }
+
+            // primitive instance fields can also be accessed without boxing, as "public int get(Object instance)"
+            // and "public void set(Object instance, int value)"
+            Class<?> type = field.getType();
+            exactGetter = exactGetter.asType(MethodType.methodType(type, Object.class));
+            exactSetter = exactSetter.asType(MethodType.methodType(void.class, Object.class, type));
+            return createPrimitiveAccessor(type, generic, exactGetter, exactSetter);
         } catch (IllegalAccessException | NoSuchFieldException ex) {
             // NoSuchFieldException can never happen, the field always exists
             throw new IllegalStateException("Unable to access field " + field, ex);
         }
     }
 
+    private static FieldAccessor createPrimitiveAccessor(
+            Class<?> type,
+            FieldAccessor generic,
+            MethodHandle getter,
+            MethodHandle setter
+    ) {
+        if (type == int.class) {
+            return new IntFieldAccessor(generic, getter, setter);
+        } else if (type == long.class) {
+            return new LongFieldAccessor(generic, getter, setter);
+        } else if (type == double.class) {
+            return new DoubleFieldAccessor(generic, getter, setter);
+        } else if (type == float.class) {
+            return new FloatFieldAccessor(generic, getter, setter);
+        } else if (type == boolean.class) {
+            return new BooleanFieldAccessor(generic, getter, setter);
+        } else if (type == short.class) {
+            return new ShortFieldAccessor(generic, getter, setter);
+        } else if (type == byte.class) {
+            return new ByteFieldAccessor(generic, getter, setter);
+        }
+
+        // char fields have no specialised accessor
+        return generic;
+    }
+
+    private static MethodHandle convertToExact(MethodHandle handle, boolean staticMethod) {
+        MethodHandle target = handle.asFixedArity();
+        // adds a leading 'this' argument which we can ignore
+        if (staticMethod) {
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+        // every parameter and the return type become objects, void methods return null
+        return target.asType(MethodType.genericMethodType(target.type().parameterCount()));
+    }
+
     private static MethodHandle convertToGeneric(MethodHandle handle, boolean staticMethod, boolean ctor) {
         MethodHandle target = handle.asFixedArity();
         // special thing - we do not need the trailing array if we have 0 arguments anyway
@@ -0,0 +1,249 @@
+package com.comphenix.protocol.timing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of durations in nanoseconds with logarithmic buckets.
+ * <p>
+ * Every power of two is split into {@value #SUB_BUCKETS} linear sub buckets, which bounds the relative error of the
+ * reported percentiles to 12.5% over the whole range of long values. Observations are recorded into one of several
+ * stripes, selected by the recording thread, so that threads don't contend on the same cache lines. The stripes are
+ * only merged when a {@link Snapshot} is taken.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	// enough buckets to hold Long.MAX_VALUE
+	private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+	private static final int STRIPE_COUNT = Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+	private final Stripe[] stripes;
+
+	public LatencyHistogram() {
+		this.stripes = new Stripe[STRIPE_COUNT];
+		for (int i = 0; i < this.stripes.length; i++) {
+			this.stripes[i] = new Stripe();
+		}
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS * 2) {
+			return (int) Math.max(value, 0);
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long bucketLowerBound(int index) {
+		if (index < SUB_BUCKETS * 2) {
+			return index;
+		}
+
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long subBucket = index % SUB_BUCKETS;
+		return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+	}
+
+	static long bucketWidth(int index) {
+		if (index < SUB_BUCKETS * 2) {
+			return 1;
+		}
+
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		return 1L << (exponent - SUB_BUCKET_BITS);
+	}
+
+	/**
+	 * Record a duration.
+	 *
+	 * @param value - the duration in nanoseconds.
+	 */
+	public void observe(long value) {
+		// event loop threads are long living, so the thread id spreads them evenly over the stripes
+		Stripe stripe = this.stripes[(int) Thread.currentThread().getId() & (STRIPE_COUNT - 1)];
+		stripe.buckets.incrementAndGet(bucketIndex(value));
+		stripe.sum.addAndGet(value);
+
+		long max;
+		while (value > (max = stripe.maximum.get()) && !stripe.maximum.compareAndSet(max, value)) {
+			// retry
+		}
+
+		long min;
+		while (value < (min = stripe.minimum.get()) && !stripe.minimum.compareAndSet(min, value)) {
+			// retry
+		}
+	}
+
+	/**
+	 * Merge all stripes into a snapshot. Observations recorded concurrently may or may not be included.
+	 *
+	 * @return the snapshot.
+	 */
+	public Snapshot snapshot() {
+		Snapshot snapshot = new Snapshot();
+		for (Stripe stripe : this.stripes) {
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				long count = stripe.buckets.get(i);
+				snapshot.buckets[i] += count;
+				snapshot.count += count;
+			}
+
+			snapshot.sum += stripe.sum.get();
+			snapshot.minimum = Math.min(snapshot.minimum, stripe.minimum.get());
+			snapshot.maximum = Math.max(snapshot.maximum, stripe.maximum.get());
+		}
+
+		return snapshot;
+	}
+
+	private static final class Stripe {
+
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+		private final AtomicLong sum = new AtomicLong();
+		private final AtomicLong minimum = new AtomicLong(Long.MAX_VALUE);
+		private final AtomicLong maximum = new AtomicLong(Long.MIN_VALUE);
+	}
+
+	/**
+	 * An immutable view of a histogram at a given time, which can be combined with other snapshots.
+	 */
+	public static final class Snapshot {
+
+		private final long[] buckets = new long[BUCKET_COUNT];
+		private long count;
+		private long sum;
+		private long minimum = Long.MAX_VALUE;
+		private long maximum = Long.MIN_VALUE;
+
+		private Snapshot() {
+		}
+
+		/**
+		 * Create a snapshot without any observations.
+		 *
+		 * @return the empty snapshot.
+		 */
+		public static Snapshot empty() {
+			return new Snapshot();
+		}
+
+		/**
+		 * Combine this snapshot with another snapshot.
+		 *
+		 * @param other - the other snapshot.
+		 * @return a new snapshot holding the observations of both.
+		 */
+		public Snapshot add(Snapshot other) {
+			Snapshot result = new Snapshot();
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				result.buckets[i] = this.buckets[i] + other.buckets[i];
+			}
+
+			result.count = this.count + other.count;
+			result.sum = this.sum + other.sum;
+			result.minimum = Math.min(this.minimum, other.minimum);
+			result.maximum = Math.max(this.maximum, other.maximum);
+			return result;
+		}
+
+		/**
+		 * Retrieve the number of observations.
+		 *
+		 * @return number of observations.
+		 */
+		public long getCount() {
+			return this.count;
+		}
+
+		/**
+		 * Retrieve the exact average of all observations.
+		 *
+		 * @return the average.
+		 */
+		public double getMean() {
+			this.checkCount();
+			return (double) this.sum / this.count;
+		}
+
+		/**
+		 * Retrieve the standard deviation of all observations, estimated from the buckets.
+		 *
+		 * @return the standard deviation.
+		 */
+		public double getStandardDeviation() {
+			this.checkCount();
+			if (this.count == 1) {
+				return 0;
+			}
+
+			double mean = this.getMean();
+			double squares = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				if (this.buckets[i] > 0) {
+					double delta = bucketLowerBound(i) + (bucketWidth(i) - 1) / 2.0 - mean;
+					squares += delta * delta * this.buckets[i];
+				}
+			}
+
+			return Math.sqrt(squares / (this.count - 1));
+		}
+
+		/**
+		 * Retrieve the exact minimum observation.
+		 *
+		 * @return the minimum.
+		 */
+		public long getMinimum() {
+			this.checkCount();
+			return this.minimum;
+		}
+
+		/**
+		 * Retrieve the exact maximum observation.
+		 *
+		 * @return the maximum.
+		 */
+		public long getMaximum() {
+			this.checkCount();
+			return this.maximum;
+		}
+
+		/**
+		 * Retrieve the value below which the given fraction of observations fall.
+		 *
+		 * @param quantile - the fraction, between 0 and 1. For instance 0.99 for the 99th percentile.
+		 * @return the highest value of the bucket holding the percentile, but never more than the maximum.
+		 */
+		public long getPercentile(double quantile) {
+			this.checkCount();
+			if (quantile < 0 || quantile > 1) {
+				throw new IllegalArgumentException("quantile must be between 0 and 1, got " + quantile);
+			}
+
+			long rank = Math.max(1, (long) Math.ceil(quantile * this.count));
+			long seen = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				seen += this.buckets[i];
+				if (seen >= rank) {
+					long highest = bucketLowerBound(i) + bucketWidth(i) - 1;
+					return Math.max(this.minimum, Math.min(highest, this.maximum));
+				}
+			}
+
+			return this.maximum;
+		}
+
+		private void checkCount() {
+			if (this.count == 0) {
+				throw new IllegalStateException("No observations in histogram.");
+			}
+		}
+	}
+}
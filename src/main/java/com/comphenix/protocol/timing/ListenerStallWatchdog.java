@@ -0,0 +1,208 @@
+package com.comphenix.protocol.timing;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.error.ErrorReporter;
+import com.comphenix.protocol.error.Report;
+import com.comphenix.protocol.error.ReportType;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketListener;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Detects packet listeners which block the thread they are called on, usually a netty event loop shared by many
+ * players, for longer than a configured threshold.
+ * <p>
+ * Every thread invoking listeners publishes the invocation it is currently in. A background thread samples these
+ * invocations and reports each one exceeding the threshold once, together with a stack trace of the blocked thread.
+ * Reports of the same listener and packet type are rate limited. While the watchdog is stopped, marking an invocation
+ * is a single volatile read:
+ * <pre>{@code
+ * ListenerStallWatchdog.InFlight inFlight = ListenerStallWatchdog.enter(listener, packetType);
+ * invoke(listener);
+ * ListenerStallWatchdog.exit(inFlight);
+ * }</pre>
+ */
+public final class ListenerStallWatchdog {
+
+	public static final int DEFAULT_THRESHOLD_MILLIS = 500;
+
+	private static final ReportType REPORT_LISTENER_STALL = new ReportType(
+			"Listener %s of plugin %s blocked its thread for more than %s ms while handling %s.");
+
+	// don't spam the log with a listener which is constantly slow
+	private static final long REPORT_RATE_LIMIT_SECONDS = 60;
+
+	private static final ThreadLocal<InFlight> IN_FLIGHT = ThreadLocal.withInitial(InFlight::register);
+	private static final Set<InFlight> SLOTS = ConcurrentHashMap.newKeySet();
+
+	private static volatile ListenerStallWatchdog instance;
+
+	private final ErrorReporter reporter;
+	private final long thresholdMillis;
+	private final long thresholdNanos;
+	private final ScheduledExecutorService executor;
+
+	private ListenerStallWatchdog(ErrorReporter reporter, long thresholdMillis) {
+		this.reporter = reporter;
+		this.thresholdMillis = thresholdMillis;
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+		this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("ProtocolLib Listener Watchdog")
+				.setDaemon(true)
+				.build());
+
+		// sample often enough to notice a stall shortly after it crossed the threshold
+		long interval = Math.max(10, thresholdMillis / 4);
+		this.executor.scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Start, restart or stop the watchdog.
+	 *
+	 * @param reporter        - the reporter to report stalled listeners to.
+	 * @param thresholdMillis - the time a listener may block its thread, or 0 to stop the watchdog.
+	 */
+	public static synchronized void configure(ErrorReporter reporter, long thresholdMillis) {
+		ListenerStallWatchdog current = instance;
+		if (current != null && current.reporter == reporter && current.thresholdMillis == thresholdMillis) {
+			return;
+		}
+
+		shutdown();
+		if (thresholdMillis > 0) {
+			instance = new ListenerStallWatchdog(reporter, thresholdMillis);
+		}
+	}
+
+	/**
+	 * Stop the watchdog, if it is running.
+	 */
+	public static synchronized void shutdown() {
+		ListenerStallWatchdog current = instance;
+		if (current != null) {
+			instance = null;
+			current.executor.shutdownNow();
+		}
+	}
+
+	public static boolean isRunning() {
+		return instance != null;
+	}
+
+	/**
+	 * Mark the start of a listener invocation on the current thread.
+	 *
+	 * @param listener   - the invoked listener.
+	 * @param packetType - the packet type the listener is invoked for.
+	 * @return the marked invocation, to be passed to {@link #exit(InFlight)}, or NULL if nothing was marked.
+	 */
+	public static InFlight enter(PacketListener listener, PacketType packetType) {
+		if (instance == null) {
+			return null;
+		}
+
+		InFlight inFlight = IN_FLIGHT.get();
+
+		// a listener sending packets can cause nested invocations, the outer one is blocked by them as well
+		if (inFlight.startTime != 0) {
+			return null;
+		}
+
+		inFlight.listener = listener;
+		inFlight.packetType = packetType;
+		inFlight.startTime = System.nanoTime() | 1;
+		return inFlight;
+	}
+
+	/**
+	 * Mark the end of a listener invocation.
+	 *
+	 * @param inFlight - the invocation returned by {@link #enter(PacketListener, PacketType)}, may be NULL.
+	 */
+	public static void exit(InFlight inFlight) {
+		if (inFlight != null) {
+			inFlight.startTime = 0;
+			inFlight.listener = null;
+			inFlight.packetType = null;
+		}
+	}
+
+	private void sample() {
+		long now = System.nanoTime();
+
+		for (InFlight inFlight : SLOTS) {
+			if (!inFlight.thread.isAlive()) {
+				SLOTS.remove(inFlight);
+				continue;
+			}
+
+			long startTime = inFlight.startTime;
+			if (startTime == 0 || startTime == inFlight.reportedStartTime || now - startTime < this.thresholdNanos) {
+				continue;
+			}
+
+			PacketListener listener = inFlight.listener;
+			PacketType packetType = inFlight.packetType;
+			StackTraceElement[] stackTrace = inFlight.thread.getStackTrace();
+
+			// the invocation might have finished while we were reading it
+			if (inFlight.startTime != startTime || listener == null) {
+				continue;
+			}
+
+			inFlight.reportedStartTime = startTime;
+			this.report(inFlight.thread, listener, packetType, now - startTime, stackTrace);
+		}
+	}
+
+	private void report(Thread thread, PacketListener listener, PacketType packetType, long elapsed,
+			StackTraceElement[] stackTrace) {
+		// the elapsed time is not part of the report message, otherwise the rate limit would never apply
+		RuntimeException sample = new RuntimeException("Stack of " + thread.getName() + " after "
+				+ TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+		sample.setStackTrace(stackTrace);
+
+		try {
+			this.reporter.reportWarning(this, Report.newBuilder(REPORT_LISTENER_STALL)
+					.messageParam(listener.getClass().getName(), PacketAdapter.getPluginName(listener),
+							this.thresholdMillis, packetType)
+					.error(sample)
+					.rateLimit(REPORT_RATE_LIMIT_SECONDS, TimeUnit.SECONDS));
+		} catch (RuntimeException ignored) {
+			// the reporter might already be shut down, never kill the sampling thread
+		}
+	}
+
+	/**
+	 * The listener invocation a single thread is currently in.
+	 */
+	public static final class InFlight {
+
+		private final Thread thread;
+
+		private volatile PacketListener listener;
+		private volatile PacketType packetType;
+
+		// 0 while no listener is invoked, written last by the invoking thread
+		private volatile long startTime;
+
+		// only accessed by the sampling thread
+		private long reportedStartTime;
+
+		private InFlight(Thread thread) {
+			this.thread = thread;
+		}
+
+		private static InFlight register() {
+			InFlight inFlight = new InFlight(Thread.currentThread());
+			SLOTS.add(inFlight);
+			return inFlight;
+		}
+	}
+}
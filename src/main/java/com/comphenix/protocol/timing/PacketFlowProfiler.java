@@ -0,0 +1,228 @@
+package com.comphenix.protocol.timing;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketListener;
+
+/**
+ * Samples the processing of individual packets and records how long each stage took, from decoding over the
+ * listeners to encoding.
+ * <p>
+ * Packet flows are sampled at random, one in n flows on average is traced, and the finished traces are kept in a ring buffer, which can be exported
+ * in the collapsed stack format understood by common flame graph tools. The stacks are rooted at the direction,
+ * protocol and type of the packet, the values are nanoseconds. While the profiler is stopped, every instrumentation
+ * point only pays a single volatile read:
+ * <pre>{@code
+ * PacketFlowTrace trace = PacketFlowProfiler.current();
+ * if (trace != null) {
+ *     trace.lap(PacketFlowStage.DECODE);
+ * }
+ * }</pre>
+ */
+public final class PacketFlowProfiler {
+
+	public static final int DEFAULT_SAMPLE_RATE = 100;
+	public static final int DEFAULT_CAPACITY = 100_000;
+
+	private static final ThreadLocal<PacketFlowTrace> CURRENT = new ThreadLocal<>();
+
+	private static volatile Session session;
+
+	private PacketFlowProfiler() {
+		// static profiler
+	}
+
+	/**
+	 * Start profiling, unless the profiler is already running.
+	 *
+	 * @param sampleRate - trace one in this many packet flows, 1 traces every flow.
+	 * @param capacity   - the number of traces to keep, older traces are overwritten.
+	 * @return TRUE if the profiler was started, FALSE if it was already running.
+	 */
+	public static synchronized boolean start(int sampleRate, int capacity) {
+		if (sampleRate < 1) {
+			throw new IllegalArgumentException("sampleRate must be at least 1, got " + sampleRate);
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be at least 1, got " + capacity);
+		}
+
+		if (session != null) {
+			return false;
+		}
+
+		session = new Session(sampleRate, capacity);
+		return true;
+	}
+
+	/**
+	 * Stop profiling and export the recorded traces in the collapsed stack format.
+	 *
+	 * @param out - the destination of the collapsed stacks.
+	 * @return TRUE if the profiler was stopped, FALSE if it wasn't running.
+	 * @throws IOException If the destination could not be written to.
+	 */
+	public static boolean stop(Appendable out) throws IOException {
+		Session stopped;
+		synchronized (PacketFlowProfiler.class) {
+			stopped = session;
+			session = null;
+		}
+
+		if (stopped == null) {
+			return false;
+		}
+
+		stopped.writeCollapsed(out);
+		return true;
+	}
+
+	public static boolean isProfiling() {
+		return session != null;
+	}
+
+	/**
+	 * Begin a packet flow on the current thread, which must be followed by a call to {@link #end()}. A flow which begins
+	 * while another flow is traced on the same thread is folded into the outer trace.
+	 *
+	 * @return the trace of the new flow, or NULL if the flow is not traced or folded into an outer trace.
+	 */
+	public static PacketFlowTrace begin() {
+		Session current = session;
+		if (current == null) {
+			return null;
+		}
+
+		PacketFlowTrace outer = CURRENT.get();
+		if (outer != null && outer.session == current) {
+			outer.depth++;
+			return null;
+		}
+
+		if (current.sampleRate > 1 && ThreadLocalRandom.current().nextInt(current.sampleRate) != 0) {
+			// might be a leftover of a previous session
+			if (outer != null) {
+				CURRENT.remove();
+			}
+			return null;
+		}
+
+		PacketFlowTrace trace = new PacketFlowTrace(current);
+		CURRENT.set(trace);
+		return trace;
+	}
+
+	/**
+	 * End the packet flow started by the last call to {@link #begin()} on the current thread, and record its trace if
+	 * it was the outermost traced flow.
+	 */
+	public static void end() {
+		PacketFlowTrace trace = CURRENT.get();
+		if (trace == null) {
+			return;
+		}
+
+		if (trace.depth > 0) {
+			trace.depth--;
+			return;
+		}
+
+		// always cleared, even if the profiler was stopped in the meantime, as the trace references its session
+		CURRENT.remove();
+
+		Session current = session;
+		if (trace.session == current && trace.getPacketType() != null && trace.size() > 0) {
+			current.record(trace);
+		}
+	}
+
+	/**
+	 * Retrieve the trace of the packet flow on the current thread.
+	 *
+	 * @return the trace, or NULL if the current flow isn't traced.
+	 */
+	public static PacketFlowTrace current() {
+		if (session == null) {
+			return null;
+		}
+
+		PacketFlowTrace trace = CURRENT.get();
+		return trace != null && trace.depth == 0 ? trace : null;
+	}
+
+	/**
+	 * Retrieve the trace the current packet flow is folded into, if the flow was begun while another flow was traced
+	 * on the current thread.
+	 *
+	 * @return the trace of the outer flow, or NULL if the current flow isn't nested in a traced flow.
+	 */
+	public static PacketFlowTrace enclosing() {
+		if (session == null) {
+			return null;
+		}
+
+		PacketFlowTrace trace = CURRENT.get();
+		return trace != null && trace.depth > 0 ? trace : null;
+	}
+
+	private static String getFrameName(Object stage) {
+		if (stage instanceof PacketFlowStage) {
+			return ((PacketFlowStage) stage).getFrameName();
+		}
+
+		PacketListener listener = (PacketListener) stage;
+		return "listeners;" + sanitize(PacketAdapter.getPluginName(listener)) + ";" + sanitize(listener.getClass().getName());
+	}
+
+	private static String sanitize(String frame) {
+		// the collapsed format separates frames by semicolons and the value by a space
+		return frame.replace(';', '_').replace(' ', '_');
+	}
+
+	static final class Session {
+
+		private final int sampleRate;
+		private final AtomicReferenceArray<PacketFlowTrace> traces;
+		private final AtomicLong next = new AtomicLong();
+
+		private Session(int sampleRate, int capacity) {
+			this.sampleRate = sampleRate;
+			this.traces = new AtomicReferenceArray<>(capacity);
+		}
+
+		private void record(PacketFlowTrace trace) {
+			int index = (int) (this.next.getAndIncrement() % this.traces.length());
+			this.traces.lazySet(index, trace);
+		}
+
+		private void writeCollapsed(Appendable out) throws IOException {
+			Map<String, Long> stacks = new TreeMap<>();
+
+			for (int i = 0; i < this.traces.length(); i++) {
+				PacketFlowTrace trace = this.traces.get(i);
+				if (trace == null) {
+					continue;
+				}
+
+				PacketType type = trace.getPacketType();
+				String root = (type.isClient() ? "inbound" : "outbound") + ";" + type.getProtocol().name() + ";"
+						+ sanitize(String.valueOf(type.name()));
+
+				for (int stage = 0; stage < trace.size(); stage++) {
+					stacks.merge(root + ";" + getFrameName(trace.getStage(stage)), trace.getDuration(stage), Long::sum);
+				}
+			}
+
+			for (Map.Entry<String, Long> entry : stacks.entrySet()) {
+				out.append(entry.getKey()).append(' ').append(Long.toString(entry.getValue())).append('\n');
+			}
+		}
+	}
+}
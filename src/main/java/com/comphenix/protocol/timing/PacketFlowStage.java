@@ -0,0 +1,48 @@
+package com.comphenix.protocol.timing;
+
+/**
+ * The stages of the packet processing recorded by the {@link PacketFlowProfiler}. Listener invocations are recorded
+ * as separate stages per listener.
+ */
+public enum PacketFlowStage {
+
+	/**
+	 * Decoding the packet from its network frame.
+	 */
+	DECODE("decode"),
+
+	/**
+	 * Resolving the protocol and the packet type of a packet.
+	 */
+	PROTOCOL_LOOKUP("protocol_lookup"),
+
+	/**
+	 * Wrapping the packet in a packet container.
+	 */
+	CONTAINER("container"),
+
+	/**
+	 * Handing the packet over to the asynchronous listeners.
+	 */
+	ASYNC_HANDOFF("async_handoff"),
+
+	/**
+	 * Encoding the packet into its network frame.
+	 */
+	ENCODE("encode");
+
+	private final String frameName;
+
+	PacketFlowStage(String frameName) {
+		this.frameName = frameName;
+	}
+
+	/**
+	 * Retrieve the name of the stage in an exported stack.
+	 *
+	 * @return the frame name.
+	 */
+	public String getFrameName() {
+		return this.frameName;
+	}
+}
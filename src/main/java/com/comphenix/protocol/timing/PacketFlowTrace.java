@@ -0,0 +1,116 @@
+package com.comphenix.protocol.timing;
+
+import java.util.Arrays;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketListener;
+
+/**
+ * The stages a single sampled packet went through on one thread, measured as laps between the instrumentation points.
+ * <p>
+ * A trace is only ever accessed by the thread that started it until it is handed to the {@link PacketFlowProfiler}.
+ */
+public final class PacketFlowTrace {
+
+	private static final int INITIAL_STAGES = 8;
+
+	final PacketFlowProfiler.Session session;
+
+	private PacketType packetType;
+
+	// either a PacketFlowStage or the invoked PacketListener
+	private Object[] stages = new Object[INITIAL_STAGES];
+	private long[] durations = new long[INITIAL_STAGES];
+	private int size;
+
+	private long lastMark;
+
+	// the amount of nested flows which are folded into this trace
+	int depth;
+
+	PacketFlowTrace(PacketFlowProfiler.Session session) {
+		this.session = session;
+		this.lastMark = System.nanoTime();
+	}
+
+	/**
+	 * Set the type of the traced packet, traces without a type are discarded.
+	 *
+	 * @param packetType - the packet type.
+	 */
+	public void setPacketType(PacketType packetType) {
+		this.packetType = packetType;
+	}
+
+	public PacketType getPacketType() {
+		return this.packetType;
+	}
+
+	/**
+	 * Start the next lap without recording the time since the previous one.
+	 */
+	public void mark() {
+		this.lastMark = System.nanoTime();
+	}
+
+	/**
+	 * Record the time since the previous lap as the given stage.
+	 *
+	 * @param stage - the stage.
+	 */
+	public void lap(PacketFlowStage stage) {
+		this.record(stage);
+	}
+
+	/**
+	 * Record the time since the previous lap as the invocation of the given listener.
+	 *
+	 * @param listener - the invoked listener.
+	 */
+	public void lap(PacketListener listener) {
+		this.record(listener);
+	}
+
+	/**
+	 * Record the time since the given start as the given stage, without starting the next lap. This is used by nested
+	 * flows folded into this trace, as their time is part of the lap of the outer flow as well.
+	 *
+	 * @param stage - the stage.
+	 * @param start - the start of the stage, as returned by {@link System#nanoTime()}.
+	 * @return the end of the stage.
+	 */
+	public long lap(PacketFlowStage stage, long start) {
+		long now = System.nanoTime();
+		this.append(stage, now - start);
+		return now;
+	}
+
+	private void record(Object stage) {
+		long now = System.nanoTime();
+		this.append(stage, now - this.lastMark);
+		this.lastMark = now;
+	}
+
+	private void append(Object stage, long duration) {
+		if (this.size == this.stages.length) {
+			this.stages = Arrays.copyOf(this.stages, this.size * 2);
+			this.durations = Arrays.copyOf(this.durations, this.size * 2);
+		}
+
+		this.stages[this.size] = stage;
+		this.durations[this.size] = duration;
+		this.size++;
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	Object getStage(int index) {
+		return this.stages[index];
+	}
+
+	long getDuration(int index) {
+		return this.durations[index];
+	}
+}
@@ -7,18 +7,29 @@ import com.comphenix.protocol.PacketType;
 
 public class PluginTimingTracker implements TimingTracker {
 
-	private final Map<PacketType, StatisticsStream> statistics = new ConcurrentHashMap<>();
+	private final Map<PacketType, LatencyHistogram> statistics = new ConcurrentHashMap<>();
 	private volatile boolean hasReceivedData = false;
 
 	@Override
 	public void track(PacketType packetType, Runnable runnable) {
 		long startTime = System.nanoTime();
 		runnable.run();
-		long endTime = System.nanoTime();
-
-		this.statistics.computeIfAbsent(packetType, key -> new StatisticsStream())
-				.observe(endTime - startTime);
+		this.track(packetType, System.nanoTime() - startTime);
+	}
 
+	/**
+	 * Record a single, already measured invocation.
+	 *
+	 * @param packetType - the packet type of the invocation.
+	 * @param elapsed    - the duration of the invocation in nanoseconds.
+	 */
+	public void track(PacketType packetType, long elapsed) {
+		LatencyHistogram histogram = this.statistics.get(packetType);
+		if (histogram == null) {
+			histogram = this.statistics.computeIfAbsent(packetType, key -> new LatencyHistogram());
+		}
+
+		histogram.observe(elapsed);
 		this.hasReceivedData = true;
 	}
 
@@ -26,7 +37,7 @@ public class PluginTimingTracker implements TimingTracker {
 		return hasReceivedData;
 	}
 
-	public Map<PacketType, StatisticsStream> getStatistics() {
+	public Map<PacketType, LatencyHistogram> getStatistics() {
 		return statistics;
 	}
 }
@@ -4,7 +4,10 @@ package com.comphenix.protocol.timing;
  * Represents an online algortihm for computing the mean and standard deviation without storing every value.
  *
  * @author Kristian
+ * @deprecated no longer used by ProtocolLib, the timings are recorded in a {@link LatencyHistogram} instead. This class
+ *             is only kept for compatibility and will be removed in a future version.
  */
+@Deprecated
 public class StatisticsStream {
     // This algorithm is due to Donald Knuth, as described in:
     //     Donald E. Knuth (1998). The Art of Computer Programming, volume 2:
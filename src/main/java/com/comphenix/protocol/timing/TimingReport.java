@@ -20,11 +20,12 @@ public class TimingReport {
     private static final String META_STOPPED = "Stopped: %s (after %s seconds)" + NEWLINE;
     private static final String PLUGIN_HEADER = "=== PLUGIN %s ===" + NEWLINE;
     private static final String LISTENER_HEADER = " TYPE: %s " + NEWLINE;
-    private static final String SEPERATION_LINE = " " + Strings.repeat("-", 139) + NEWLINE;
+    private static final String SEPERATION_LINE = " " + Strings.repeat("-", 203) + NEWLINE;
     private static final String STATISTICS_HEADER =
         " Protocol:      Name:                         Count:       Min (ms):       " +
-        "Max (ms):       Mean (ms):      Std (ms): " + NEWLINE;
-    private static final String STATISTICS_ROW =    " %-14s %-29s %-12d %-15.6f %-15.6f %-15.6f %.6f " + NEWLINE;
+        "Max (ms):       Mean (ms):      Std (ms):       P50 (ms):       P90 (ms):       P99 (ms):       P99.9 (ms): " + NEWLINE;
+    private static final String STATISTICS_ROW =
+        " %-14s %-29s %-12d %-15.6f %-15.6f %-15.6f %-15.6f %-15.6f %-15.6f %-15.6f %.6f " + NEWLINE;
     private static final String SUM_MAIN_THREAD = " => Time on main thread: %.6f ms" + NEWLINE;
 
 	private final Date startTime;
@@ -69,23 +70,24 @@ public class TimingReport {
 	}
 
     private void saveStatistics(Writer destination, PluginTimingTracker tracker, TimingListenerType type) throws IOException {
-        Map<PacketType, StatisticsStream> streams = tracker.getStatistics();
-        StatisticsStream sum = new StatisticsStream();
+        Map<PacketType, LatencyHistogram> histograms = tracker.getStatistics();
+        LatencyHistogram.Snapshot sum = LatencyHistogram.Snapshot.empty();
         int count = 0;
 
         destination.write(STATISTICS_HEADER);
         destination.write(SEPERATION_LINE);
 
         // Write every packet ID that we care about
-        for (PacketType key : new TreeSet<>(streams.keySet())) {
-            final StatisticsStream stream = streams.get(key);
+        for (PacketType key : new TreeSet<>(histograms.keySet())) {
+            final LatencyHistogram histogram = histograms.get(key);
+            final LatencyHistogram.Snapshot snapshot = histogram != null ? histogram.snapshot() : null;
 
-            if (stream != null && stream.getCount() > 0) {
-                printStatistic(destination, key, stream);
+            if (snapshot != null && snapshot.getCount() > 0) {
+                printStatistic(destination, key, snapshot);
 
                 // Add it
                 count++;
-                sum = sum.add(stream);
+                sum = sum.add(snapshot);
             }
         }
 
@@ -96,20 +98,24 @@ public class TimingReport {
         // These are executed on the main thread
         if (type == TimingListenerType.SYNC_OUTBOUND) {
             destination.write(String.format(SUM_MAIN_THREAD,
-                nanoToMillis(sum.getCount() * sum.getMean())
+                nanoToMillis(sum.getCount() > 0 ? sum.getCount() * sum.getMean() : 0)
             ));
         }
     }
 
-    private void printStatistic(Writer destination, PacketType key, final StatisticsStream stream) throws IOException {
+    private void printStatistic(Writer destination, PacketType key, final LatencyHistogram.Snapshot snapshot) throws IOException {
         destination.write(String.format(STATISTICS_ROW,
             key != null ? key.getProtocol() : "SUM",
             key != null ? key.name() : "-",
-            stream.getCount(),
-            nanoToMillis(stream.getMinimum()),
-            nanoToMillis(stream.getMaximum()),
-            nanoToMillis(stream.getMean()),
-            nanoToMillis(stream.getStandardDeviation())
+            snapshot.getCount(),
+            nanoToMillis(snapshot.getMinimum()),
+            nanoToMillis(snapshot.getMaximum()),
+            nanoToMillis(snapshot.getMean()),
+            nanoToMillis(snapshot.getStandardDeviation()),
+            nanoToMillis(snapshot.getPercentile(0.5)),
+            nanoToMillis(snapshot.getPercentile(0.9)),
+            nanoToMillis(snapshot.getPercentile(0.99)),
+            nanoToMillis(snapshot.getPercentile(0.999))
         ));
     }
 
@@ -18,6 +18,9 @@ public class TimingTrackerManager {
 
 	private static final Map<String, ImmutableMap<TimingListenerType, PluginTimingTracker>> TRACKER_MAP = new ConcurrentHashMap<>();
 
+	// incremented whenever the trackers are reset, so that resolved tracker slots can notice it
+	private static volatile int generation;
+
 	public static boolean startTracking() {
 		if (IS_TRACKING.compareAndSet(false, true)) {
 			startTime = Calendar.getInstance().getTime();
@@ -41,16 +44,41 @@ public class TimingTrackerManager {
 	public static TimingReport createReportAndReset() {
 		TimingReport report = new TimingReport(startTime, stopTime, ImmutableMap.copyOf(TRACKER_MAP));
 		TRACKER_MAP.clear();
+		generation++;
 		return report;
 	}
 
+	/**
+	 * Retrieve the tracker of a listener without a slot. Prefer {@link TimingTrackerSlot} on hot paths, which
+	 * resolves the trackers of the listener only once.
+	 *
+	 * @param listener - the listener to track.
+	 * @param type     - the type of the listener invocation.
+	 * @return the tracker, or {@link TimingTracker#EMPTY} if nothing is tracked.
+	 */
 	public static TimingTracker get(PacketListener listener, TimingListenerType type) {
 		if (!IS_TRACKING.get()) {
 			return TimingTracker.EMPTY;
 		}
 
+		return getTrackers(listener)[type.ordinal()];
+	}
+
+	static int getGeneration() {
+		return generation;
+	}
+
+	static PluginTimingTracker[] getTrackers(PacketListener listener) {
 		String plugin = listener.getPlugin().getName();
-		return TRACKER_MAP.computeIfAbsent(plugin, k -> newTrackerMap()).get(type);
+		ImmutableMap<TimingListenerType, PluginTimingTracker> trackers = TRACKER_MAP.computeIfAbsent(plugin, k -> newTrackerMap());
+
+		// index the trackers by the ordinal of their type
+		PluginTimingTracker[] indexed = new PluginTimingTracker[TimingListenerType.values().length];
+		for (Map.Entry<TimingListenerType, PluginTimingTracker> entry : trackers.entrySet()) {
+			indexed[entry.getKey().ordinal()] = entry.getValue();
+		}
+
+		return indexed;
 	}
 
 	private static ImmutableMap<TimingListenerType, PluginTimingTracker> newTrackerMap() {
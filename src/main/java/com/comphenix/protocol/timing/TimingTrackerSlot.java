@@ -0,0 +1,59 @@
+package com.comphenix.protocol.timing;
+
+import com.comphenix.protocol.events.PacketListener;
+
+/**
+ * Holds the trackers of a single listener, so that they are only looked up once per tracking session instead of once
+ * per packet.
+ * <p>
+ * Callers should check {@link TimingTrackerManager#isTracking()} before asking the slot for a tracker and measure the
+ * invocation themselves, which keeps the disabled state down to a single volatile read:
+ * <pre>{@code
+ * PluginTimingTracker tracker = TimingTrackerManager.isTracking() ? slot.get(type) : null;
+ * long start = tracker != null ? System.nanoTime() : 0;
+ * invoke(listener);
+ * if (tracker != null) {
+ *     tracker.track(packetType, System.nanoTime() - start);
+ * }
+ * }</pre>
+ */
+public final class TimingTrackerSlot {
+
+	private final PacketListener listener;
+
+	// immutable, so a racy update just resolves the trackers twice
+	private Resolved resolved;
+
+	public TimingTrackerSlot(PacketListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Retrieve the tracker of the listener for the given type in the current tracking session.
+	 *
+	 * @param type - the type of the listener invocation.
+	 * @return the tracker.
+	 */
+	public PluginTimingTracker get(TimingListenerType type) {
+		Resolved resolved = this.resolved;
+		int generation = TimingTrackerManager.getGeneration();
+
+		if (resolved == null || resolved.generation != generation) {
+			resolved = new Resolved(generation, TimingTrackerManager.getTrackers(this.listener));
+			this.resolved = resolved;
+		}
+
+		return resolved.trackers[type.ordinal()];
+	}
+
+	private static final class Resolved {
+
+		private final int generation;
+		private final PluginTimingTracker[] trackers;
+
+		public Resolved(int generation, PluginTimingTracker[] trackers) {
+			this.generation = generation;
+			this.trackers = trackers;
+		}
+	}
+}
@@ -40,6 +40,7 @@ public final class MinecraftMethods {
 
     // For network manager
     private volatile static MethodAccessor networkManagerHandle;
+    private volatile static Optional<MethodAccessor> networkManagerSend;
     private volatile static MethodAccessor networkManagerPacketRead;
 
     // For packet
@@ -147,6 +148,34 @@ public final class MinecraftMethods {
         return networkManagerHandle;
     }
 
+    /**
+     * Retrieve the send(Packet, PacketSendListener, boolean) method of network manager, which can send a packet
+     * without flushing the channel. Not every version of the network manager has this method.
+     *
+     * @return The send method, if present.
+     */
+    public static Optional<MethodAccessor> getNetworkManagerSendMethod() {
+        if (networkManagerSend == null) {
+            try {
+                Method sendMethod = FuzzyReflection
+                        .fromClass(MinecraftReflection.getNetworkManagerClass(), true)
+                        .getMethod(FuzzyMethodContract.newBuilder()
+                                .requireModifier(Modifier.PUBLIC)
+                                .banModifier(Modifier.STATIC)
+                                .returnTypeVoid()
+                                .parameterCount(3)
+                                .parameterExactType(MinecraftReflection.getPacketClass(), 0)
+                                .parameterExactType(boolean.class, 2)
+                                .build());
+                networkManagerSend = Optional.of(Accessors.getMethodAccessor(sendMethod));
+            } catch (IllegalArgumentException exception) {
+                networkManagerSend = Optional.empty();
+            }
+        }
+
+        return networkManagerSend;
+    }
+
     /**
      * Retrieve the packetRead(ChannelHandlerContext, Packet) method of NetworkManager.
      *
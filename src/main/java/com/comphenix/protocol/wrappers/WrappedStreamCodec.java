@@ -32,10 +32,10 @@ public class WrappedStreamCodec extends AbstractWrapper {
 	}
 
 	public Object decode(Object buffer) {
-		return DECODE_ACCESSOR.invoke(handle, buffer);
+		return DECODE_ACCESSOR.invoke1(handle, buffer);
 	}
 
 	public void encode(Object buffer, Object value) {
-		ENCODE_ACCESSOR.invoke(handle, buffer, value);
+		ENCODE_ACCESSOR.invoke2(handle, buffer, value);
 	}
 }
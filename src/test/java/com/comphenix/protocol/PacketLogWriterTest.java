@@ -0,0 +1,55 @@
+package com.comphenix.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PacketLogWriterTest {
+
+    @BeforeAll
+    public static void beforeClass() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testWritePackets() {
+        StringWriter output = new StringWriter();
+        PacketLogWriter writer = new PacketLogWriter(output, true, false, 16, Logger.getGlobal());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(writer.log(PacketType.Play.Server.KEEP_ALIVE, new byte[]{1, 2, 3, 4}));
+        }
+        writer.close();
+
+        assertFalse(writer.log(PacketType.Play.Server.KEEP_ALIVE, new byte[]{1, 2, 3, 4}));
+        assertEquals(1, writer.getDropped());
+
+        String log = output.toString();
+        String header = PacketType.Play.Server.KEEP_ALIVE + ":";
+        int headers = 0;
+        for (int index = log.indexOf(header); index >= 0; index = log.indexOf(header, index + 1)) {
+            headers++;
+        }
+
+        assertEquals(4, headers);
+        assertFalse(log.contains("Dropped"), log);
+    }
+
+    @Test
+    public void testDropWhenFull() {
+        StringWriter output = new StringWriter();
+        PacketLogWriter writer = new PacketLogWriter(output, true, true, 0, Logger.getGlobal());
+
+        assertFalse(writer.log(PacketType.Play.Server.KEEP_ALIVE, new byte[]{1}));
+        assertFalse(writer.log(PacketType.Play.Server.KEEP_ALIVE, new byte[]{1}));
+        writer.close();
+
+        assertEquals(2, writer.getDropped());
+        assertTrue(output.toString().contains("Dropped 2 packets, as the log queue was full."), output.toString());
+    }
+}
@@ -19,7 +19,9 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,6 +37,7 @@ import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.injector.packet.PacketRegistry;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.wrappers.WrappedChatComponent;
+import com.google.common.collect.Sets;
 
 import net.minecraft.network.protocol.login.PacketLoginInStart;
 
@@ -257,6 +260,19 @@ public class PacketTypeTest {
         }
     }
 
+    @Test
+    public void testIndex() {
+        Set<Integer> indices = new HashSet<>();
+        for (PacketType type : PacketType.values()) {
+            assertTrue(type.getIndex() >= 0);
+            assertEquals(type.getIndex(), type.clone().getIndex());
+            indices.add(type.getIndex());
+        }
+
+        // equal packet types share their index, distinct ones don't
+        assertEquals(Sets.newHashSet(PacketType.values()).size(), indices.size());
+    }
+
     @Test
     public void testLoginStart() {
         // This packet is critical for handleLoin
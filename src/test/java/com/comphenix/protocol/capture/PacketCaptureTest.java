@@ -0,0 +1,148 @@
+package com.comphenix.protocol.capture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.PacketType.Protocol;
+import com.comphenix.protocol.PacketType.Sender;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.injector.netty.WirePacket;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PacketCaptureTest {
+
+    @TempDir
+    File directory;
+
+    @BeforeAll
+    public static void beforeClass() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testSegmentRotation() throws IOException {
+        UUID playerId = UUID.randomUUID();
+
+        // room for three records of 100 bytes per segment
+        int segmentSize = PacketCaptureRecord.SEGMENT_HEADER_SIZE + 3 * (PacketCaptureRecord.RECORD_HEADER_SIZE + 100);
+        PacketCaptureWriter writer = new PacketCaptureWriter(this.directory, "test", segmentSize, 2, 1024 * 1024,
+                Logger.getGlobal());
+        for (int i = 0; i < 10; i++) {
+            byte[] payload = new byte[100];
+            payload[0] = (byte) i;
+            assertTrue(writer.capture(new PacketCaptureRecord(i, Sender.SERVER, Protocol.PLAY, i, i % 2 == 0 ? playerId : null, payload)));
+        }
+
+        // too large for a segment
+        assertFalse(writer.capture(new PacketCaptureRecord(0, Sender.SERVER, Protocol.PLAY, 0, null, new byte[segmentSize])));
+        writer.close();
+        assertFalse(writer.capture(new PacketCaptureRecord(0, Sender.SERVER, Protocol.PLAY, 0, null, new byte[1])));
+
+        assertEquals(10, writer.getCaptured());
+        assertEquals(2, writer.getDropped());
+
+        // the oldest two segments were deleted
+        List<File> segments = PacketCaptureReader.findSegments(this.directory, "test");
+        assertEquals(2, segments.size());
+        assertEquals("test-2.bin", segments.get(0).getName());
+        assertEquals("test-3.bin", segments.get(1).getName());
+
+        List<PacketCaptureRecord> records = new ArrayList<>();
+        for (File segment : segments) {
+            try (PacketCaptureReader reader = new PacketCaptureReader(segment)) {
+                reader.forEach(records::add);
+                assertNull(reader.next());
+            }
+        }
+
+        assertEquals(4, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            PacketCaptureRecord record = records.get(i);
+            assertEquals(i + 6, record.getTimestamp());
+            assertEquals(Sender.SERVER, record.getDirection());
+            assertEquals(Protocol.PLAY, record.getProtocol());
+            assertEquals(i + 6, record.getPacketId());
+            assertEquals(i % 2 == 0 ? playerId : null, record.getPlayerId());
+            assertEquals(i + 6, record.getPayload()[0]);
+        }
+    }
+
+    @Test
+    public void testPacketRoundTrip() throws IOException {
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.KEEP_ALIVE);
+        packet.getLongs().write(0, 1234L);
+
+        byte[] payload = WirePacket.bytesFromPacket(packet);
+        PacketType type = PacketType.Play.Server.KEEP_ALIVE;
+
+        try (PacketCaptureWriter writer = new PacketCaptureWriter(this.directory, "packets", 4096, 1, 4096,
+                Logger.getGlobal())) {
+            assertTrue(writer.capture(new PacketCaptureRecord(0, type.getSender(), type.getProtocol(), type.getCurrentId(), null, payload)));
+        }
+
+        try (PacketCaptureReader reader = new PacketCaptureReader(new File(this.directory, "packets-0.bin"))) {
+            PacketCaptureRecord record = reader.next();
+            assertEquals(type, record.getPacketType());
+            assertArrayEquals(payload, record.getPayload());
+
+            PacketContainer replayed = record.toPacket();
+            assertEquals(type, replayed.getType());
+            assertEquals(1234L, replayed.getLongs().read(0));
+        }
+    }
+
+    @Test
+    public void testWriteFailure() throws IOException {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+
+        List<LogRecord> logged = new ArrayList<>();
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                logged.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        // the segment can't be created once the directory was replaced by a file
+        File captureDirectory = new File(this.directory, "capture");
+        PacketCaptureWriter writer = new PacketCaptureWriter(captureDirectory, "test", 4096, 1, 4096, logger);
+        Files.delete(captureDirectory.toPath());
+        Files.createFile(captureDirectory.toPath());
+
+        assertTrue(writer.capture(new PacketCaptureRecord(0, Sender.SERVER, Protocol.PLAY, 0, null, new byte[1])));
+        assertThrows(IOException.class, writer::close);
+        assertEquals(0, writer.getCaptured());
+
+        // the failure is reported by the writer thread, not only when the capture is closed
+        assertEquals(1, logged.size());
+        assertEquals(Level.SEVERE, logged.get(0).getLevel());
+        assertTrue(logged.get(0).getThrown() instanceof IOException);
+    }
+}
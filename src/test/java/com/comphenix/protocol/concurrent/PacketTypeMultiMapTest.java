@@ -43,7 +43,9 @@ public class PacketTypeMultiMapTest {
 				.build();
 
 		assertFalse(map.contains(PacketType.Login.Client.START));
+		assertTrue(map.isEmpty());
 		map.put(a, 1);
+		assertFalse(map.isEmpty());
 		map.put(c, 1);
 		map.put(b, 2);
 		map.put(c, 3);
@@ -65,6 +67,14 @@ public class PacketTypeMultiMapTest {
 		assertFalse(iterator.hasNext());
 		assertThrows(NoSuchElementException.class, () -> iterator.next());
 
+		PacketTypeMultiMap.Entries<Integer> entries = map.getEntries(PacketType.Login.Client.START);
+		assertEquals(3, entries.size());
+		assertEquals(4, entries.get(0));
+		assertEquals(ListenerPriority.LOW, entries.getPriority(0));
+		assertEquals(ListenerPriority.NORMAL, entries.getPriority(1));
+		assertEquals(ListenerPriority.HIGH, entries.getPriority(2));
+		assertEquals(0, map.getEntries(PacketType.Play.Client.CHAT).size());
+
 		map.remove(a, 1);
 		map.remove(a, 2); // try to remove a element with the wrong packet types
 
@@ -73,6 +83,9 @@ public class PacketTypeMultiMapTest {
 		assertEquals(3, iteratorB.next());
 		assertThrows(NoSuchElementException.class, () -> iteratorB.next());
 
+		// previously retrieved entries are not affected by modifications
+		assertEquals(3, entries.size());
+
 		map.remove(a, 3);
 		map.remove(a, 4);
 		map.remove(a, 4); // try to remove something that isn't even there
@@ -81,6 +94,7 @@ public class PacketTypeMultiMapTest {
 		map.put(a, 1);
 		map.clear();
 		assertTrue(map.getPacketTypes().isEmpty());
+		assertTrue(map.isEmpty());
 
 		Iterator<Integer> iteratorC = map.get(PacketType.Login.Client.START).iterator();
 		assertFalse(iteratorC.hasNext());
@@ -0,0 +1,65 @@
+package com.comphenix.protocol.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.reflect.FieldAccessException;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PacketFieldSchemaTest {
+
+    @BeforeAll
+    public static void beforeClass() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testPrimitiveFields() {
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+
+        IntField entityId = PacketContainer.getIntField(PacketType.Play.Server.SPAWN_ENTITY, 0);
+        DoubleField z = PacketContainer.getDoubleField(PacketType.Play.Server.SPAWN_ENTITY, 2);
+
+        entityId.set(packet, 1234);
+        z.set(packet, -12.5D);
+
+        assertEquals(1234, entityId.get(packet));
+        assertEquals(1234, packet.getIntegers().read(0));
+        assertEquals(-12.5D, z.get(packet));
+        assertEquals(-12.5D, packet.getDoubles().read(2));
+
+        packet.getIntegers().write(0, 42);
+        assertEquals(42, entityId.get(packet));
+    }
+
+    @Test
+    public void testObjectFields() {
+        PacketFieldSchema schema = PacketContainer.getFieldSchema(PacketType.Play.Server.SPAWN_ENTITY, UUID.class);
+        assertSame(schema, PacketContainer.getFieldSchema(PacketType.Play.Server.SPAWN_ENTITY, UUID.class));
+        assertEquals(1, schema.size());
+
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+        PacketField<UUID> uuid = schema.field(0);
+
+        UUID id = UUID.randomUUID();
+        uuid.write(packet, id);
+        assertEquals(id, uuid.read(packet));
+        assertEquals(id, packet.getUUIDs().read(0));
+    }
+
+    @Test
+    public void testInvalidAccess() {
+        PacketFieldSchema schema = PacketContainer.getFieldSchema(PacketType.Play.Server.SPAWN_ENTITY, int.class);
+        assertThrows(FieldAccessException.class, () -> schema.field(schema.size()));
+        assertThrows(FieldAccessException.class, () -> schema.doubleField(0));
+
+        IntField entityId = schema.intField(0);
+        PacketContainer other = new PacketContainer(PacketType.Play.Server.KEEP_ALIVE);
+        assertThrows(IllegalArgumentException.class, () -> entityId.get(other));
+    }
+}
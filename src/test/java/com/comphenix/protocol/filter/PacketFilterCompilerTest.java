@@ -0,0 +1,111 @@
+package com.comphenix.protocol.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.CommandFilter;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.utility.ByteBuddyGenerated;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PacketFilterCompilerTest {
+
+    private static final UUID ENTITY_ID = UUID.fromString("c2b5a0c1-3f0b-4c8e-9d3a-2b6c1f7e8a90");
+
+    @BeforeAll
+    public static void beforeClass() {
+        BukkitInitialization.initializeAll();
+    }
+
+    private static PacketEvent createEvent() {
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+        packet.getIntegers().write(0, 42);
+        packet.getUUIDs().write(0, ENTITY_ID);
+        packet.getDoubles().write(0, 1.5D);
+
+        return PacketEvent.fromServer(new Object(), packet, mock(Player.class));
+    }
+
+    private static boolean test(String expression, PacketEvent event) throws FilterSyntaxException {
+        return PacketFilterCompiler.compile(expression).test(event);
+    }
+
+    @Test
+    public void testExpressions() throws FilterSyntaxException {
+        PacketEvent event = createEvent();
+
+        assertTrue(test("type == PLAY.SERVER.SPAWN_ENTITY", event));
+        assertTrue(test("type != play.server.keep_alive", event));
+        assertTrue(test("integers[0] > 5 && !cancelled", event));
+        assertTrue(test("integers[0] == 42.0 && integers[0] <= 42 && integers[0] >= 42", event));
+        assertFalse(test("integers[0] < 42 || integers[0] > 42", event));
+        assertTrue(test("integers[0] < 0 || (doubles[0] >= 1.5 && uuids[0] == '" + ENTITY_ID + "')", event));
+        assertFalse(test("!(integers[0] != -1)", event));
+        assertTrue(test("true && !false", event));
+
+        event.setCancelled(true);
+        assertFalse(test("!cancelled", event));
+        assertTrue(test("cancelled == true", event));
+    }
+
+    @Test
+    public void testIncomparableValues() throws FilterSyntaxException {
+        PacketEvent event = createEvent();
+        assertThrows(IllegalArgumentException.class, () -> test("uuids[0] > 1", event));
+    }
+
+    @Test
+    public void testSyntaxErrors() {
+        FilterSyntaxException incomplete = assertThrows(FilterSyntaxException.class,
+                () -> PacketFilterCompiler.validate("integers[0] >"));
+        assertTrue(incomplete.isEndOfInput());
+
+        assertTrue(assertThrows(FilterSyntaxException.class,
+                () -> PacketFilterCompiler.validate("(integers[0] > 1")).isEndOfInput());
+
+        FilterSyntaxException unknown = assertThrows(FilterSyntaxException.class,
+                () -> PacketFilterCompiler.validate("unknown > 1"));
+        assertFalse(unknown.isEndOfInput());
+        assertEquals(0, unknown.getPosition());
+
+        assertFalse(assertThrows(FilterSyntaxException.class,
+                () -> PacketFilterCompiler.validate("type == PLAY.SERVER.NOT_A_PACKET")).isEndOfInput());
+        assertFalse(assertThrows(FilterSyntaxException.class,
+                () -> PacketFilterCompiler.validate("integers[0] > 1 )")).isEndOfInput());
+    }
+
+    @Test
+    public void testFilterClassLoaders() throws FilterSyntaxException {
+        Predicate<PacketEvent> first = PacketFilterCompiler.compile("true");
+        Predicate<PacketEvent> second = PacketFilterCompiler.compile("true");
+
+        // each filter lives in its own class loader, so it can be unloaded once it's discarded
+        assertInstanceOf(ByteBuddyGenerated.class, first);
+        assertNotSame(first.getClass().getClassLoader(), second.getClass().getClassLoader());
+    }
+
+    @Test
+    public void testCommandFilter() throws FilterSyntaxException {
+        Set<PacketType> packets = Collections.singleton(PacketType.Play.Server.SPAWN_ENTITY);
+
+        assertTrue(new CommandFilter.Filter("spawn", "integers[0] == 42", packets).evaluate(createEvent()));
+        assertFalse(CommandFilter.Filter.compile("spawn", "integers[0] != 42", packets).evaluate(createEvent()));
+
+        assertThrows(IllegalArgumentException.class, () -> new CommandFilter.Filter("spawn", "integers[0] >", packets));
+        assertThrows(FilterSyntaxException.class, () -> CommandFilter.Filter.compile("spawn", "integers[0] >", packets));
+    }
+}
@@ -1,10 +1,13 @@
 package com.comphenix.protocol.injector;
 
 import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StructureCacheTests {
@@ -23,4 +26,14 @@ public class StructureCacheTests {
 			assertTrue(ex.getMessage().contains("Cannot inject already loaded type"));
 		}
 	}
+
+	@Test
+	public void testWarmUp() {
+		StructureCache.warmUp(PacketType.values());
+
+		// the warmed up modifiers are the ones handed out to packet containers
+		PacketContainer packet = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+		packet.getIntegers().write(0, 42);
+		assertEquals(42, packet.getIntegers().read(0));
+	}
 }
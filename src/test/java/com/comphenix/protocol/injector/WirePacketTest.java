@@ -5,13 +5,21 @@ package com.comphenix.protocol.injector;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.comphenix.protocol.BukkitInitialization;
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.injector.netty.ByteBufWirePacket;
 import com.comphenix.protocol.injector.netty.WirePacket;
+import com.comphenix.protocol.wrappers.CustomPacketPayloadWrapper;
+import com.comphenix.protocol.wrappers.MinecraftKey;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -66,4 +74,59 @@ public class WirePacketTest {
         assertEquals(id, backId);
         assertArrayEquals(array, backArray);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEncodeFully() {
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.KEEP_ALIVE);
+        packet.getLongs().write(0, 1337L);
+
+        ByteBuf buf = WirePacket.encodeFully(packet);
+        try {
+            assertEquals(PacketType.Play.Server.KEEP_ALIVE.getCurrentId(), WirePacket.readVarInt(buf));
+            assertEquals(1337L, buf.readLong());
+            assertEquals(0, buf.readableBytes());
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Test
+    public void testCustomPayloadUnchanged() {
+        byte[] payload = "Hello World, This is A Super-Cool-Test!!!!!".getBytes(StandardCharsets.UTF_8);
+
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.CUSTOM_PAYLOAD);
+        packet.getCustomPacketPayloads().write(0, new CustomPacketPayloadWrapper(payload, new MinecraftKey("protocollib", "test")));
+        Object handle = packet.getHandle();
+
+        byte[] first = WirePacket.bytesFromPacket(packet);
+        assertArrayEquals(payload, Arrays.copyOfRange(first, first.length - payload.length, first.length));
+
+        // the source packet must neither be replaced nor consumed by serializing it
+        assertSame(handle, packet.getHandle());
+        assertArrayEquals(payload, packet.getCustomPacketPayloads().read(0).getPayload());
+        assertArrayEquals(first, WirePacket.bytesFromPacket(packet));
+    }
+
+    @Test
+    public void testByteBufSerialization() {
+        int id = 42;
+        byte[] array = {1, 3, 7, 21, 88, 67, 8};
+
+        ByteBufWirePacket packet = new ByteBufWirePacket(id, Unpooled.wrappedBuffer(array));
+        assertArrayEquals(array, packet.getBytes());
+        assertEquals(new ByteBufWirePacket(id, Unpooled.wrappedBuffer(array)), packet);
+
+        ByteBuf buf = packet.serialize();
+        assertEquals(2, packet.refCnt());
+
+        int backId = WirePacket.readVarInt(buf);
+        byte[] backArray = new byte[buf.readableBytes()];
+        buf.readBytes(backArray);
+
+        assertEquals(id, backId);
+        assertArrayEquals(array, backArray);
+
+        buf.release();
+        assertTrue(packet.release());
+    }
+}
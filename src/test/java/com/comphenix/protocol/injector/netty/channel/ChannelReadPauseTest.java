@@ -0,0 +1,33 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+public class ChannelReadPauseTest {
+
+    @Test
+    public void testNestedPauses() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+
+        ChannelReadPause.pause(channel);
+        ChannelReadPause.pause(channel);
+        assertFalse(channel.config().isAutoRead());
+
+        // the second pause is still held
+        ChannelReadPause.resume(channel);
+        assertTrue(ChannelReadPause.isPaused(channel));
+        assertFalse(channel.config().isAutoRead());
+
+        ChannelReadPause.resume(channel);
+        assertFalse(ChannelReadPause.isPaused(channel));
+        assertTrue(channel.config().isAutoRead());
+
+        // unbalanced resumes don't allow the next pause to be skipped
+        ChannelReadPause.resume(channel);
+        ChannelReadPause.pause(channel);
+        assertFalse(channel.config().isAutoRead());
+    }
+}
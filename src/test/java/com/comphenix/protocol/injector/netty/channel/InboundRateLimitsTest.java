@@ -0,0 +1,49 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class InboundRateLimitsTest {
+
+    @BeforeAll
+    public static void beforeClass() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testBurstAndRefill() {
+        InboundRateLimits limits = new InboundRateLimits(InboundRateLimits.Action.DROP,
+                Collections.singletonMap(PacketType.Play.Client.CUSTOM_PAYLOAD, 4));
+        long[] state = limits.newState();
+        long now = System.nanoTime();
+
+        // a full second worth of packets may be sent at once
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, limits.acquire(state, PacketType.Play.Client.CUSTOM_PAYLOAD, now));
+        }
+
+        long wait = limits.acquire(state, PacketType.Play.Client.CUSTOM_PAYLOAD, now);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250), wait);
+
+        // other packets are not limited
+        assertEquals(0, limits.acquire(state, PacketType.Play.Client.CHAT, now));
+
+        // one token is refilled after a quarter of a second
+        assertEquals(0, limits.acquire(state, PacketType.Play.Client.CUSTOM_PAYLOAD, now + wait));
+        assertTrue(limits.acquire(state, PacketType.Play.Client.CUSTOM_PAYLOAD, now + wait) > 0);
+    }
+
+    @Test
+    public void testDisabled() {
+        assertTrue(InboundRateLimits.DISABLED.isEmpty());
+        assertEquals(0, InboundRateLimits.DISABLED.acquire(InboundRateLimits.DISABLED.newState(),
+                PacketType.Play.Client.CUSTOM_PAYLOAD, System.nanoTime()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.comphenix.protocol.error.ErrorReporter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class MainThreadPacketQueueTest {
+
+    @Test
+    public void testTickBudget() {
+        MainThreadPacketQueue queue = new MainThreadPacketQueue(mock(ErrorReporter.class));
+        queue.setTickBudget(3);
+
+        AtomicInteger processed = new AtomicInteger();
+        EmbeddedChannel channel = new EmbeddedChannel();
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(channel, processed::incrementAndGet);
+        }
+
+        queue.drain();
+        assertEquals(3, processed.get());
+        assertEquals(2, queue.size());
+
+        queue.drain();
+        assertEquals(5, processed.get());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testBackPressure() {
+        MainThreadPacketQueue queue = new MainThreadPacketQueue(mock(ErrorReporter.class));
+        queue.setTickBudget(2);
+        queue.setBacklogLimit(4);
+
+        EmbeddedChannel channel = new EmbeddedChannel();
+        for (int i = 0; i < 4; i++) {
+            queue.enqueue(channel, () -> {
+            });
+        }
+
+        assertTrue(channel.config().isAutoRead());
+
+        queue.enqueue(channel, () -> {
+        });
+        assertFalse(channel.config().isAutoRead());
+
+        // 3 packets left, still above half of the limit
+        queue.drain();
+        assertFalse(channel.config().isAutoRead());
+
+        queue.drain();
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    public void testSharedPause() {
+        MainThreadPacketQueue queue = new MainThreadPacketQueue(mock(ErrorReporter.class));
+        queue.setBacklogLimit(1);
+
+        EmbeddedChannel channel = new EmbeddedChannel();
+        queue.enqueue(channel, () -> {
+        });
+        queue.enqueue(channel, () -> {
+        });
+        assertFalse(channel.config().isAutoRead());
+
+        // the rate limiter still delays packets of the channel
+        ChannelReadPause.pause(channel);
+        queue.drain();
+        assertFalse(channel.config().isAutoRead());
+
+        ChannelReadPause.resume(channel);
+        assertTrue(channel.config().isAutoRead());
+    }
+}
@@ -0,0 +1,126 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.error.ErrorReporter;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.events.PacketPostListener;
+import com.comphenix.protocol.injector.netty.ChannelListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.protocol.EnumProtocolDirection;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class NettyChannelInjectorTest {
+
+    @BeforeAll
+    public static void beforeClass() {
+        BukkitInitialization.initializeAll();
+    }
+
+    private static PacketContainer keepAlive(long id) {
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.KEEP_ALIVE);
+        packet.getLongs().write(0, id);
+        return packet;
+    }
+
+    @Test
+    public void testSendServerPackets() {
+        List<Object> written = new ArrayList<>();
+        List<Integer> flushes = new ArrayList<>();
+
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast("recorder", new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                written.add(msg);
+                ctx.write(msg, promise);
+            }
+
+            @Override
+            public void flush(ChannelHandlerContext ctx) {
+                flushes.add(written.size());
+                ctx.flush();
+            }
+        });
+        channel.pipeline().addLast("decoder", new ChannelInboundHandlerAdapter());
+        channel.pipeline().addLast("encoder", new ChannelOutboundHandlerAdapter());
+
+        ChannelListener listener = mock(ChannelListener.class);
+        when(listener.hasOutboundListeners()).thenReturn(true);
+
+        ErrorReporter reporter = mock(ErrorReporter.class);
+        NettyChannelInjector injector = new NettyChannelInjector(
+                null,
+                mock(Server.class),
+                new NetworkManager(EnumProtocolDirection.a),
+                channel,
+                listener,
+                mock(InjectionFactory.class),
+                reporter);
+        assertTrue(injector.inject());
+
+        PacketContainer first = keepAlive(1);
+        PacketContainer second = keepAlive(2);
+        PacketContainer third = keepAlive(3);
+
+        // failures of post listeners are only reported, so the state is recorded and checked afterwards
+        List<PacketEvent> posted = new ArrayList<>();
+        List<Object> writtenBeforePost = new ArrayList<>();
+        PacketEvent event = PacketEvent.fromServer(this, second, null, null);
+        event.getNetworkMarker().addPostListener(new PacketPostListener() {
+            @Override
+            public Plugin getPlugin() {
+                return null;
+            }
+
+            @Override
+            public void onPostEvent(PacketEvent postEvent) {
+                posted.add(postEvent);
+                writtenBeforePost.addAll(written);
+                flushes.add(-1);
+            }
+        });
+
+        injector.sendServerPackets(
+                Arrays.asList(first.getHandle(), second.getHandle(), third.getHandle()),
+                Collections.singletonList(event));
+
+        assertEquals(Arrays.asList(first.getHandle(), second.getHandle(), third.getHandle()), written);
+        assertEquals(1, posted.size());
+        assertSame(event, posted.get(0));
+
+        // the post listener runs once its packet was written, the channel is flushed once after the whole batch
+        assertEquals(Arrays.asList(first.getHandle(), second.getHandle()), writtenBeforePost);
+        assertEquals(Arrays.asList(-1, 3), flushes);
+
+        // the listeners were called before the packets were sent, they must not see the packets again
+        verify(listener, never()).onPacketSending(any(), any(), any());
+
+        for (Object packet : Arrays.asList(first.getHandle(), second.getHandle(), third.getHandle())) {
+            assertSame(packet, channel.readOutbound());
+        }
+        channel.finishAndReleaseAll();
+    }
+}
@@ -0,0 +1,97 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.metrics.PacketTraffic;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PacketTrafficMeterTest {
+
+    @BeforeAll
+    public static void beforeClass() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testOutboundTraffic() {
+        NettyChannelInjector injector = mock(NettyChannelInjector.class);
+        when(injector.getCurrentProtocol(PacketType.Sender.SERVER)).thenReturn(PacketType.Protocol.PLAY);
+
+        // the same order as in a real pipeline: the wire meter behind the prepender, the frame meter behind the
+        // encoder and the packet meter in front of it
+        PacketTrafficMeter meter = new PacketTrafficMeter(injector);
+        EmbeddedChannel channel = new EmbeddedChannel(
+                meter.getOutboundWire(),
+                new LengthPrepender(),
+                meter.getOutboundFrames(),
+                new SizeEncoder(),
+                meter.getOutboundPackets());
+
+        // the counters are indexed by the packet type, the array has to grow when a type with a higher index is sent
+        PacketType first = PacketType.Play.Server.KEEP_ALIVE;
+        PacketType second = PacketType.Play.Server.SPAWN_ENTITY;
+        if (first.getIndex() > second.getIndex()) {
+            PacketType lower = second;
+            second = first;
+            first = lower;
+        }
+
+        channel.writeOutbound(new PacketContainer(first).getHandle());
+        channel.writeOutbound(new PacketContainer(first).getHandle());
+        channel.writeOutbound(new PacketContainer(second).getHandle());
+
+        // non-packets are not counted
+        channel.writeOutbound(Unpooled.buffer().writeZero(7));
+
+        Map<PacketType, PacketTraffic> traffic = meter.getOutboundTraffic();
+        assertEquals(2, traffic.size());
+
+        PacketTraffic firstTraffic = traffic.get(first);
+        assertEquals(2, firstTraffic.getPackets());
+        assertEquals(2 * SizeEncoder.SIZE, firstTraffic.getBytes());
+        assertEquals(2 * (SizeEncoder.SIZE + LengthPrepender.SIZE), firstTraffic.getWireBytes());
+
+        PacketTraffic secondTraffic = traffic.get(second);
+        assertEquals(1, secondTraffic.getPackets());
+        assertEquals(SizeEncoder.SIZE, secondTraffic.getBytes());
+        assertEquals(SizeEncoder.SIZE + LengthPrepender.SIZE, secondTraffic.getWireBytes());
+
+        assertTrue(channel.finishAndReleaseAll());
+    }
+
+    private static final class SizeEncoder extends ChannelOutboundHandlerAdapter {
+
+        private static final int SIZE = 10;
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            ctx.write(msg instanceof ByteBuf ? msg : Unpooled.buffer().writeZero(SIZE), promise);
+        }
+    }
+
+    private static final class LengthPrepender extends ChannelOutboundHandlerAdapter {
+
+        private static final int SIZE = 2;
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            ByteBuf content = (ByteBuf) msg;
+            ByteBuf header = Unpooled.buffer(SIZE).writeShort(content.readableBytes());
+            ctx.write(Unpooled.wrappedBuffer(header, content), promise);
+        }
+    }
+}
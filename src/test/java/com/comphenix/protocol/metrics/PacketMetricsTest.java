@@ -0,0 +1,59 @@
+package com.comphenix.protocol.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PacketMetricsTest {
+
+    @BeforeAll
+    public static void beforeClass() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testCounters() {
+        PacketType type = PacketType.Play.Client.CHAT;
+        PacketMetrics.Counters counters = PacketMetrics.getCounters(type);
+        assertSame(counters, PacketMetrics.getCounters(type));
+
+        long packets = counters.getPackets();
+        long bytes = counters.getBytes();
+        long cancelled = counters.getCancelled();
+
+        PacketMetrics.recordPacket(type, 10);
+        PacketMetrics.recordPacket(type, 0);
+        PacketMetrics.recordBytes(type, 5);
+        PacketMetrics.recordListeners(type, 100, true);
+        PacketMetrics.recordListeners(type, 100, false);
+
+        assertEquals(packets + 2, counters.getPackets());
+        assertEquals(bytes + 15, counters.getBytes());
+        assertEquals(cancelled + 1, counters.getCancelled());
+        assertTrue(PacketMetrics.getAllCounters().contains(counters));
+    }
+
+    @Test
+    public void testPrometheus() throws IOException {
+        PacketMetrics.recordPacket(PacketType.Play.Server.KEEP_ALIVE, 12);
+        PacketMetrics.registerGauge("protocollib_test_gauge", "Test gauge.", () -> 42);
+
+        try {
+            StringBuilder builder = new StringBuilder();
+            PacketMetrics.writePrometheus(builder);
+            String output = builder.toString();
+
+            assertTrue(output.contains("# TYPE protocollib_packets_total counter\n"));
+            assertTrue(output.contains("protocollib_packets_total{direction=\"outbound\",protocol=\"PLAY\",type=\"KEEP_ALIVE\"} "));
+            assertTrue(output.contains("protocollib_test_gauge 42\n"));
+        } finally {
+            PacketMetrics.unregisterGauge("protocollib_test_gauge");
+        }
+    }
+}
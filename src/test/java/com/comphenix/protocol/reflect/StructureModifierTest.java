@@ -0,0 +1,69 @@
+package com.comphenix.protocol.reflect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.injector.StructureCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class StructureModifierTest {
+
+    @BeforeAll
+    public static void beforeClass() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testPrimitiveAccess() {
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
+
+        StructureModifier<Integer> integers = packet.getIntegers();
+        integers.writeInt(0, 1_000_000);
+        assertEquals(1_000_000, integers.readInt(0));
+        assertEquals(1_000_000, integers.read(0));
+
+        StructureModifier<Double> doubles = packet.getDoubles();
+        doubles.writeDouble(1, 64.5D).writeDouble(2, -1D);
+        assertEquals(64.5D, doubles.readDouble(1));
+        assertEquals(-1D, doubles.read(2));
+
+        StructureModifier<Byte> bytes = packet.getBytes();
+        bytes.writeByte(0, (byte) 12);
+        assertEquals((byte) 12, bytes.readByte(0));
+
+        assertThrows(FieldAccessException.class, () -> integers.readInt(integers.size()));
+    }
+
+    @Test
+    public void testConcurrentSubtypes() throws Exception {
+        StructureModifier<Object> structure = StructureCache.getStructure(PacketType.Play.Server.SPAWN_ENTITY);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<StructureModifier<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                // copies of a modifier share the same subtype cache
+                StructureModifier<Object> copy = structure.withTarget(null);
+                results.add(executor.submit(() -> copy.withType(int.class)));
+            }
+
+            StructureModifier<Integer> expected = structure.withType(int.class);
+            assertFalse(expected.getFields().isEmpty());
+            for (Future<StructureModifier<Integer>> result : results) {
+                assertEquals(expected.getFields(), result.get().getFields());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -7,6 +7,10 @@ import java.lang.reflect.Field;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AccessorsTest {
 
@@ -24,6 +28,32 @@ class AccessorsTest {
         assertEquals("MODIFIED", player.getName());
     }
 
+    @Test
+    void testPrimitiveField() {
+        Primitives primitives = new Primitives();
+
+        IntFieldAccessor intAccessor = (IntFieldAccessor) assertDoesNotThrow(() -> Accessors.getFieldAccessor(
+                ExactReflection.fromClass(Primitives.class, true).getField("intValue")));
+        intAccessor.setInt(primitives, 1_000_000);
+        assertEquals(1_000_000, intAccessor.getInt(primitives));
+        assertEquals(1_000_000, intAccessor.get(primitives));
+
+        DoubleFieldAccessor doubleAccessor = (DoubleFieldAccessor) assertDoesNotThrow(() -> Accessors.getFieldAccessor(
+                ExactReflection.fromClass(Primitives.class, true).getField("doubleValue")));
+        doubleAccessor.set(primitives, 2.5D);
+        assertEquals(2.5D, doubleAccessor.getDouble(primitives));
+
+        BooleanFieldAccessor booleanAccessor = (BooleanFieldAccessor) assertDoesNotThrow(() -> Accessors.getFieldAccessor(
+                ExactReflection.fromClass(Primitives.class, true).getField("booleanValue")));
+        booleanAccessor.setBoolean(primitives, true);
+        assertTrue(primitives.booleanValue);
+
+        ByteFieldAccessor byteAccessor = (ByteFieldAccessor) assertDoesNotThrow(() -> Accessors.getFieldAccessor(
+                ExactReflection.fromClass(Primitives.class, true).getField("byteValue")));
+        byteAccessor.setByte(primitives, (byte) -3);
+        assertEquals((byte) -3, primitives.byteValue);
+    }
+
     @Test
     void testMethod() {
         Player player = new Player(123, "ABC");
@@ -32,6 +62,82 @@ class AccessorsTest {
         assertEquals(0, player.getId());
     }
 
+    @Test
+    void testFixedArityMethod() {
+        Player player = new Player(123, "ABC");
+
+        MethodAccessor setId = Accessors.getMethodAccessor(Player.class, "setId", int.class);
+        assertNull(setId.invoke1(player, 5));
+        assertEquals(5, player.getId());
+
+        MethodAccessor getName = Accessors.getMethodAccessor(Player.class, "getName");
+        assertEquals("ABC", getName.invoke0(player));
+
+        MethodAccessor sum = Accessors.getMethodAccessor(Entity.class, "sum", int.class, int.class);
+        assertEquals(3, sum.invoke2(null, 1, 2));
+
+        // the arity has to match the method
+        assertThrows(IllegalStateException.class, () -> setId.invoke2(player, 1, 2));
+    }
+
+    @Test
+    void testBytecodeBackend() {
+        Accessors.setBackend(AccessorBackend.BYTECODE);
+        try {
+            Player player = new Player(123, "ABC");
+
+            FieldAccessor name = Accessors.getFieldAccessor(
+                    assertDoesNotThrow(() -> ExactReflection.fromClass(Player.class, true).getField("name")));
+            assertInstanceOf(GeneratedFieldAccessor.class, name);
+            assertEquals("ABC", name.get(player));
+
+            // final fields are still written through a method handle
+            name.set(player, "MODIFIED");
+            assertEquals("MODIFIED", player.getName());
+
+            IntFieldAccessor id = (IntFieldAccessor) Accessors.getFieldAccessor(
+                    assertDoesNotThrow(() -> ExactReflection.fromClass(Player.class, true).getField("id")));
+            id.set(player, 15);
+            assertEquals(15, id.getInt(player));
+
+            MethodAccessor setId = Accessors.getMethodAccessor(Player.class, "setId", int.class);
+            assertInstanceOf(GeneratedMethodAccessor.class, setId);
+            assertNull(setId.invoke(player, 7));
+            assertEquals(7, player.getId());
+            assertThrows(IllegalStateException.class, () -> setId.invoke(player));
+        } finally {
+            Accessors.setBackend(AccessorBackend.METHOD_HANDLE);
+        }
+    }
+
+    @Test
+    void testFixedArityOnEveryBackend() {
+        for (AccessorBackend backend : AccessorBackend.values()) {
+            Accessors.setBackend(backend);
+            try {
+                Player player = new Player(123, "ABC");
+
+                assertEquals("ABC", Accessors.getMethodAccessor(Player.class, "getName").invoke0(player));
+
+                MethodAccessor setId = Accessors.getMethodAccessor(Player.class, "setId", int.class);
+                assertNull(setId.invoke1(player, 5));
+                assertEquals(5, player.getId());
+
+                MethodAccessor sum = Accessors.getMethodAccessor(Entity.class, "sum", int.class, int.class);
+                assertEquals(3, sum.invoke2(null, 1, 2));
+
+                MethodAccessor describe = Accessors.getMethodAccessor(
+                        Entity.class, "describe", String.class, int.class, boolean.class);
+                assertEquals("entity 5 x2 true", describe.invoke3(player, "x", 2, true));
+
+                // the arity has to match the method
+                assertThrows(IllegalStateException.class, () -> setId.invoke2(player, 1, 2));
+            } finally {
+                Accessors.setBackend(AccessorBackend.METHOD_HANDLE);
+            }
+        }
+    }
+
     @Test
     void testConstructor() {
         Player player = (Player) assertDoesNotThrow(() -> Accessors
@@ -42,6 +148,14 @@ class AccessorsTest {
     }
 
     // --- Some classes we can use for testing ---
+    private static class Primitives {
+
+        private int intValue;
+        private double doubleValue;
+        private boolean booleanValue;
+        private byte byteValue;
+    }
+
     private static class Entity {
 
         private int id;
@@ -58,6 +172,16 @@ class AccessorsTest {
         private void setId(int value) {
             this.id = value;
         }
+
+        @SuppressWarnings("unused")
+        private static int sum(int left, int right) {
+            return left + right;
+        }
+
+        @SuppressWarnings("unused")
+        private String describe(String prefix, int count, boolean flag) {
+            return "entity " + this.id + " " + prefix + count + " " + flag;
+        }
     }
 
     private static class Player extends Entity {
@@ -0,0 +1,42 @@
+package com.comphenix.protocol.timing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long lower = LatencyHistogram.bucketLowerBound(index);
+            assertTrue(lower <= value, "lower bound of " + value);
+            assertTrue(value - lower < LatencyHistogram.bucketWidth(index), "upper bound of " + value);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.observe(i * 1000L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMinimum());
+        assertEquals(1_000_000, snapshot.getMaximum());
+        assertEquals(500_500, snapshot.getMean(), 0.001);
+
+        // buckets are at most 12.5% wide
+        assertEquals(500_000, snapshot.getPercentile(0.5), 500_000 * 0.125);
+        assertEquals(990_000, snapshot.getPercentile(0.99), 990_000 * 0.125);
+        assertEquals(1_000_000, snapshot.getPercentile(1));
+
+        LatencyHistogram.Snapshot combined = snapshot.add(snapshot);
+        assertEquals(2000, combined.getCount());
+        assertEquals(snapshot.getPercentile(0.5), combined.getPercentile(0.5));
+    }
+}
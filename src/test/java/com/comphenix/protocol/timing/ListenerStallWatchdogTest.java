@@ -0,0 +1,71 @@
+package com.comphenix.protocol.timing;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.error.ErrorReporter;
+import com.comphenix.protocol.error.Report.ReportBuilder;
+import com.comphenix.protocol.events.PacketListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ListenerStallWatchdogTest {
+
+	@BeforeAll
+	public static void beforeClass() {
+		BukkitInitialization.initializeAll();
+	}
+
+	@AfterEach
+	public void shutdown() {
+		ListenerStallWatchdog.shutdown();
+	}
+
+	@Test
+	public void testReportsStall() throws InterruptedException {
+		ErrorReporter reporter = mock(ErrorReporter.class);
+		ListenerStallWatchdog.configure(reporter, 20);
+		assertTrue(ListenerStallWatchdog.isRunning());
+
+		ListenerStallWatchdog.InFlight inFlight = ListenerStallWatchdog.enter(mock(PacketListener.class), PacketType.Play.Server.CHAT);
+		assertNotNull(inFlight);
+
+		// nested invocations are covered by the outer one
+		assertNull(ListenerStallWatchdog.enter(mock(PacketListener.class), PacketType.Play.Server.CHAT));
+
+		try {
+			verify(reporter, timeout(2000)).reportWarning(any(), any(ReportBuilder.class));
+		} finally {
+			ListenerStallWatchdog.exit(inFlight);
+		}
+	}
+
+	@Test
+	public void testFastListener() throws InterruptedException {
+		ErrorReporter reporter = mock(ErrorReporter.class);
+		ListenerStallWatchdog.configure(reporter, 1000);
+
+		ListenerStallWatchdog.InFlight inFlight = ListenerStallWatchdog.enter(mock(PacketListener.class), PacketType.Play.Server.CHAT);
+		ListenerStallWatchdog.exit(inFlight);
+		Thread.sleep(300);
+
+		verify(reporter, never()).reportWarning(any(), any(ReportBuilder.class));
+	}
+
+	@Test
+	public void testDisabled() {
+		ListenerStallWatchdog.configure(mock(ErrorReporter.class), 0);
+		assertFalse(ListenerStallWatchdog.isRunning());
+		assertNull(ListenerStallWatchdog.enter(mock(PacketListener.class), PacketType.Play.Server.CHAT));
+	}
+}
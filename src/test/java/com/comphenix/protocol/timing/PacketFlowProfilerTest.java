@@ -0,0 +1,88 @@
+package com.comphenix.protocol.timing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PacketFlowProfilerTest {
+
+	@BeforeAll
+	public static void beforeClass() {
+		BukkitInitialization.initializeAll();
+	}
+
+	@Test
+	public void testCollapsedStacks() throws IOException {
+		assertNull(PacketFlowProfiler.begin());
+		PacketFlowProfiler.end();
+
+		assertTrue(PacketFlowProfiler.start(1, 16));
+		assertFalse(PacketFlowProfiler.start(1, 16));
+
+		for (int i = 0; i < 2; i++) {
+			PacketFlowTrace trace = PacketFlowProfiler.begin();
+			assertNotNull(trace);
+			assertSame(trace, PacketFlowProfiler.current());
+			trace.setPacketType(PacketType.Play.Client.CHAT);
+			trace.lap(PacketFlowStage.DECODE);
+
+			// nested flows are folded into the outer trace
+			assertNull(PacketFlowProfiler.begin());
+			assertNull(PacketFlowProfiler.current());
+			assertSame(trace, PacketFlowProfiler.enclosing());
+			PacketFlowProfiler.end();
+			assertNull(PacketFlowProfiler.enclosing());
+
+			trace.lap(PacketFlowStage.PROTOCOL_LOOKUP);
+			PacketFlowProfiler.end();
+			assertNull(PacketFlowProfiler.current());
+		}
+
+		// flows without a packet type are discarded
+		PacketFlowProfiler.begin().lap(PacketFlowStage.ENCODE);
+		PacketFlowProfiler.end();
+
+		StringBuilder builder = new StringBuilder();
+		assertTrue(PacketFlowProfiler.stop(builder));
+		assertFalse(PacketFlowProfiler.stop(new StringBuilder()));
+
+		String[] lines = builder.toString().split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[0].matches("inbound;PLAY;CHAT;decode \\d+"), lines[0]);
+		assertTrue(lines[1].matches("inbound;PLAY;CHAT;protocol_lookup \\d+"), lines[1]);
+	}
+
+	@Test
+	public void testStopClearsTrace() throws IOException {
+		assertTrue(PacketFlowProfiler.start(1, 16));
+		PacketFlowTrace trace = PacketFlowProfiler.begin();
+		assertNotNull(trace);
+		trace.setPacketType(PacketType.Play.Client.CHAT);
+		trace.lap(PacketFlowStage.DECODE);
+		assertTrue(PacketFlowProfiler.stop(new StringBuilder()));
+
+		// the flow ends after the profiler was stopped, which must not keep the trace (and its session) around
+		PacketFlowProfiler.end();
+
+		assertTrue(PacketFlowProfiler.start(1, 16));
+		PacketFlowTrace next = PacketFlowProfiler.begin();
+		assertNotNull(next);
+		assertNotSame(trace, next);
+		PacketFlowProfiler.end();
+		assertNull(PacketFlowProfiler.current());
+
+		StringBuilder builder = new StringBuilder();
+		assertTrue(PacketFlowProfiler.stop(builder));
+		assertEquals("", builder.toString());
+	}
+}